@@ -0,0 +1,14 @@
+-- One-off migration for app notification full-text search (PostgreSQL).
+-- Adding the stored generated column rewrites app_notifications under an ACCESS EXCLUSIVE lock, so run it
+-- once in a maintenance window. CREATE INDEX CONCURRENTLY cannot run inside a transaction block: run this
+-- file with psql in autocommit mode (no --single-transaction). If the index build fails it leaves an INVALID
+-- index behind; drop it with DROP INDEX CONCURRENTLY idx_app_notifications_search and run the file again.
+-- Until the column exists the service falls back to substring search.
+
+ALTER TABLE app_notifications ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS (
+    setweight(to_tsvector('english', coalesce(title, '')), 'A') ||
+    setweight(to_tsvector('english', replace(coalesce(category, ''), '_', ' ')), 'B') ||
+    setweight(to_tsvector('english', coalesce(message, '')), 'C')) STORED;
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_app_notifications_search
+    ON app_notifications USING GIN (search_vector);
@@ -117,6 +117,14 @@ test() {
     print_success "Tests completed!"
 }
 
+# Function to run the offline end-to-end load test
+# Extra arguments are passed to Maven, e.g. -Dloadtest.rate=100 -Dloadtest.baseline=target/loadtest/baseline.json
+loadtest() {
+    print_status "Running load test (in-process broker, fake SMTP, H2)..."
+    $MAVEN_CMD -Ploadtest test "$@"
+    print_success "Load test completed! Report: target/loadtest/report.json"
+}
+
 # Function to run the application
 run() {
     local port=${1:-$DEFAULT_PORT}
@@ -227,6 +235,7 @@ show_help() {
     echo "  format                   Format code using Spotless"
     echo "  build                    Build the application (format, clean, compile, test, package)"
     echo "  test                     Run tests only"
+    echo "  loadtest [MVN_ARGS]      Run the offline end-to-end load test"
     echo "  run [PORT]              Start the application (default port: $DEFAULT_PORT)"
     echo "  stop                    Stop the application"
     echo "  restart [PORT]          Restart the application"
@@ -239,6 +248,7 @@ show_help() {
     echo "  $0 format"
     echo "  $0 build"
     echo "  $0 test"
+    echo "  $0 loadtest -Dloadtest.rate=100 -Dloadtest.messages=5000"
     echo "  $0 run"
     echo "  $0 run 8084"
     echo "  $0 restart"
@@ -264,6 +274,10 @@ main() {
         "test")
             test
             ;;
+        "loadtest")
+            shift
+            loadtest "$@"
+            ;;
         "run")
             run "$2"
             ;;
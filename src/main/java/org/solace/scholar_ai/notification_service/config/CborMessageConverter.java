@@ -0,0 +1,40 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import java.lang.reflect.Type;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.AbstractJackson2MessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.MimeType;
+
+/**
+ * Jackson message converter for {@code application/cbor} bodies (RFC 8949): the same object model as JSON, but
+ * binary, so numbers, UUID-sized strings and field names are length-prefixed instead of quoted and escaped, and
+ * decoding skips text tokenizing. Type resolution works exactly as for {@code Jackson2JsonMessageConverter}.
+ * The body is binary, so it never carries a content encoding; one set by a producer is ignored, since the base
+ * class would otherwise decode the body as text. Only this service's DTOs (and {@code java.lang}/{@code java.util})
+ * are trusted as {@code __TypeId__} targets, so a producer cannot make the converter instantiate an arbitrary class.
+ */
+public class CborMessageConverter extends AbstractJackson2MessageConverter {
+
+    public static final String CONTENT_TYPE = "application/cbor";
+
+    static final String TRUSTED_PACKAGE = "org.solace.scholar_ai.notification_service.dto";
+
+    public CborMessageConverter() {
+        super(Jackson2ObjectMapperBuilder.cbor().build(), MimeType.valueOf(CONTENT_TYPE), TRUSTED_PACKAGE);
+    }
+
+    @Override
+    public Object fromMessage(Message message, Object conversionHint) {
+        message.getMessageProperties().setContentEncoding(null);
+        return super.fromMessage(message, conversionHint);
+    }
+
+    @Override
+    protected Message createMessage(Object object, MessageProperties properties, Type genericType) {
+        Message message = super.createMessage(object, properties, genericType);
+        message.getMessageProperties().setContentEncoding(null);
+        return message;
+    }
+}
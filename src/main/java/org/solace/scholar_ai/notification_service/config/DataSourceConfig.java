@@ -0,0 +1,72 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+/**
+ * In virtual-thread mode, wraps the application DataSource in a {@link ConnectionLimitingDataSource}
+ * so that an unbounded number of virtual threads cannot starve the small Hikari pool. With read/write routing
+ * each pool gets its own limiter, sized to that pool.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+@ConditionalOnProperty(name = "app.datasource.connection-limiter.enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class DataSourceConfig {
+
+    @Bean
+    public static BeanPostProcessor connectionLimiterPostProcessor(
+            Environment environment, ObjectProvider<MeterRegistry> meterRegistry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                // the read/write routing proxy delegates to the two pools, which are limited individually
+                if (!(bean instanceof DataSource dataSource) || bean instanceof DelegatingDataSource) {
+                    return bean;
+                }
+                int permits = "readDataSource".equals(beanName)
+                        ? environment.getProperty("app.datasource.read.hikari.maximum-pool-size", Integer.class, 10)
+                        : environment.getProperty(
+                                "app.datasource.connection-limiter.permits",
+                                Integer.class,
+                                environment.getProperty(
+                                        "spring.datasource.hikari.maximum-pool-size", Integer.class, 10));
+                Duration timeout = environment.getProperty(
+                        "app.datasource.connection-limiter.acquire-timeout", Duration.class, Duration.ofSeconds(30));
+                ConnectionLimitingDataSource limited = new ConnectionLimitingDataSource(dataSource, permits, timeout);
+                meterRegistry.ifAvailable(registry -> registerGauges(registry, beanName, limited));
+                log.info(
+                        "Virtual threads enabled: limiting DataSource '{}' to {} concurrent connections",
+                        beanName,
+                        permits);
+                return limited;
+            }
+        };
+    }
+
+    private static void registerGauges(MeterRegistry registry, String name, ConnectionLimitingDataSource dataSource) {
+        Gauge.builder("jdbc.connection.limiter.waiting", dataSource, ConnectionLimitingDataSource::getWaitingThreads)
+                .description("Threads queued for a database connection permit")
+                .tag("name", name)
+                .register(registry);
+        Gauge.builder(
+                        "jdbc.connection.limiter.available",
+                        dataSource,
+                        ConnectionLimitingDataSource::getAvailablePermits)
+                .description("Database connection permits currently free")
+                .tag("name", name)
+                .register(registry);
+    }
+}
@@ -27,6 +27,19 @@ public class MailConfig {
     @Value("${spring.mail.protocol:smtp}")
     private String mailProtocol;
 
+    @Value("${spring.threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    @Value("${app.mail.send-threads:16}")
+    private int sendThreads;
+
+    @Value("${app.mail.send-scheduler.enabled:true}")
+    private boolean sendScheduler;
+
+    // Full SMTP transcript for every message; prefer the smtptrace actuator endpoint for targeted tracing
+    @Value("${app.mail.debug:false}")
+    private boolean mailDebug;
+
     @Bean
     public JavaMailSender javaMailSender() {
         log.info("Configuring JavaMailSender with host: {}, port: {}, username: {}", mailHost, mailPort, mailUsername);
@@ -52,10 +65,15 @@ public class MailConfig {
         props.put("mail.smtp.timeout", "5000");
         props.put("mail.smtp.writetimeout", "5000");
         props.put("mail.smtp.ssl.trust", mailHost);
-        props.put("mail.debug", "true");
-        props.put("mail.debug.auth", "true");
+        props.put("mail.debug", String.valueOf(mailDebug));
+        props.put("mail.debug.auth", String.valueOf(mailDebug));
 
         log.info("JavaMailSender configured successfully");
+        // EmailSendScheduler already runs sends on its own platform threads
+        if (virtualThreads && !sendScheduler) {
+            log.info("Virtual threads enabled, offloading SMTP sends to {} platform threads", sendThreads);
+            return new PlatformThreadMailSender(mailSender, sendThreads);
+        }
         return mailSender;
     }
 }
@@ -0,0 +1,88 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import jakarta.mail.internet.MimeMessage;
+import java.io.InputStream;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+/**
+ * Runs SMTP sends on a small pool of platform threads.
+ * Jakarta Mail's transport synchronizes on the connection for the whole SMTP dialogue, which pins the carrier
+ * thread when called from a virtual thread; with a few carriers the whole listener stalls behind slow relays.
+ * Callers park on the returned future instead, which a virtual thread can do without holding its carrier.
+ */
+public class PlatformThreadMailSender implements JavaMailSender, DisposableBean {
+
+    private final JavaMailSenderImpl delegate;
+    private final ExecutorService executor;
+
+    public PlatformThreadMailSender(JavaMailSenderImpl delegate, int threads) {
+        this.delegate = delegate;
+        AtomicInteger counter = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "mail-send-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    public JavaMailSenderImpl getDelegate() {
+        return delegate;
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return delegate.createMimeMessage();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        return delegate.createMimeMessage(contentStream);
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        await(executor.submit(() -> {
+            delegate.send(mimeMessages);
+            return null;
+        }));
+    }
+
+    @Override
+    public void send(SimpleMailMessage... simpleMessages) throws MailException {
+        await(executor.submit((Callable<Void>) () -> {
+            delegate.send(simpleMessages);
+            return null;
+        }));
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+
+    private static void await(Future<?> future) {
+        try {
+            future.get();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new MailSendException("Interrupted while waiting for mail send", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new MailSendException("Mail send failed", e.getCause());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import java.util.Map;
+import javax.sql.DataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Two Hikari pools behind one DataSource: read-only transactions ({@code @Transactional(readOnly = true)}, which
+ * includes Spring Data's inherited finders) run on the {@code read} pool, everything else on the {@code write}
+ * pool, so a burst of feed polling queues for read connections instead of the consumer's inserts.
+ * The write pool is configured by {@code spring.datasource.*}; the read pool by {@code app.datasource.read.*},
+ * by default against the same database, or a replica if {@code app.datasource.read.url} points at one. Replica
+ * reads can trail the primary, so code that reads its own writes does so in a read-write transaction.
+ * The routing target is wrapped in a {@link LazyConnectionDataSourceProxy} because the transaction manager
+ * asks for a connection before it marks the transaction read-only; the pool is chosen on the first statement.
+ * Both pools are ordinary beans, so Hikari metrics are published per pool ({@code hikaricp.*{pool=write|read}}).
+ * Routing is per transaction, so it needs {@code spring.jpa.open-in-view=false}: with open-in-view, Hibernate
+ * keeps the session's first connection for the whole HTTP request, and a write after a read-only lookup in the
+ * same request would run on the read pool. Startup fails if open-in-view is on.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.datasource.routing.enabled", havingValue = "true")
+@Slf4j
+public class ReadWriteDataSourceConfig {
+
+    public static final String WRITE = "write";
+    public static final String READ = "read";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource writeDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName(WRITE);
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("app.datasource.read.hikari")
+    public HikariDataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        String url = environment.getProperty("app.datasource.read.url");
+        HikariDataSource dataSource = properties
+                .initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .url(url != null && !url.isBlank() ? url : properties.determineUrl())
+                .username(environment.getProperty("app.datasource.read.username", properties.determineUsername()))
+                .password(environment.getProperty("app.datasource.read.password", properties.determinePassword()))
+                .build();
+        dataSource.setPoolName(READ);
+        dataSource.setReadOnly(true);
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+            @Qualifier("writeDataSource") DataSource write,
+            @Qualifier("readDataSource") DataSource read,
+            Environment environment) {
+        AbstractRoutingDataSource routing = new AbstractRoutingDataSource() {
+            @Override
+            protected Object determineCurrentLookupKey() {
+                return TransactionSynchronizationManager.isCurrentTransactionReadOnly() ? READ : WRITE;
+            }
+        };
+        routing.setTargetDataSources(Map.of(WRITE, write, READ, read));
+        routing.setDefaultTargetDataSource(write);
+        routing.afterPropertiesSet();
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            throw new IllegalStateException("app.datasource.routing.enabled needs spring.jpa.open-in-view=false;"
+                    + " otherwise writes after a read-only lookup in one HTTP request run on the read pool");
+        }
+        log.info("Routing read-only transactions to the read pool");
+        return new LazyConnectionDataSourceProxy(routing);
+    }
+}
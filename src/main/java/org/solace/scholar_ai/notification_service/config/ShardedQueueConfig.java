@@ -0,0 +1,85 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.amqp.core.*;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Topology for user-sharded consumption.
+ * Producers keep publishing to the notification exchange; a single-active-consumer router queue takes their
+ * messages in publish order and forwards each one to {@code <queue>.shard-<n>} by hash of the user id. Shard
+ * queues are single-active-consumer as well, so a shard is only ever consumed by one instance at a time, even
+ * while ownership moves between instances.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+public class ShardedQueueConfig {
+
+    /** Optional header with the message's user id; lets the router pick a shard without reading the body. */
+    public static final String USER_ID_HEADER = "x-user-id";
+
+    @Value("${rabbitmq.notification.queue.name}")
+    private String notificationQueueName;
+
+    @Value("${rabbitmq.notification.exchange.name}")
+    private String notificationExchangeName;
+
+    @Value("${rabbitmq.notification.routing.key}")
+    private String notificationRoutingKey;
+
+    @Value("${app.sharding.shards:16}")
+    private int shards;
+
+    @Bean
+    public Queue notificationRouterQueue() {
+        return QueueBuilder.durable(routerQueueName(notificationQueueName))
+                .singleActiveConsumer()
+                .build();
+    }
+
+    @Bean
+    public Binding notificationRouterBinding(TopicExchange notificationExchange) {
+        return BindingBuilder.bind(notificationRouterQueue())
+                .to(notificationExchange)
+                .with(notificationRoutingKey);
+    }
+
+    @Bean
+    public DirectExchange notificationShardExchange() {
+        return new DirectExchange(shardExchangeName(notificationExchangeName));
+    }
+
+    @Bean
+    public Declarables notificationShardQueues() {
+        List<Declarable> declarables = new ArrayList<>();
+        for (int shard = 0; shard < shards; shard++) {
+            Queue queue = QueueBuilder.durable(shardQueueName(notificationQueueName, shard))
+                    .singleActiveConsumer()
+                    .build();
+            declarables.add(queue);
+            declarables.add(
+                    BindingBuilder.bind(queue).to(notificationShardExchange()).with(shardRoutingKey(shard)));
+        }
+        return new Declarables(declarables);
+    }
+
+    public static String routerQueueName(String queueName) {
+        return queueName + ".router";
+    }
+
+    public static String shardExchangeName(String exchangeName) {
+        return exchangeName + ".shards";
+    }
+
+    public static String shardQueueName(String queueName, int shard) {
+        return queueName + ".shard-" + shard;
+    }
+
+    public static String shardRoutingKey(int shard) {
+        return "shard-" + shard;
+    }
+}
@@ -9,6 +9,7 @@ import java.util.List;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
 
 /**
  * Configuration for Swagger API documentation for the Notification Service.
@@ -16,6 +17,7 @@ import org.springframework.context.annotation.Configuration;
  * since the notification service is designed to be called internally by other services.
  */
 @Configuration
+@Lazy
 public class SwaggerConfig {
 
     @Value("${server.port:8082}")
@@ -0,0 +1,77 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import java.util.Map;
+import org.solace.scholar_ai.notification_service.service.TemplateOptimizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.thymeleaf.IEngineConfiguration;
+import org.thymeleaf.cache.AlwaysValidCacheEntryValidity;
+import org.thymeleaf.cache.ICacheEntryValidity;
+import org.thymeleaf.templatemode.TemplateMode;
+import org.thymeleaf.templateresolver.AbstractTemplateResolver;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+import org.thymeleaf.templateresource.ITemplateResource;
+import org.thymeleaf.templateresource.StringTemplateResource;
+
+/**
+ * Serves the startup-optimized email templates to Thymeleaf ahead of the default classpath resolver.
+ * Templates the optimizer did not produce (or all of them, when optimization is disabled) fall through to it.
+ */
+@Configuration
+public class TemplateConfig {
+
+    @Bean
+    public ITemplateResolver optimizedTemplateResolver(TemplateOptimizer templateOptimizer) {
+        OptimizedTemplateResolver resolver = new OptimizedTemplateResolver(templateOptimizer);
+        resolver.setOrder(0);
+        resolver.setName("optimized-email-templates");
+        return resolver;
+    }
+
+    static class OptimizedTemplateResolver extends AbstractTemplateResolver {
+
+        private final TemplateOptimizer templateOptimizer;
+
+        OptimizedTemplateResolver(TemplateOptimizer templateOptimizer) {
+            this.templateOptimizer = templateOptimizer;
+        }
+
+        @Override
+        protected boolean computeResolvable(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return templateOptimizer.optimizedSource(template).isPresent();
+        }
+
+        @Override
+        protected ITemplateResource computeTemplateResource(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return new StringTemplateResource(
+                    templateOptimizer.optimizedSource(template).orElseThrow());
+        }
+
+        @Override
+        protected TemplateMode computeTemplateMode(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            return TemplateMode.HTML;
+        }
+
+        @Override
+        protected ICacheEntryValidity computeValidity(
+                IEngineConfiguration configuration,
+                String ownerTemplate,
+                String template,
+                Map<String, Object> templateResolutionAttributes) {
+            // The optimized source never changes after startup, so the parsed template can always be cached
+            return AlwaysValidCacheEntryValidity.INSTANCE;
+        }
+    }
+}
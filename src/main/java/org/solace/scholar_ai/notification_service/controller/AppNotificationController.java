@@ -1,15 +1,41 @@
 package org.solace.scholar_ai.notification_service.controller;
 
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSearchResult;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSummary;
+import org.solace.scholar_ai.notification_service.dto.BatchCreateResult;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.service.AppNotificationSearchService;
 import org.solace.scholar_ai.notification_service.service.AppNotificationService;
+import org.solace.scholar_ai.notification_service.service.FeedVersionService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("api/v1/app-notifications")
@@ -18,11 +44,62 @@ import org.springframework.web.bind.annotation.*;
 public class AppNotificationController {
 
     private final AppNotificationService service;
+    private final FeedVersionService feedVersions;
+    private final AppNotificationSearchService searchService;
+    private final ObjectMapper objectMapper;
 
-    @Operation(summary = "List app notifications for a user")
+    @Value("${app.notifications.batch.max-size:1000}")
+    private int maxBatchSize;
+
+    @Operation(
+            summary = "List app notifications for a user",
+            description = "Sends the user's feed version as ETag; If-None-Match with it is answered with 304.")
     @GetMapping("/user/{userId}")
-    public List<AppNotification> listByUser(@PathVariable("userId") UUID userId) {
-        return service.listByUser(userId);
+    public ResponseEntity<List<AppNotification>> listByUser(@PathVariable("userId") UUID userId, WebRequest request) {
+        FeedVersionService.Version version = feedVersions.current(userId);
+        if (request.checkNotModified(version.etag("list"), version.lastModifiedMillis())) {
+            return null;
+        }
+        return revalidated().body(service.listByUser(userId));
+    }
+
+    @Operation(
+            summary = "List slim notification summaries for a user's feed (no message or metadata)",
+            description = "Sends the user's feed version as ETag; If-None-Match with it is answered with 304.")
+    @GetMapping("/user/{userId}/feed")
+    public ResponseEntity<List<AppNotificationSummary>> feedByUser(
+            @PathVariable("userId") UUID userId, WebRequest request) {
+        FeedVersionService.Version version = feedVersions.current(userId);
+        if (request.checkNotModified(version.etag("feed"), version.lastModifiedMillis())) {
+            return null;
+        }
+        return revalidated().body(service.feedByUser(userId));
+    }
+
+    @Operation(
+            summary = "Search a user's app notifications by title, category and message",
+            description = "Ranked best match first. Supports \"quoted phrases\", or, and -excluded terms.")
+    @GetMapping("/user/{userId}/search")
+    public AppNotificationSearchResult search(
+            @PathVariable("userId") UUID userId,
+            @RequestParam("q") String query,
+            @RequestParam(name = "page", defaultValue = "0") int page,
+            @RequestParam(name = "size", defaultValue = "20") int size) {
+        try {
+            return searchService.search(userId, query, page, size);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get one app notification with message and metadata")
+    @GetMapping("/{id}")
+    public AppNotification get(@PathVariable("id") UUID id) {
+        try {
+            return service.get(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
     }
 
     @Operation(summary = "Create an app notification (from any service or frontend)")
@@ -43,6 +120,50 @@ public class AppNotificationController {
                 req.getMetadata());
     }
 
+    @Operation(
+            summary = "Create many app notifications in one call",
+            description = "Body is a JSON array of create requests, parsed incrementally. Valid items are inserted"
+                    + " in a single transaction; invalid ones are reported per index and skipped.")
+    @io.swagger.v3.oas.annotations.parameters.RequestBody(
+            content =
+                    @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            array = @ArraySchema(schema = @Schema(implementation = CreateRequest.class))))
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public BatchCreateResult createBatch(InputStream body) throws IOException {
+        List<AppNotification> drafts = new ArrayList<>();
+        Map<Integer, List<String>> rejected = new HashMap<>();
+        try (JsonParser parser = objectMapper.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Expected a JSON array of notifications");
+            }
+            while (parser.nextToken() != JsonToken.END_ARRAY) {
+                if (parser.currentToken() == null) {
+                    throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unterminated JSON array");
+                }
+                if (drafts.size() == maxBatchSize) {
+                    throw new ResponseStatusException(
+                            HttpStatus.PAYLOAD_TOO_LARGE, "Batch exceeds the maximum of " + maxBatchSize + " items");
+                }
+                // Syntax errors still fail the whole batch here; a well-formed item that does not bind (an unknown
+                // enum, a bad uuid, unserializable metadata) is rejected at its index and the rest go ahead.
+                JsonNode item = parser.readValueAsTree();
+                try {
+                    drafts.add(draft(objectMapper.treeToValue(item, CreateRequest.class)));
+                } catch (JsonProcessingException e) {
+                    rejected.put(drafts.size(), List.of(bindError(e)));
+                    drafts.add(null);
+                } catch (IllegalArgumentException e) {
+                    rejected.put(drafts.size(), List.of(e.getMessage()));
+                    drafts.add(null);
+                }
+            }
+        } catch (JsonProcessingException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Malformed batch: " + e.getOriginalMessage());
+        }
+        return service.createBatch(drafts, rejected);
+    }
+
     @Operation(summary = "Mark an app notification as read")
     @PostMapping("/{id}/read")
     public AppNotification markRead(@PathVariable("id") UUID id) {
@@ -55,12 +176,56 @@ public class AppNotificationController {
         service.markMultipleRead(ids);
     }
 
+    @Operation(
+            summary = "Mark a user's notification groups as read",
+            description = "Body is a JSON array of group keys; every unread row of those groups is marked read."
+                    + " Returns the number of rows marked.")
+    @PostMapping("/user/{userId}/groups/read")
+    public int markGroupsRead(@PathVariable("userId") UUID userId, @RequestBody List<String> groupKeys) {
+        return service.markGroupsRead(userId, groupKeys);
+    }
+
     @Operation(summary = "Delete an app notification")
     @DeleteMapping("/{id}")
     public void delete(@PathVariable("id") UUID id) {
         service.delete(id);
     }
 
+    private AppNotification draft(CreateRequest req) {
+        if (req == null) {
+            throw new IllegalArgumentException("item is null");
+        }
+        return service.draft(
+                req.getUserId(),
+                req.getType(),
+                req.getCategory(),
+                req.getTitle(),
+                req.getMessage(),
+                req.getPriority(),
+                req.getActionUrl(),
+                req.getActionText(),
+                req.getRelatedProjectId(),
+                req.getRelatedPaperId(),
+                req.getRelatedTaskId(),
+                req.getMetadata());
+    }
+
+    /** The binding error of one batch item, prefixed with the field it is about when Jackson knows it. */
+    private static String bindError(JsonProcessingException e) {
+        if (e instanceof JsonMappingException mapping && !mapping.getPath().isEmpty()) {
+            String field = mapping.getPath().stream()
+                    .map(ref -> ref.getFieldName() != null ? ref.getFieldName() : "[" + ref.getIndex() + "]")
+                    .collect(Collectors.joining("."));
+            return field + ": " + e.getOriginalMessage();
+        }
+        return e.getOriginalMessage();
+    }
+
+    /** ETag and Last-Modified are set by the version check; clients must revalidate before reusing a copy. */
+    private static ResponseEntity.BodyBuilder revalidated() {
+        return ResponseEntity.ok().cacheControl(CacheControl.noCache());
+    }
+
     @Data
     public static class CreateRequest {
         private UUID userId;
@@ -0,0 +1,73 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.Broadcast;
+import org.solace.scholar_ai.notification_service.service.BroadcastService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1/app-notifications/broadcasts")
+@RequiredArgsConstructor
+@Tag(name = "Broadcasts", description = "SYSTEM notifications fanned out to many users in the background")
+public class BroadcastController {
+
+    private final BroadcastService service;
+
+    @Operation(summary = "Start a broadcast; returns immediately, poll the broadcast for progress")
+    @PostMapping
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public Broadcast create(@RequestBody CreateRequest req) {
+        try {
+            return service.submit(
+                    req.getAudience() != null ? req.getAudience() : Broadcast.Audience.ALL_USERS,
+                    req.getUserIds(),
+                    req.getCategory(),
+                    req.getTitle(),
+                    req.getMessage(),
+                    req.getPriority(),
+                    req.getActionUrl(),
+                    req.getActionText(),
+                    req.getMetadata());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get a broadcast and its fan-out progress")
+    @GetMapping("/{id}")
+    public Broadcast get(@PathVariable("id") UUID id) {
+        try {
+            return service.get(id);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "List broadcasts, newest first")
+    @GetMapping
+    public List<Broadcast> list() {
+        return service.list();
+    }
+
+    @Data
+    public static class CreateRequest {
+        private Broadcast.Audience audience; // ALL_USERS (default) | USERS
+        private List<UUID> userIds;
+        private String category;
+        private String title;
+        private String message;
+        private AppNotification.NotificationPriority priority;
+        private String actionUrl;
+        private String actionText;
+        private Map<String, Object> metadata;
+    }
+}
@@ -0,0 +1,40 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.DeliveryState;
+import org.solace.scholar_ai.notification_service.service.DeliveryEventLog;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1/notifications/deliveries")
+@RequiredArgsConstructor
+@Tag(name = "Delivery Events", description = "Stages a message went through, by message (correlation) id")
+public class DeliveryEventController {
+
+    private final DeliveryEventLog eventLog;
+
+    @Operation(summary = "Every stage of a message in time order, with the latency of each")
+    @GetMapping("/{messageId}")
+    public DeliveryEventLog.Timeline timeline(@PathVariable("messageId") String messageId) {
+        DeliveryEventLog.Timeline timeline = eventLog.timeline(messageId);
+        if (timeline == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "No delivery events for " + messageId);
+        }
+        return timeline;
+    }
+
+    @Operation(summary = "Latest stage of a message, as of the last flush of the event log")
+    @GetMapping("/{messageId}/state")
+    public DeliveryState state(@PathVariable("messageId") String messageId) {
+        return eventLog.state(messageId)
+                .orElseThrow(
+                        () -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No delivery state for " + messageId));
+    }
+}
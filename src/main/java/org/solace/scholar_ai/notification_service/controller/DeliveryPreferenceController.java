@@ -0,0 +1,114 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.LocalTime;
+import java.util.List;
+import java.util.UUID;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.EmailSuppression;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.solace.scholar_ai.notification_service.service.DeliveryFilterService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1")
+@RequiredArgsConstructor
+@Tag(name = "Delivery Preferences", description = "Per-user channel preferences and the email suppression list")
+public class DeliveryPreferenceController {
+
+    private final DeliveryFilterService service;
+
+    @Operation(summary = "List a user's channel preferences; types without an entry are sent on both channels")
+    @GetMapping("/notification-preferences/user/{userId}")
+    public List<NotificationPreference> preferences(@PathVariable("userId") UUID userId) {
+        return service.getPreferences(userId);
+    }
+
+    @Operation(summary = "Set whether a notification type is sent to a user by email and in-app")
+    @PutMapping("/notification-preferences/user/{userId}/{type}")
+    public NotificationPreference setPreference(
+            @PathVariable("userId") UUID userId,
+            @PathVariable("type") NotificationRequest.NotificationType type,
+            @RequestBody PreferenceRequest req) {
+        try {
+            return service.setPreference(userId, type, req.isEmail(), req.isInApp());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Get a user's quiet hours")
+    @GetMapping("/notification-preferences/user/{userId}/quiet-hours")
+    public QuietHours quietHours(@PathVariable("userId") UUID userId) {
+        return service.findQuietHours(userId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "No quiet hours set"));
+    }
+
+    @Operation(summary = "Hold non-transactional emails back during a daily window, e.g. 22:00-07:00 Europe/Berlin")
+    @PutMapping("/notification-preferences/user/{userId}/quiet-hours")
+    public QuietHours setQuietHours(@PathVariable("userId") UUID userId, @RequestBody QuietHoursRequest req) {
+        try {
+            return service.setQuietHours(userId, req.getStart(), req.getEnd(), req.getZone());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Remove a user's quiet hours")
+    @DeleteMapping("/notification-preferences/user/{userId}/quiet-hours")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void clearQuietHours(@PathVariable("userId") UUID userId) {
+        service.clearQuietHours(userId);
+    }
+
+    @Operation(summary = "Suppress an address, e.g. from a bounce or complaint webhook")
+    @PostMapping("/suppressions")
+    @ResponseStatus(HttpStatus.CREATED)
+    public EmailSuppression suppress(@RequestBody SuppressionRequest req) {
+        try {
+            return service.suppress(req.getEmail(), req.getReason(), req.getDetail());
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Look up whether an address is suppressed and why")
+    @GetMapping("/suppressions/{email}")
+    public EmailSuppression suppression(@PathVariable("email") String email) {
+        return service.findSuppression(email)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Address is not suppressed"));
+    }
+
+    @Operation(summary = "Remove an address from the suppression list")
+    @DeleteMapping("/suppressions/{email}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void unsuppress(@PathVariable("email") String email) {
+        service.unsuppress(email);
+    }
+
+    @Data
+    public static class PreferenceRequest {
+        private boolean email = true;
+        private boolean inApp = true;
+    }
+
+    @Data
+    public static class QuietHoursRequest {
+        private LocalTime start;
+        private LocalTime end;
+        private String zone; // IANA id, default UTC
+    }
+
+    @Data
+    public static class SuppressionRequest {
+        private String email;
+        private EmailSuppression.Reason reason; // BOUNCE | COMPLAINT | MANUAL (default)
+        private String detail;
+    }
+}
@@ -0,0 +1,56 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.DeliveryStat;
+import org.solace.scholar_ai.notification_service.service.DeliveryStatsService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1/notifications/stats")
+@RequiredArgsConstructor
+@Tag(name = "Delivery Stats", description = "Sent and failed email counts, failure rate and latency over time")
+public class DeliveryStatsController {
+
+    private final DeliveryStatsService service;
+
+    @Operation(summary = "Counts per type and status in minute, hour or day buckets (UTC); defaults to the last 60")
+    @GetMapping
+    public List<DeliveryStatsService.Bucket> stats(
+            @RequestParam(name = "granularity", defaultValue = "HOUR") DeliveryStat.Granularity granularity,
+            @RequestParam(name = "from", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+                    Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "type", required = false) NotificationRequest.NotificationType type) {
+        Instant end = to != null ? to : Instant.now();
+        Instant start = from != null ? from : granularity.minus(granularity.bucket(end), 59);
+        try {
+            return service.query(granularity, start, end, type != null ? type.name() : null);
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Rebuild the rollups before the current day from the notifications table, in the background")
+    @PostMapping("/backfill")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public DeliveryStatsService.BackfillStatus backfill() {
+        if (!service.startBackfill()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A backfill is already running");
+        }
+        return service.backfillStatus();
+    }
+
+    @Operation(summary = "Progress of the current or last backfill")
+    @GetMapping("/backfill")
+    public DeliveryStatsService.BackfillStatus backfillStatus() {
+        return service.backfillStatus();
+    }
+}
@@ -11,11 +11,14 @@ import java.util.HashMap;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
 import org.solace.scholar_ai.notification_service.service.EmailService;
+import org.springframework.context.annotation.Lazy;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 @RestController
+@Lazy
 @RequestMapping("/api/test")
 @RequiredArgsConstructor
 @Slf4j
@@ -64,7 +67,7 @@ public class EmailTestController {
             templateData.put("welcomeMessage", "This is a test email from ScholarAI notification service.");
             templateData.put("supportEmail", "support@scholarai.com");
 
-            emailService.sendWelcomeEmail(toEmail, toName, templateData);
+            emailService.sendWelcomeEmail(toEmail, toName, templateData, AppNotification.NotificationPriority.MEDIUM);
 
             return ResponseEntity.ok("Test email sent successfully to: " + toEmail);
         } catch (Exception e) {
@@ -5,12 +5,16 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import java.util.List;
 import java.util.UUID;
 import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.NotificationRecordSummary;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
 import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
+import org.solace.scholar_ai.notification_service.service.TemplatePayloadCodec;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
 
 @RestController
 @RequestMapping("api/v1/notifications")
@@ -19,10 +23,26 @@ import org.springframework.web.bind.annotation.RestController;
 public class NotificationController {
 
     private final NotificationRecordRepository repository;
+    private final TemplatePayloadCodec payloadCodec;
 
     @Operation(summary = "List notifications for a user")
     @GetMapping("/user/{userId}")
     public List<NotificationRecord> listByUser(@PathVariable("userId") UUID userId) {
-        return repository.findByUserIdOrderByCreatedAtDesc(userId);
+        return payloadCodec.expand(repository.findByUserIdOrderByCreatedAtDesc(userId));
+    }
+
+    @Operation(summary = "List slim notification summaries for a user (no template payload)")
+    @GetMapping("/user/{userId}/feed")
+    public List<NotificationRecordSummary> feedByUser(@PathVariable("userId") UUID userId) {
+        return repository.findSummariesByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    @Operation(summary = "Get one notification with its template data")
+    @GetMapping("/{id}")
+    public NotificationRecord get(@PathVariable("id") UUID id) {
+        return repository
+                .findById(id)
+                .map(payloadCodec::expand)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Notification not found"));
     }
 }
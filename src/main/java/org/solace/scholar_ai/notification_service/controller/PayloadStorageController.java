@@ -0,0 +1,54 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.service.TemplatePayloadCodec;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1/notifications/payload-storage")
+@RequiredArgsConstructor
+@Tag(name = "Payload Storage", description = "Compressed storage of notification template data")
+public class PayloadStorageController {
+
+    private final TemplatePayloadCodec codec;
+
+    @Operation(summary = "Storage used by template data per type, and the estimated savings of compressing it")
+    @GetMapping
+    public TemplatePayloadCodec.StorageReport report(@RequestParam(name = "sample", defaultValue = "200") int sample) {
+        return codec.report(Math.max(1, sample));
+    }
+
+    @Operation(summary = "Train a new compression dictionary for a notification type from its stored payloads")
+    @PostMapping("/dictionaries/{type}")
+    @ResponseStatus(HttpStatus.CREATED)
+    public TemplatePayloadCodec.DictionarySummary train(
+            @PathVariable("type") NotificationRequest.NotificationType type,
+            @RequestParam(name = "sample", defaultValue = "1000") int sample) {
+        try {
+            return codec.train(type.name(), Math.max(1, sample));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+
+    @Operation(summary = "Compress template data stored as text, in the background")
+    @PostMapping("/backfill")
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    public TemplatePayloadCodec.BackfillStatus backfill() {
+        if (!codec.startBackfill()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "A backfill is already running");
+        }
+        return codec.backfillStatus();
+    }
+
+    @Operation(summary = "Progress of the current or last backfill")
+    @GetMapping("/backfill")
+    public TemplatePayloadCodec.BackfillStatus backfillStatus() {
+        return codec.backfillStatus();
+    }
+}
@@ -0,0 +1,39 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import java.time.Instant;
+import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.service.TrafficCapture;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+@RestController
+@RequestMapping("api/v1/notifications/capture")
+@RequiredArgsConstructor
+@Tag(name = "Traffic Capture", description = "PII-scrubbed samples of consumed traffic for replay benchmarks")
+public class TrafficCaptureController {
+
+    private final TrafficCapture capture;
+
+    @Operation(summary = "Whether capture is on, where it writes and how much it has written")
+    @GetMapping
+    public TrafficCapture.Status status() {
+        return capture.status();
+    }
+
+    @Operation(summary = "Write notifications created in [from, to) to a replayable file next to the capture file")
+    @PostMapping("/export")
+    public TrafficCapture.Export export(
+            @RequestParam(name = "from") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(name = "to", required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(name = "limit", defaultValue = "100000") int limit) {
+        try {
+            return capture.exportHistory(from, to != null ? to : Instant.now(), Math.max(1, limit));
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage());
+        }
+    }
+}
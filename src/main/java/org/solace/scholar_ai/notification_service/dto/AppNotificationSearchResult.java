@@ -0,0 +1,42 @@
+package org.solace.scholar_ai.notification_service.dto;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+
+/**
+ * One page of a user's app notifications matching a search, best match first. {@code hasMore} tells whether a
+ * next page exists; totals are not counted.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class AppNotificationSearchResult {
+
+    private String query;
+    private int page;
+    private int size;
+    private boolean hasMore;
+    private List<Hit> items;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Hit {
+        private UUID id;
+        private String title;
+        private String category;
+        private AppNotification.NotificationPriority priority;
+        private AppNotification.NotificationStatus status;
+        private Instant createdAt;
+        private String actionUrl;
+        private double rank;
+    }
+}
@@ -0,0 +1,30 @@
+package org.solace.scholar_ai.notification_service.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+
+/**
+ * Closed projection of {@link AppNotification} for feeds. Spring Data selects only these columns, so the
+ * message and metadata TEXT columns are neither read nor serialized.
+ */
+public interface AppNotificationSummary {
+
+    UUID getId();
+
+    String getTitle();
+
+    String getCategory();
+
+    AppNotification.NotificationPriority getPriority();
+
+    AppNotification.NotificationStatus getStatus();
+
+    Instant getCreatedAt();
+
+    String getActionUrl();
+
+    String getGroupKey();
+
+    int getGroupCount();
+}
@@ -0,0 +1,38 @@
+package org.solace.scholar_ai.notification_service.dto;
+
+import java.util.List;
+import java.util.UUID;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Outcome of a batch create: counts plus one entry per submitted item, in request order.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchCreateResult {
+
+    public enum ItemStatus {
+        CREATED,
+        REJECTED
+    }
+
+    private int created;
+    private int rejected;
+    private List<Item> results;
+
+    @Data
+    @Builder
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Item {
+        private int index;
+        private UUID id;
+        private ItemStatus status;
+        private List<String> errors;
+    }
+}
@@ -0,0 +1,25 @@
+package org.solace.scholar_ai.notification_service.dto;
+
+import java.time.Instant;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+
+/**
+ * Closed projection of {@link NotificationRecord} for feeds, leaving out the template payload and error text.
+ */
+public interface NotificationRecordSummary {
+
+    UUID getId();
+
+    String getMessageId();
+
+    String getType();
+
+    String getSubject();
+
+    String getStatus();
+
+    Instant getCreatedAt();
+
+    Instant getSentAt();
+}
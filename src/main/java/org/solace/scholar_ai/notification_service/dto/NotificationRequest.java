@@ -8,6 +8,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
 
 @Data
 @Builder
@@ -34,6 +35,18 @@ public class NotificationRequest {
             example = "{\"userName\": \"John\", \"welcomeMessage\": \"Welcome to ScholarAI!\"}")
     private Map<String, Object> templateData;
 
+    @JsonFormat(shape = JsonFormat.Shape.STRING)
+    @Schema(
+            description = "Optional earliest delivery time; later messages are held and released at that time",
+            example = "2024-01-16T08:00:00Z")
+    private Instant deliverAt;
+
+    @Schema(
+            description = "Optional send priority; defaults by type (HIGH for password resets and project deletions, "
+                    + "LOW for welcome emails, MEDIUM otherwise)",
+            example = "URGENT")
+    private AppNotification.NotificationPriority priority;
+
     // Optional: propagated from user-service for persistence and querying
     private java.util.UUID userId;
 
@@ -11,7 +11,13 @@ import lombok.*;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "app_notifications")
+@Table(
+        name = "app_notifications",
+        indexes = @Index(name = "idx_app_notifications_user_created", columnList = "user_id, created_at"),
+        uniqueConstraints =
+                @UniqueConstraint(
+                        name = "uk_app_notifications_group",
+                        columnNames = {"user_id", "group_key", "group_window_start"}))
 public class AppNotification {
 
     public enum NotificationKind {
@@ -78,6 +84,25 @@ public class AppNotification {
     @Column(name = "metadata_json", columnDefinition = "TEXT")
     private String metadataJson;
 
+    @Column(name = "broadcast_id", columnDefinition = "uuid")
+    private UUID broadcastId; // set when materialized from a Broadcast
+
+    /** Set on group rows: notifications with this key in the same window are folded into this row. */
+    @Column(name = "group_key", length = 512)
+    private String groupKey;
+
+    @Column(name = "group_window_start")
+    private Instant groupWindowStart;
+
+    /** Notifications folded into this row, 1 for an ungrouped one. */
+    @Column(name = "group_count", columnDefinition = "integer not null default 1")
+    @Builder.Default
+    private int groupCount = 1;
+
+    /** JSON array of the latest members of a group, newest first; title, message and the rest are the newest's. */
+    @Column(name = "group_members_json", columnDefinition = "TEXT")
+    private String groupMembersJson;
+
     @Column(name = "created_at", nullable = false)
     private Instant createdAt;
 
@@ -0,0 +1,107 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * A SYSTEM notification addressed to many users at once. Recipients are staged in
+ * {@code broadcast_recipients} and copied into {@code app_notifications} in chunks; the counters and cursor here
+ * record how far the fan-out has progressed, and the lease says which instance is running it.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "broadcasts")
+public class Broadcast {
+
+    public enum Audience {
+        ALL_USERS, // every user this service has notified before
+        USERS // an explicit list of user ids
+    }
+
+    public enum BroadcastStatus {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "category", length = 128)
+    private String category;
+
+    @Column(name = "title", length = 255, nullable = false)
+    private String title;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "priority", length = 16)
+    private AppNotification.NotificationPriority priority;
+
+    @Column(name = "action_url", length = 255)
+    private String actionUrl;
+
+    @Column(name = "action_text", length = 64)
+    private String actionText;
+
+    @Column(name = "metadata_json", columnDefinition = "TEXT")
+    private String metadataJson;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "audience", length = 16, nullable = false)
+    private Audience audience;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", length = 16, nullable = false)
+    @Builder.Default
+    private BroadcastStatus status = BroadcastStatus.PENDING;
+
+    @Column(name = "total_recipients")
+    private long totalRecipients;
+
+    @Column(name = "delivered_count")
+    private long deliveredCount;
+
+    /** Highest recipient id already materialized; the next chunk starts after it. */
+    @Column(name = "cursor_user_id", columnDefinition = "uuid")
+    private UUID cursorUserId;
+
+    /** Instance running the fan-out; another instance may take over once {@code leaseUntil} has passed. */
+    @JsonIgnore
+    @Column(name = "lease_owner", columnDefinition = "uuid")
+    private UUID leaseOwner;
+
+    @JsonIgnore
+    @Column(name = "lease_until")
+    private Instant leaseUntil;
+
+    @Column(name = "error_message", columnDefinition = "TEXT")
+    private String errorMessage;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "started_at")
+    private Instant startedAt;
+
+    @Column(name = "completed_at")
+    private Instant completedAt;
+
+    public double getProgress() {
+        return totalRecipients == 0
+                ? (status == BroadcastStatus.COMPLETED ? 1.0 : 0.0)
+                : (double) deliveredCount / totalRecipients;
+    }
+}
@@ -0,0 +1,37 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * Staged audience of a {@link Broadcast}. The composite primary key orders recipients by user id within a
+ * broadcast, which the fan-out uses as its keyset cursor.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "broadcast_recipients")
+public class BroadcastRecipient {
+
+    @EmbeddedId
+    private Key id;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "broadcast_id", columnDefinition = "uuid", nullable = false)
+        private UUID broadcastId;
+
+        @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+        private UUID userId;
+    }
+}
@@ -0,0 +1,68 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * One stage a consumed message went through, keyed by its message id (the correlation id of the consume, also in
+ * the MDC of every log line). Rows are only ever inserted, in batches by
+ * {@link org.solace.scholar_ai.notification_service.service.DeliveryEventLog}, and deleted once past retention.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "delivery_events",
+        indexes = {
+            @Index(name = "idx_delivery_events_message", columnList = "message_id"),
+            @Index(name = "idx_delivery_events_occurred_at", columnList = "occurred_at")
+        })
+public class DeliveryEvent {
+
+    /** In the order a message normally goes through them. */
+    public enum Stage {
+        /** The producer's {@code timestamp}, when it set one. */
+        PUBLISHED,
+        RECEIVED,
+        /** Deferred to {@code deliverAt} or the end of quiet hours; the detail says until when. */
+        SCHEDULED,
+        /** Taken off the schedule and processed again. */
+        RELEASED,
+        /** Email not sent because of preferences, suppression or the circuit breaker. */
+        SUPPRESSED,
+        RENDERED,
+        /** Handed to the send queue. */
+        SEND_QUEUED,
+        /** Taken by a send thread. */
+        SENDING,
+        SENT,
+        FAILED,
+        IN_APP_CREATED,
+        /** Processing finished and the message is about to be acknowledged; the detail is the outcome. */
+        COMPLETED
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "message_id", length = 64, nullable = false)
+    private String messageId;
+
+    @Column(name = "type", length = 64)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", length = 32, nullable = false)
+    private Stage stage;
+
+    @Column(name = "occurred_at", nullable = false)
+    private Instant occurredAt;
+
+    @Column(name = "detail", length = 500)
+    private String detail;
+}
@@ -0,0 +1,83 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import lombok.*;
+
+/**
+ * Rolled-up count of {@code notifications} rows for one type and status in one minute, hour or day (UTC).
+ * Latency is measured from when the notification was requested, or its {@code deliverAt} if later, to when its
+ * row was written; rows without a request time count towards {@code count} only.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "delivery_stats")
+public class DeliveryStat {
+
+    public enum Granularity {
+        MINUTE(ChronoUnit.MINUTES),
+        HOUR(ChronoUnit.HOURS),
+        DAY(ChronoUnit.DAYS);
+
+        private final ChronoUnit unit;
+
+        Granularity(ChronoUnit unit) {
+            this.unit = unit;
+        }
+
+        public Instant bucket(Instant instant) {
+            return instant.truncatedTo(unit);
+        }
+
+        public Instant next(Instant bucket) {
+            return bucket.plus(1, unit);
+        }
+
+        public Instant minus(Instant bucket, long buckets) {
+            return bucket.minus(buckets, unit);
+        }
+    }
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "notification_count", nullable = false)
+    private long count;
+
+    @Column(name = "latency_count", nullable = false)
+    private long latencyCount;
+
+    @Column(name = "latency_sum_ms", nullable = false)
+    private long latencySumMillis;
+
+    @Column(name = "latency_max_ms", nullable = false)
+    private long latencyMaxMillis;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Enumerated(EnumType.STRING)
+        @Column(name = "granularity", length = 8, nullable = false)
+        private Granularity granularity;
+
+        @Column(name = "bucket_start", nullable = false)
+        private Instant bucketStart;
+
+        @Column(name = "type", length = 64, nullable = false)
+        private String type;
+
+        @Column(name = "status", length = 32, nullable = false)
+        private String status;
+    }
+}
@@ -0,0 +1,43 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * Latest stage of one message, folded from {@code delivery_events} by the same batch that inserts them: the
+ * stage and detail of the event with the latest {@code occurredAt}, when the first and latest events happened and
+ * how many there were.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "delivery_state", indexes = @Index(name = "idx_delivery_state_updated_at", columnList = "updated_at"))
+public class DeliveryState {
+
+    @Id
+    @Column(name = "message_id", length = 64)
+    private String messageId;
+
+    @Column(name = "type", length = 64)
+    private String type;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "stage", length = 32, nullable = false)
+    private DeliveryEvent.Stage stage;
+
+    @Column(name = "detail", length = 500)
+    private String detail;
+
+    @Column(name = "first_at", nullable = false)
+    private Instant firstAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "event_count", nullable = false)
+    private long eventCount;
+}
@@ -0,0 +1,48 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * An address no email is sent to, keyed by its lower-cased form. Lifting a suppression marks the row deleted
+ * rather than removing it, so other instances' polls see it go; tombstones are purged later.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(
+        name = "email_suppressions",
+        indexes = {
+            @Index(name = "idx_suppression_created", columnList = "created_at"),
+            @Index(name = "idx_suppression_deleted", columnList = "deleted_at")
+        })
+public class EmailSuppression {
+
+    public enum Reason {
+        BOUNCE,
+        COMPLAINT,
+        MANUAL
+    }
+
+    @Id
+    @Column(name = "email", length = 255)
+    private String email;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reason", length = 16, nullable = false)
+    private Reason reason;
+
+    @Column(name = "detail", length = 512)
+    private String detail;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+}
@@ -0,0 +1,49 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * A user's channel choice for one notification type. Only types the user changed have a row; everything else
+ * is delivered on both channels.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "notification_preferences", indexes = @Index(name = "idx_pref_updated", columnList = "updated_at"))
+public class NotificationPreference {
+
+    @EmbeddedId
+    private Key id;
+
+    @Column(name = "email_enabled", nullable = false)
+    private boolean emailEnabled;
+
+    @Column(name = "in_app_enabled", nullable = false)
+    private boolean inAppEnabled;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @EqualsAndHashCode
+    @Embeddable
+    public static class Key implements Serializable {
+
+        @Column(name = "user_id", columnDefinition = "uuid", nullable = false)
+        private UUID userId;
+
+        @Column(name = "notification_type", length = 64, nullable = false)
+        private String notificationType;
+    }
+}
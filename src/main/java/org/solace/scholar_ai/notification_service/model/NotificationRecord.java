@@ -1,5 +1,6 @@
 package org.solace.scholar_ai.notification_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import java.time.Instant;
 import java.util.UUID;
@@ -27,6 +28,10 @@ public class NotificationRecord {
     @Column(name = "recipient_name", length = 255)
     private String recipientName;
 
+    /** Correlation id of the consume that wrote it; the key of its {@code delivery_events}. */
+    @Column(name = "message_id", length = 64)
+    private String messageId;
+
     @Column(name = "type", length = 64, nullable = false)
     private String type;
 
@@ -39,6 +44,16 @@ public class NotificationRecord {
     @Column(name = "template_data", columnDefinition = "TEXT")
     private String templateDataJson;
 
+    /** Deflated template data, written instead of {@link #templateDataJson} when payload compression is on. */
+    @JsonIgnore
+    @Column(name = "template_data_z", length = 1048576)
+    private byte[] templateDataCompressed;
+
+    /** {@link #templateDataCompressed} inflated on request; never persisted. */
+    @JsonIgnore
+    @Transient
+    private String inflatedTemplateData;
+
     @Column(name = "status", length = 32)
     private String status; // SENT, FAILED
 
@@ -51,4 +66,12 @@ public class NotificationRecord {
 
     @Column(name = "sent_at")
     private Instant sentAt;
+
+    /** When the notification was requested, or its {@code deliverAt} if later; the start of its delivery latency. */
+    @Column(name = "requested_at")
+    private Instant requestedAt;
+
+    public String getTemplateDataJson() {
+        return templateDataJson != null ? templateDataJson : inflatedTemplateData;
+    }
 }
@@ -0,0 +1,36 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import lombok.*;
+
+/**
+ * Preset deflate dictionary trained on one notification type's template data. Rows are never changed or deleted:
+ * compressed payloads name the dictionary they were written with, and the newest row per type is used for writes.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "payload_dictionaries")
+public class PayloadDictionary {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(name = "notification_type", length = 64, nullable = false)
+    private String notificationType;
+
+    @Column(name = "dictionary", nullable = false, length = 32768)
+    private byte[] dictionary;
+
+    @Column(name = "sample_count", nullable = false)
+    private int sampleCount;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
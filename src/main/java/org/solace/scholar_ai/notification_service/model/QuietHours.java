@@ -0,0 +1,42 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * Daily window in the user's time zone during which non-transactional emails are held back until the window
+ * ends. A start after the end spans midnight. Clearing the rule marks the row deleted (and updated) rather
+ * than removing it, so other instances' polls see it go; tombstones are purged later.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "quiet_hours", indexes = @Index(name = "idx_quiet_hours_updated", columnList = "updated_at"))
+public class QuietHours {
+
+    @Id
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "start_time", nullable = false)
+    private LocalTime startTime;
+
+    @Column(name = "end_time", nullable = false)
+    private LocalTime endTime;
+
+    @Column(name = "zone_id", length = 64, nullable = false)
+    private String zoneId;
+
+    @Column(name = "updated_at", nullable = false)
+    @Builder.Default
+    private Instant updatedAt = Instant.now();
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+}
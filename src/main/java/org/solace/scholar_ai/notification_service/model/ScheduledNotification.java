@@ -0,0 +1,52 @@
+package org.solace.scholar_ai.notification_service.model;
+
+import jakarta.persistence.*;
+import java.time.Instant;
+import java.util.UUID;
+import lombok.*;
+
+/**
+ * A consumed notification held back until {@code deliverAt}. Rows due soon are claimed by one instance
+ * ({@code claimToken} until {@code claimedUntil}) and released from its timer wheel; the row is deleted once
+ * the message has been processed.
+ */
+@Getter
+@Setter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "scheduled_notifications", indexes = @Index(name = "idx_scheduled_deliver_at", columnList = "deliver_at"))
+public class ScheduledNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", columnDefinition = "uuid")
+    private UUID userId;
+
+    @Column(name = "deliver_at", nullable = false)
+    private Instant deliverAt;
+
+    /** Set when only the email was deferred (quiet hours) and the in-app notification was already created. */
+    @Column(name = "email_only", nullable = false)
+    private boolean emailOnly;
+
+    /** Correlation id of the consume that deferred it, reused on release so its delivery events stay together. */
+    @Column(name = "message_id", length = 64)
+    private String messageId;
+
+    @Column(name = "payload_json", columnDefinition = "TEXT", nullable = false)
+    private String payloadJson;
+
+    @Column(name = "claim_token", columnDefinition = "uuid")
+    private UUID claimToken;
+
+    @Column(name = "claimed_until")
+    private Instant claimedUntil;
+
+    @Column(name = "created_at", nullable = false)
+    @Builder.Default
+    private Instant createdAt = Instant.now();
+}
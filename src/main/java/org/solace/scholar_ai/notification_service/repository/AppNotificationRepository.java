@@ -1,13 +1,28 @@
 package org.solace.scholar_ai.notification_service.repository;
 
+import jakarta.persistence.LockModeType;
+import java.time.Instant;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSummary;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface AppNotificationRepository extends JpaRepository<AppNotification, UUID> {
 
+    @Transactional(readOnly = true)
     List<AppNotification> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    @Transactional(readOnly = true)
+    List<AppNotificationSummary> findSummariesByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    /** The group row for a key and window, locked until the caller's transaction ends. */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<AppNotification> findByUserIdAndGroupKeyAndGroupWindowStart(
+            UUID userId, String groupKey, Instant groupWindowStart);
 }
@@ -0,0 +1,13 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.List;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.Broadcast;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BroadcastRepository extends JpaRepository<Broadcast, UUID> {
+
+    List<Broadcast> findAllByOrderByCreatedAtDesc();
+}
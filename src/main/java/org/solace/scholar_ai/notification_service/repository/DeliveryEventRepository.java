@@ -0,0 +1,14 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.List;
+import org.solace.scholar_ai.notification_service.model.DeliveryEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface DeliveryEventRepository extends JpaRepository<DeliveryEvent, Long> {
+
+    @Transactional(readOnly = true)
+    List<DeliveryEvent> findByMessageIdOrderByOccurredAtAscIdAsc(String messageId);
+}
@@ -0,0 +1,20 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.solace.scholar_ai.notification_service.model.DeliveryStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeliveryStatRepository extends JpaRepository<DeliveryStat, DeliveryStat.Key> {
+
+    @Query("SELECT s FROM DeliveryStat s WHERE s.id.granularity = :granularity "
+            + "AND s.id.bucketStart >= :from AND s.id.bucketStart < :to ORDER BY s.id.bucketStart")
+    List<DeliveryStat> findRange(
+            @Param("granularity") DeliveryStat.Granularity granularity,
+            @Param("from") Instant from,
+            @Param("to") Instant to);
+}
@@ -0,0 +1,8 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import org.solace.scholar_ai.notification_service.model.DeliveryState;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface DeliveryStateRepository extends JpaRepository<DeliveryState, String> {}
@@ -0,0 +1,25 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import org.solace.scholar_ai.notification_service.model.EmailSuppression;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface EmailSuppressionRepository extends JpaRepository<EmailSuppression, String> {
+
+    List<EmailSuppression> findByDeletedAtIsNull();
+
+    /** Suppressions added, or lifted, after the given instants. */
+    List<EmailSuppression> findByCreatedAtAfterOrDeletedAtAfter(Instant createdSince, Instant deletedSince);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM EmailSuppression s WHERE s.deletedAt < :before")
+    int purgeDeletedBefore(@Param("before") Instant before);
+}
@@ -0,0 +1,17 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface NotificationPreferenceRepository
+        extends JpaRepository<NotificationPreference, NotificationPreference.Key> {
+
+    List<NotificationPreference> findByIdUserId(UUID userId);
+
+    List<NotificationPreference> findByUpdatedAtAfter(Instant since);
+}
@@ -2,11 +2,17 @@ package org.solace.scholar_ai.notification_service.repository;
 
 import java.util.List;
 import java.util.UUID;
+import org.solace.scholar_ai.notification_service.dto.NotificationRecordSummary;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 @Repository
 public interface NotificationRecordRepository extends JpaRepository<NotificationRecord, UUID> {
+    @Transactional(readOnly = true)
     List<NotificationRecord> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    @Transactional(readOnly = true)
+    List<NotificationRecordSummary> findSummariesByUserIdOrderByCreatedAtDesc(UUID userId);
 }
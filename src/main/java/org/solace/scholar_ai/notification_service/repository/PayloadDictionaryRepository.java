@@ -0,0 +1,8 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import org.solace.scholar_ai.notification_service.model.PayloadDictionary;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface PayloadDictionaryRepository extends JpaRepository<PayloadDictionary, Integer> {}
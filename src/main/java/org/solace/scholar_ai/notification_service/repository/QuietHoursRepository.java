@@ -0,0 +1,26 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+@Repository
+public interface QuietHoursRepository extends JpaRepository<QuietHours, UUID> {
+
+    List<QuietHours> findByDeletedAtIsNull();
+
+    /** Rules set or cleared after {@code since}. */
+    List<QuietHours> findByUpdatedAtAfter(Instant since);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM QuietHours q WHERE q.deletedAt < :before")
+    int purgeDeletedBefore(@Param("before") Instant before);
+}
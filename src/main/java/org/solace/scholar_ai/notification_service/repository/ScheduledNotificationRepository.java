@@ -0,0 +1,9 @@
+package org.solace.scholar_ai.notification_service.repository;
+
+import java.util.UUID;
+import org.solace.scholar_ai.notification_service.model.ScheduledNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ScheduledNotificationRepository extends JpaRepository<ScheduledNotification, UUID> {}
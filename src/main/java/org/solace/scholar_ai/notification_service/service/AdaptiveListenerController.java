@@ -0,0 +1,243 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.QueueInformation;
+import org.springframework.amqp.rabbit.listener.MessageListenerContainer;
+import org.springframework.amqp.rabbit.listener.RabbitListenerEndpointRegistry;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Sizes the notification listener to what SMTP and the database can currently absorb, AIMD style.
+ * Every {@code app.listener.adaptive.interval-ms} it looks at the processing latency and failure ratio of the
+ * messages handled since the last tick and at the queue depth:
+ * <ul>
+ *   <li>average latency above {@code target-latency-ms}, or too many failures: consumers and prefetch are cut by
+ *       {@code decrease-factor};</li>
+ *   <li>otherwise, with messages waiting: one more consumer and one more prefetched message each;</li>
+ *   <li>prefetch is also capped so one consumer's buffer holds about {@code target-latency-ms} of work, so slow
+ *       sends do not leave messages idling in memory that another instance could take.</li>
+ * </ul>
+ * Consumer count changes apply immediately. A consumer's prefetch is fixed when it subscribes, so a new prefetch
+ * reaches running consumers by restarting the container, at most every {@code prefetch-restart-interval-ms} and
+ * only when it is off by 2x; in-flight messages finish first and undelivered prefetched ones go back to the queue.
+ * Does nothing in sharded mode, where every shard keeps exactly one consumer to preserve per-user order.
+ */
+@Service
+@Slf4j
+public class AdaptiveListenerController {
+
+    public static final String LISTENER_ID = "notification-listener";
+
+    private final RabbitListenerEndpointRegistry registry;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final String queueName;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final long targetLatencyMillis;
+    private final double maxFailureRatio;
+    private final double decreaseFactor;
+    private final long intervalMillis;
+    private final long prefetchRestartIntervalMillis;
+    private final long drainTimeoutMillis;
+
+    private final LongAdder processed = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder latencyNanos = new LongAdder();
+    private final AtomicInteger consumers = new AtomicInteger();
+    private final AtomicInteger prefetch = new AtomicInteger();
+    private final AtomicLong queueDepth = new AtomicLong();
+    private final AtomicLong averageLatencyMillis = new AtomicLong();
+    private int livePrefetch;
+    private long lastRestart;
+    private ScheduledExecutorService ticker;
+
+    public AdaptiveListenerController(
+            RabbitListenerEndpointRegistry registry,
+            AmqpAdmin amqpAdmin,
+            MeterRegistry meterRegistry,
+            @Value("${app.listener.adaptive.enabled:false}") boolean enabled,
+            @Value("${app.sharding.enabled:false}") boolean sharding,
+            @Value("${rabbitmq.notification.queue.name}") String queueName,
+            @Value("${app.listener.adaptive.min-consumers:1}") int minConsumers,
+            @Value("${app.listener.adaptive.max-consumers:8}") int maxConsumers,
+            @Value("${app.listener.adaptive.min-prefetch:1}") int minPrefetch,
+            @Value("${app.listener.adaptive.max-prefetch:50}") int maxPrefetch,
+            @Value("${app.listener.adaptive.target-latency-ms:2000}") long targetLatencyMillis,
+            @Value("${app.listener.adaptive.max-failure-ratio:0.2}") double maxFailureRatio,
+            @Value("${app.listener.adaptive.decrease-factor:0.5}") double decreaseFactor,
+            @Value("${app.listener.adaptive.interval-ms:5000}") long intervalMillis,
+            @Value("${app.listener.adaptive.prefetch-restart-interval-ms:60000}") long prefetchRestartIntervalMillis,
+            @Value("${app.listener.adaptive.drain-timeout-ms:30000}") long drainTimeoutMillis,
+            @Value("${spring.rabbitmq.listener.simple.concurrency:1}") int initialConsumers,
+            @Value("${spring.rabbitmq.listener.simple.prefetch:250}") int initialPrefetch) {
+        this.registry = registry;
+        this.amqpAdmin = amqpAdmin;
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled && !sharding;
+        this.queueName = queueName;
+        this.minConsumers = Math.max(1, minConsumers);
+        this.maxConsumers = Math.max(this.minConsumers, maxConsumers);
+        this.minPrefetch = Math.max(1, minPrefetch);
+        this.maxPrefetch = Math.max(this.minPrefetch, maxPrefetch);
+        this.targetLatencyMillis = targetLatencyMillis;
+        this.maxFailureRatio = maxFailureRatio;
+        this.decreaseFactor = decreaseFactor;
+        this.intervalMillis = intervalMillis;
+        this.prefetchRestartIntervalMillis = prefetchRestartIntervalMillis;
+        this.drainTimeoutMillis = drainTimeoutMillis;
+        this.consumers.set(Math.min(this.maxConsumers, Math.max(this.minConsumers, initialConsumers)));
+        this.prefetch.set(Math.min(this.maxPrefetch, Math.max(this.minPrefetch, initialPrefetch)));
+        this.livePrefetch = initialPrefetch;
+    }
+
+    /** Called by the consumer for every message it handled. */
+    public void record(long nanos, boolean failure) {
+        processed.increment();
+        latencyNanos.add(nanos);
+        if (failure) {
+            failed.increment();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // The controller owns scaling from here on; pin the container so its own consumer scaling stays out
+        if (registry.getListenerContainer(LISTENER_ID) instanceof SimpleMessageListenerContainer container) {
+            pin(container, consumers.get());
+        }
+        Gauge.builder("notification.listener.consumers", consumers, AtomicInteger::get)
+                .description("Consumers the adaptive controller assigned to the notification listener")
+                .register(meterRegistry);
+        Gauge.builder("notification.listener.prefetch", prefetch, AtomicInteger::get)
+                .description("Prefetch the adaptive controller chose for new consumers")
+                .register(meterRegistry);
+        Gauge.builder("notification.listener.queue.depth", queueDepth, AtomicLong::get)
+                .description("Ready messages in the notification queue at the last tick")
+                .register(meterRegistry);
+        Gauge.builder("notification.listener.latency.avg", averageLatencyMillis, AtomicLong::get)
+                .description("Average processing latency in ms over the last tick")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "listener-controller");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleWithFixedDelay(this::tick, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        log.info(
+                "Adaptive listener control on: consumers {}-{}, prefetch {}-{}, target latency {} ms",
+                minConsumers,
+                maxConsumers,
+                minPrefetch,
+                maxPrefetch,
+                targetLatencyMillis);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    void tick() {
+        try {
+            MessageListenerContainer container = registry.getListenerContainer(LISTENER_ID);
+            if (!(container instanceof SimpleMessageListenerContainer simple) || !simple.isRunning()) {
+                return;
+            }
+            long count = processed.sumThenReset();
+            long failures = failed.sumThenReset();
+            long averageMillis = count > 0 ? latencyNanos.sumThenReset() / count / 1_000_000 : 0;
+            QueueInformation info = amqpAdmin.getQueueInfo(queueName);
+            long depth = info != null ? info.getMessageCount() : 0;
+            queueDepth.set(depth);
+            averageLatencyMillis.set(averageMillis);
+
+            int nextConsumers = consumers.get();
+            int nextPrefetch = prefetch.get();
+            String direction;
+            if (count > 0 && (averageMillis > targetLatencyMillis || (double) failures / count > maxFailureRatio)) {
+                nextConsumers = Math.max(minConsumers, (int) (nextConsumers * decreaseFactor));
+                nextPrefetch = Math.max(minPrefetch, (int) (nextPrefetch * decreaseFactor));
+                direction = "decrease";
+            } else if (depth > 0) {
+                nextConsumers = Math.min(maxConsumers, nextConsumers + 1);
+                nextPrefetch = Math.min(maxPrefetch, nextPrefetch + 1);
+                direction = "increase";
+            } else {
+                direction = "hold";
+            }
+            if (averageMillis > 0) {
+                nextPrefetch = Math.max(minPrefetch, (int) Math.min(nextPrefetch, targetLatencyMillis / averageMillis));
+            }
+
+            if (nextConsumers != consumers.get() || nextPrefetch != prefetch.get()) {
+                log.debug(
+                        "Listener {}: consumers {} -> {}, prefetch {} -> {} (avg {} ms, {}/{} failed, depth {})",
+                        direction,
+                        consumers.get(),
+                        nextConsumers,
+                        prefetch.get(),
+                        nextPrefetch,
+                        averageMillis,
+                        failures,
+                        count,
+                        depth);
+            }
+            meterRegistry
+                    .counter("notification.listener.adjustments", "direction", direction)
+                    .increment();
+            apply(simple, nextConsumers, nextPrefetch);
+        } catch (Exception e) {
+            log.warn("Adaptive listener tick failed: {}", e.getMessage());
+        }
+    }
+
+    private void apply(SimpleMessageListenerContainer container, int nextConsumers, int nextPrefetch) {
+        container.setPrefetchCount(nextPrefetch);
+        prefetch.set(nextPrefetch);
+        if (nextConsumers != consumers.get()) {
+            pin(container, nextConsumers);
+            consumers.set(nextConsumers);
+        }
+
+        boolean offByTwo = nextPrefetch * 2 <= livePrefetch || nextPrefetch >= livePrefetch * 2;
+        if (offByTwo && System.currentTimeMillis() - lastRestart >= prefetchRestartIntervalMillis) {
+            log.info("Restarting notification listener to apply prefetch {} (was {})", nextPrefetch, livePrefetch);
+            container.setShutdownTimeout(drainTimeoutMillis);
+            container.stop();
+            container.start();
+            livePrefetch = nextPrefetch;
+            lastRestart = System.currentTimeMillis();
+        }
+    }
+
+    /** Fixes the container at exactly {@code count} consumers; the maximum is lifted first to pass its checks. */
+    private static void pin(SimpleMessageListenerContainer container, int count) {
+        container.setMaxConcurrentConsumers(Integer.MAX_VALUE);
+        container.setConcurrentConsumers(count);
+        container.setMaxConcurrentConsumers(count);
+    }
+}
@@ -0,0 +1,178 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.function.Function;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Decides which in-app notifications collapse into one feed row. Notifications for the same user whose
+ * {@code app.notifications.grouping.key} fields are all set and equal, created in the same fixed
+ * {@code window}, share a group; {@link AppNotificationService} folds them into a single row that keeps a
+ * count and the latest {@code max-members} members, so a project run that emits dozens of near-identical
+ * notifications costs one row in the feed. Off by default: with it on, a create may return an existing group
+ * row's id and overwrite that row's content, which feed clients have to understand first.
+ */
+@Component
+public class AppNotificationGrouping {
+
+    private static final Map<String, Function<AppNotification, String>> FIELDS = Map.of(
+            "type", n -> n.getType() != null ? n.getType().name() : null,
+            "category", AppNotification::getCategory,
+            "relatedProjectId", AppNotification::getRelatedProjectId,
+            "relatedPaperId", AppNotification::getRelatedPaperId,
+            "relatedTaskId", AppNotification::getRelatedTaskId,
+            "actionUrl", AppNotification::getActionUrl);
+
+    private static final int MAX_KEY_LENGTH = 512;
+
+    private static final TypeReference<List<Member>> MEMBERS = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Function<AppNotification, String>> keyFields = new ArrayList<>();
+    private final long windowMillis;
+    private final int maxMembers;
+
+    public AppNotificationGrouping(
+            ObjectMapper objectMapper,
+            @Value("${app.notifications.grouping.enabled:false}") boolean enabled,
+            @Value("${app.notifications.grouping.key:category,relatedProjectId}") List<String> key,
+            @Value("${app.notifications.grouping.window:1h}") Duration window,
+            @Value("${app.notifications.grouping.max-members:5}") int maxMembers) {
+        this.objectMapper = objectMapper;
+        for (String field : key) {
+            Function<AppNotification, String> getter = FIELDS.get(field.trim());
+            if (getter == null) {
+                throw new IllegalArgumentException("Unknown app.notifications.grouping.key field '" + field
+                        + "', expected one of " + FIELDS.keySet());
+            }
+            keyFields.add(getter);
+        }
+        if (window.isNegative() || window.isZero()) {
+            throw new IllegalArgumentException("app.notifications.grouping.window must be positive");
+        }
+        this.enabled = enabled && !keyFields.isEmpty();
+        this.windowMillis = window.toMillis();
+        this.maxMembers = Math.max(1, maxMembers);
+    }
+
+    /**
+     * The group key of {@code n}, or null if it stands alone: grouping is off, it came from a broadcast, or one
+     * of the key fields is not set (or the key would not fit the column).
+     */
+    public String key(AppNotification n) {
+        if (!enabled || n.getBroadcastId() != null) {
+            return null;
+        }
+        StringJoiner key = new StringJoiner("|");
+        for (Function<AppNotification, String> field : keyFields) {
+            String value = field.apply(n);
+            if (value == null || value.isBlank()) {
+                return null;
+            }
+            key.add(value);
+        }
+        return key.length() <= MAX_KEY_LENGTH ? key.toString() : null;
+    }
+
+    /** Start of the fixed window that {@code at} falls in. */
+    public Instant windowStart(Instant at) {
+        long millis = at.toEpochMilli();
+        return Instant.ofEpochMilli(millis - Math.floorMod(millis, windowMillis));
+    }
+
+    /** {@code existing} members JSON (may be null) with {@code added}, in arrival order, folded in newest first. */
+    public String members(String existing, List<AppNotification> added) {
+        try {
+            List<Member> members = new ArrayList<>(maxMembers + added.size());
+            for (int i = added.size() - 1; i >= 0 && members.size() < maxMembers; i--) {
+                members.add(Member.of(added.get(i)));
+            }
+            if (existing != null && members.size() < maxMembers) {
+                for (Member member : objectMapper.readValue(existing, MEMBERS)) {
+                    if (members.size() == maxMembers) {
+                        break;
+                    }
+                    members.add(member);
+                }
+            }
+            return objectMapper.writeValueAsString(members);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not update group members: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    /** The more urgent of two priorities, so a group never hides an urgent member behind a later routine one. */
+    public static AppNotification.NotificationPriority higher(
+            AppNotification.NotificationPriority a, AppNotification.NotificationPriority b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.ordinal() <= b.ordinal() ? a : b;
+    }
+
+    /** Group key, user and window of a notification, for coalescing a batch before it is written. */
+    public record Slot(UUID userId, String key, Instant windowStart) {
+
+        /**
+         * Order in which a batch folds its slots. Folding locks the group row, so every batch takes those locks
+         * by user (in {@link FeedVersionService#LOCK_ORDER}), then key, then window, and two batches touching the
+         * same groups cannot deadlock.
+         */
+        static final Comparator<Slot> LOCK_ORDER = Comparator.comparing(Slot::userId, FeedVersionService.LOCK_ORDER)
+                .thenComparing(Slot::key)
+                .thenComparing(Slot::windowStart);
+    }
+
+    /**
+     * Groups {@code drafts} by slot, in {@link Slot#LOCK_ORDER}; drafts without a key are left out. Members of a
+     * slot keep their arrival order.
+     */
+    public Map<Slot, List<AppNotification>> slots(List<AppNotification> drafts) {
+        Map<Slot, List<AppNotification>> slots = new TreeMap<>(Slot.LOCK_ORDER);
+        for (AppNotification draft : drafts) {
+            String key = key(draft);
+            if (key != null) {
+                slots.computeIfAbsent(
+                                new Slot(draft.getUserId(), key, windowStart(draft.getCreatedAt())),
+                                s -> new ArrayList<>())
+                        .add(draft);
+            }
+        }
+        return slots;
+    }
+
+    public record Member(
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String relatedPaperId,
+            String relatedTaskId,
+            Instant createdAt) {
+
+        static Member of(AppNotification n) {
+            return new Member(
+                    n.getTitle(),
+                    n.getMessage(),
+                    n.getPriority(),
+                    n.getActionUrl(),
+                    n.getRelatedPaperId(),
+                    n.getRelatedTaskId(),
+                    n.getCreatedAt());
+        }
+    }
+}
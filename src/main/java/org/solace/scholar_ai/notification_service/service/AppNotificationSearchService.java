@@ -0,0 +1,194 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSearchResult;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Ranked full-text search over a user's app notifications.
+ * On PostgreSQL, {@code app_notifications.search_vector} is a stored generated {@code tsvector} of title (weight
+ * A), category (B) and message (C) with a GIN index, so every insert path, including batch inserts and
+ * broadcast {@code INSERT ... SELECT}, maintains it without application code. Hibernate does not manage either
+ * object. Adding the column rewrites the table once under an exclusive lock, so they normally come from the
+ * one-off {@code scripts/app-notification-search.sql}; {@code app.search.manage-schema} (off by default) runs
+ * the same statements at startup instead, building the index concurrently. Until the column exists, search
+ * falls back to the substring match below.
+ * Queries use {@code websearch_to_tsquery} syntax ("quoted phrases", {@code or}, {@code -excluded}) and are
+ * ranked with {@code ts_rank_cd}, newest first among equal ranks. On other databases (the H2 load test
+ * profile) a case-insensitive substring match with a field-weighted rank stands in.
+ */
+@Service
+@Slf4j
+public class AppNotificationSearchService {
+
+    private static final String[] SCHEMA = {
+        "ALTER TABLE app_notifications ADD COLUMN IF NOT EXISTS search_vector tsvector GENERATED ALWAYS AS ("
+                + "setweight(to_tsvector('english', coalesce(title, '')), 'A') || "
+                + "setweight(to_tsvector('english', replace(coalesce(category, ''), '_', ' ')), 'B') || "
+                + "setweight(to_tsvector('english', coalesce(message, '')), 'C')) STORED",
+        // CONCURRENTLY cannot run in a transaction block; JdbcTemplate outside a transaction autocommits
+        "CREATE INDEX CONCURRENTLY IF NOT EXISTS idx_app_notifications_search "
+                + "ON app_notifications USING GIN (search_vector)"
+    };
+
+    private static final String SEARCH_COLUMN_EXISTS = "SELECT EXISTS (SELECT 1 FROM information_schema.columns "
+            + "WHERE table_schema = current_schema() AND table_name = 'app_notifications' "
+            + "AND column_name = 'search_vector')";
+
+    private static final String SEARCH = "SELECT n.id, n.title, n.category, n.priority, n.status, n.created_at, "
+            + "n.action_url, ts_rank_cd(n.search_vector, q, 32) AS rank "
+            + "FROM app_notifications n, websearch_to_tsquery('english', ?) q "
+            + "WHERE n.user_id = ? AND n.search_vector @@ q "
+            + "ORDER BY rank DESC, n.created_at DESC LIMIT ? OFFSET ?";
+
+    private static final int MAX_QUERY_LENGTH = 256;
+    private static final int MAX_FALLBACK_TERMS = 8;
+    private static final long SEARCH_COLUMN_RECHECK_MILLIS = 60_000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean manageSchema;
+    private final int maxPageSize;
+    private volatile Boolean postgres;
+    private volatile boolean searchColumn;
+    private volatile long searchColumnCheckedAt;
+
+    public AppNotificationSearchService(
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.search.manage-schema:false}") boolean manageSchema,
+            @Value("${app.search.max-page-size:100}") int maxPageSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.manageSchema = manageSchema;
+        this.maxPageSize = maxPageSize;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void ensureSchema() {
+        if (!manageSchema || !postgres()) {
+            return;
+        }
+        try {
+            for (String statement : SCHEMA) {
+                jdbcTemplate.execute(statement);
+            }
+        } catch (Exception e) {
+            log.warn("Could not create the app notification search column and index: {}", e.getMessage());
+        }
+        searchColumnCheckedAt = 0;
+    }
+
+    @Transactional(readOnly = true)
+    public AppNotificationSearchResult search(UUID userId, String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("q is required");
+        }
+        if (query.length() > MAX_QUERY_LENGTH) {
+            throw new IllegalArgumentException("q exceeds " + MAX_QUERY_LENGTH + " characters");
+        }
+        if (page < 0 || size < 1 || size > maxPageSize) {
+            throw new IllegalArgumentException("page must be >= 0 and size between 1 and " + maxPageSize);
+        }
+        // one extra row tells whether another page exists without counting every match
+        List<AppNotificationSearchResult.Hit> hits = fullText()
+                ? jdbcTemplate.query(SEARCH, this::hit, query.strip(), userId, size + 1, (long) page * size)
+                : substringSearch(userId, query, page, size);
+        boolean hasMore = hits.size() > size;
+        return AppNotificationSearchResult.builder()
+                .query(query)
+                .page(page)
+                .size(size)
+                .hasMore(hasMore)
+                .items(hasMore ? hits.subList(0, size) : hits)
+                .build();
+    }
+
+    private List<AppNotificationSearchResult.Hit> substringSearch(UUID userId, String query, int page, int size) {
+        List<String> terms = Arrays.stream(query.toLowerCase(Locale.ROOT).split("\\s+"))
+                .filter(term -> !term.isEmpty())
+                .limit(MAX_FALLBACK_TERMS)
+                .map(term ->
+                        "%" + term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%")
+                .toList();
+        StringBuilder rank = new StringBuilder("0");
+        StringBuilder where = new StringBuilder();
+        List<Object> args = new ArrayList<>();
+        for (String term : terms) {
+            rank.append(" + CASE WHEN LOWER(n.title) LIKE ? THEN 1.0 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(n.category) LIKE ? THEN 0.4 ELSE 0 END")
+                    .append(" + CASE WHEN LOWER(n.message) LIKE ? THEN 0.2 ELSE 0 END");
+            args.addAll(List.of(term, term, term));
+        }
+        args.add(userId);
+        for (String term : terms) {
+            where.append(" AND (LOWER(n.title) LIKE ? OR LOWER(n.category) LIKE ? OR LOWER(n.message) LIKE ?)");
+            args.addAll(List.of(term, term, term));
+        }
+        args.add(size + 1);
+        args.add((long) page * size);
+        String sql = "SELECT n.id, n.title, n.category, n.priority, n.status, n.created_at, n.action_url, " + rank
+                + " AS rank FROM app_notifications n WHERE n.user_id = ?" + where
+                + " ORDER BY rank DESC, n.created_at DESC LIMIT ? OFFSET ?";
+        return jdbcTemplate.query(sql, this::hit, args.toArray());
+    }
+
+    private AppNotificationSearchResult.Hit hit(ResultSet rs, int row) throws SQLException {
+        String priority = rs.getString("priority");
+        String status = rs.getString("status");
+        return AppNotificationSearchResult.Hit.builder()
+                .id(rs.getObject("id", UUID.class))
+                .title(rs.getString("title"))
+                .category(rs.getString("category"))
+                .priority(priority != null ? AppNotification.NotificationPriority.valueOf(priority) : null)
+                .status(status != null ? AppNotification.NotificationStatus.valueOf(status) : null)
+                .createdAt(rs.getTimestamp("created_at").toInstant())
+                .actionUrl(rs.getString("action_url"))
+                .rank(rs.getDouble("rank"))
+                .build();
+    }
+
+    /**
+     * Whether the {@code search_vector} column is there to query. A missing column is looked up again at most
+     * once a minute, so applying the migration script takes effect without a restart.
+     */
+    private boolean fullText() {
+        if (searchColumn) {
+            return true;
+        }
+        if (!postgres()) {
+            return false;
+        }
+        long now = System.currentTimeMillis();
+        if (now - searchColumnCheckedAt < SEARCH_COLUMN_RECHECK_MILLIS) {
+            return false;
+        }
+        searchColumnCheckedAt = now;
+        searchColumn = Boolean.TRUE.equals(jdbcTemplate.queryForObject(SEARCH_COLUMN_EXISTS, Boolean.class));
+        if (!searchColumn) {
+            log.info("app_notifications.search_vector does not exist yet, using substring search");
+        }
+        return searchColumn;
+    }
+
+    private boolean postgres() {
+        Boolean result = postgres;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>)
+                    connection -> "PostgreSQL".equals(connection.getMetaData().getDatabaseProductName()));
+            postgres = result;
+        }
+        return result;
+    }
+}
@@ -1,26 +1,74 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import java.sql.Timestamp;
 import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSummary;
+import org.solace.scholar_ai.notification_service.dto.BatchCreateResult;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
 import org.solace.scholar_ai.notification_service.repository.AppNotificationRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 @Service
 @RequiredArgsConstructor
 public class AppNotificationService {
 
+    private static final String BATCH_INSERT = "INSERT INTO app_notifications (id, user_id, type, category, title, "
+            + "message, priority, status, action_url, action_text, related_project_id, related_paper_id, "
+            + "related_task_id, metadata_json, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final int JDBC_BATCH_SIZE = 500;
+
+    private static final String GROUP_INSERT = "INSERT INTO app_notifications (id, user_id, type, category, title, "
+            + "message, priority, status, action_url, action_text, related_project_id, related_paper_id, "
+            + "related_task_id, metadata_json, group_key, group_window_start, group_count, group_members_json, "
+            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?) "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String GROUP_READ = "UPDATE app_notifications SET status = 'READ', read_at = ?, "
+            + "updated_at = ? WHERE user_id = ? AND group_key = ? AND status = 'UNREAD'";
+
     private final AppNotificationRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final FeedVersionService feedVersions;
+    private final AppNotificationGrouping grouping;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    @Transactional(readOnly = true)
     public List<AppNotification> listByUser(UUID userId) {
         return repository.findByUserIdOrderByCreatedAtDesc(userId);
     }
 
+    @Transactional(readOnly = true)
+    public List<AppNotificationSummary> feedByUser(UUID userId) {
+        return repository.findSummariesByUserIdOrderByCreatedAtDesc(userId);
+    }
+
+    @Transactional(readOnly = true)
+    public AppNotification get(UUID id) {
+        return repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Notification not found"));
+    }
+
+    /**
+     * Stores one notification, or folds it into its open group row if it has a group key; see
+     * {@link AppNotificationGrouping}.
+     */
+    @Transactional
     public AppNotification create(
             UUID userId,
             AppNotification.NotificationKind type,
@@ -35,7 +83,48 @@ public class AppNotificationService {
             String relatedTaskId,
             Map<String, Object> metadata) {
         try {
-            return repository.save(AppNotification.builder()
+            AppNotification draft = draft(
+                    userId,
+                    type,
+                    category,
+                    title,
+                    message,
+                    priority,
+                    actionUrl,
+                    actionText,
+                    relatedProjectId,
+                    relatedPaperId,
+                    relatedTaskId,
+                    metadata);
+            String groupKey = grouping.key(draft);
+            AppNotification saved = groupKey != null
+                    ? fold(groupKey, grouping.windowStart(draft.getCreatedAt()), List.of(draft))
+                    : repository.save(draft);
+            feedVersions.bump(userId);
+            return saved;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to persist app notification", e);
+        }
+    }
+
+    /**
+     * Builds an unsaved notification with its metadata already serialized.
+     */
+    public AppNotification draft(
+            UUID userId,
+            AppNotification.NotificationKind type,
+            String category,
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            String relatedProjectId,
+            String relatedPaperId,
+            String relatedTaskId,
+            Map<String, Object> metadata) {
+        try {
+            return AppNotification.builder()
                     .userId(userId)
                     .type(type)
                     .category(category)
@@ -51,28 +140,245 @@ public class AppNotificationService {
                     .metadataJson(metadata != null ? objectMapper.writeValueAsString(metadata) : null)
                     .createdAt(Instant.now())
                     .updatedAt(Instant.now())
-                    .build());
-        } catch (Exception e) {
-            throw new RuntimeException("Failed to persist app notification", e);
+                    .build();
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("metadata is not serializable: " + e.getOriginalMessage(), e);
         }
     }
 
+    /**
+     * Validates every draft first, then inserts the valid ones with JDBC batching in a single transaction.
+     * Invalid items are reported as rejected and do not prevent the rest of the batch from being stored.
+     * Drafts that share a group are coalesced first and folded into their group row with one write per group;
+     * their results carry the group row's id.
+     */
+    @Transactional
+    public BatchCreateResult createBatch(List<AppNotification> drafts) {
+        return createBatch(drafts, Map.of());
+    }
+
+    /**
+     * As {@link #createBatch(List)}, for a batch some of whose items could not even be turned into drafts: those
+     * indices carry their errors in {@code rejected} (their entry in {@code drafts} is null) and are reported as
+     * rejected alongside the ones that fail validation.
+     */
+    @Transactional
+    public BatchCreateResult createBatch(List<AppNotification> drafts, Map<Integer, List<String>> rejected) {
+        List<BatchCreateResult.Item> results = new ArrayList<>(drafts.size());
+        List<AppNotification> valid = new ArrayList<>(drafts.size());
+        Map<AppNotification, BatchCreateResult.Item> validItems = new IdentityHashMap<>();
+        for (int i = 0; i < drafts.size(); i++) {
+            AppNotification draft = drafts.get(i);
+            List<String> errors = rejected.containsKey(i) ? rejected.get(i) : validate(draft);
+            if (errors.isEmpty()) {
+                draft.setId(UUID.randomUUID());
+                valid.add(draft);
+                BatchCreateResult.Item item = BatchCreateResult.Item.builder()
+                        .index(i)
+                        .id(draft.getId())
+                        .status(BatchCreateResult.ItemStatus.CREATED)
+                        .build();
+                validItems.put(draft, item);
+                results.add(item);
+            } else {
+                results.add(BatchCreateResult.Item.builder()
+                        .index(i)
+                        .status(BatchCreateResult.ItemStatus.REJECTED)
+                        .errors(errors)
+                        .build());
+            }
+        }
+
+        Set<AppNotification> grouped = Collections.newSetFromMap(new IdentityHashMap<>());
+        grouping.slots(valid).forEach((slot, members) -> {
+            UUID groupId = fold(slot.key(), slot.windowStart(), members).getId();
+            for (AppNotification member : members) {
+                validItems.get(member).setId(groupId);
+                grouped.add(member);
+            }
+        });
+        List<AppNotification> single =
+                valid.stream().filter(n -> !grouped.contains(n)).toList();
+
+        jdbcTemplate.batchUpdate(BATCH_INSERT, single, JDBC_BATCH_SIZE, (ps, n) -> {
+            ps.setObject(1, n.getId());
+            ps.setObject(2, n.getUserId());
+            ps.setString(3, n.getType().name());
+            ps.setString(4, n.getCategory());
+            ps.setString(5, n.getTitle());
+            ps.setString(6, n.getMessage());
+            ps.setString(7, n.getPriority() != null ? n.getPriority().name() : null);
+            ps.setString(8, n.getStatus().name());
+            ps.setString(9, n.getActionUrl());
+            ps.setString(10, n.getActionText());
+            ps.setString(11, n.getRelatedProjectId());
+            ps.setString(12, n.getRelatedPaperId());
+            ps.setString(13, n.getRelatedTaskId());
+            ps.setString(14, n.getMetadataJson());
+            ps.setTimestamp(15, Timestamp.from(n.getCreatedAt()));
+            ps.setTimestamp(16, Timestamp.from(n.getUpdatedAt()));
+        });
+        feedVersions.bump(valid.stream().map(AppNotification::getUserId).collect(Collectors.toSet()));
+
+        return BatchCreateResult.builder()
+                .created(valid.size())
+                .rejected(drafts.size() - valid.size())
+                .results(results)
+                .build();
+    }
+
+    @Transactional
     public AppNotification markRead(UUID id) {
         return repository
                 .findById(id)
                 .map(n -> {
                     n.setStatus(AppNotification.NotificationStatus.READ);
                     n.setReadAt(Instant.now());
-                    return repository.save(n);
+                    AppNotification saved = repository.save(n);
+                    feedVersions.bump(n.getUserId());
+                    return saved;
                 })
                 .orElseThrow(() -> new IllegalArgumentException("Notification not found"));
     }
 
+    @Transactional
     public void markMultipleRead(List<UUID> ids) {
         ids.forEach(this::markRead);
     }
 
+    /** Marks every unread row of the user's groups with these keys read, across all windows. */
+    @Transactional
+    public int markGroupsRead(UUID userId, Collection<String> groupKeys) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(groupKeys.size());
+        for (String groupKey : groupKeys) {
+            args.add(new Object[] {now, now, userId, groupKey});
+        }
+        int marked = Arrays.stream(jdbcTemplate.batchUpdate(GROUP_READ, args)).sum();
+        if (marked > 0) {
+            feedVersions.bump(userId);
+        }
+        return marked;
+    }
+
+    @Transactional
     public void delete(UUID id) {
-        repository.deleteById(id);
+        repository.findById(id).ifPresent(n -> {
+            repository.delete(n);
+            feedVersions.bump(n.getUserId());
+        });
+    }
+
+    /**
+     * Folds {@code members} (same user, key and window, in arrival order) into their group row, creating it if
+     * the window has none yet. The row takes the newest member's content and the most urgent priority seen,
+     * moves to the top of the feed and becomes unread again. Concurrent writers to one group serialize on the
+     * row lock; a writer that loses the race to create it folds into the winner's row instead.
+     */
+    private AppNotification fold(String groupKey, Instant windowStart, List<AppNotification> members) {
+        AppNotification newest = members.get(members.size() - 1);
+        UUID userId = newest.getUserId();
+        Optional<AppNotification> open =
+                repository.findByUserIdAndGroupKeyAndGroupWindowStart(userId, groupKey, windowStart);
+        if (open.isEmpty()) {
+            AppNotification created = AppNotification.builder()
+                    .id(UUID.randomUUID())
+                    .userId(userId)
+                    .type(newest.getType())
+                    .category(newest.getCategory())
+                    .title(newest.getTitle())
+                    .message(newest.getMessage())
+                    .priority(members.stream()
+                            .map(AppNotification::getPriority)
+                            .reduce(null, AppNotificationGrouping::higher))
+                    .status(AppNotification.NotificationStatus.UNREAD)
+                    .actionUrl(newest.getActionUrl())
+                    .actionText(newest.getActionText())
+                    .relatedProjectId(newest.getRelatedProjectId())
+                    .relatedPaperId(newest.getRelatedPaperId())
+                    .relatedTaskId(newest.getRelatedTaskId())
+                    .metadataJson(newest.getMetadataJson())
+                    .groupKey(groupKey)
+                    .groupWindowStart(windowStart)
+                    .groupCount(members.size())
+                    .groupMembersJson(grouping.members(null, members))
+                    .createdAt(newest.getCreatedAt())
+                    .updatedAt(newest.getCreatedAt())
+                    .build();
+            if (insertGroup(created)) {
+                return created;
+            }
+            open = repository.findByUserIdAndGroupKeyAndGroupWindowStart(userId, groupKey, windowStart);
+        }
+        AppNotification group = open.orElseThrow(
+                () -> new IllegalStateException("Group " + groupKey + " vanished while being updated"));
+        group.setTitle(newest.getTitle());
+        group.setMessage(newest.getMessage());
+        for (AppNotification member : members) {
+            group.setPriority(AppNotificationGrouping.higher(group.getPriority(), member.getPriority()));
+        }
+        group.setActionUrl(newest.getActionUrl());
+        group.setActionText(newest.getActionText());
+        group.setRelatedPaperId(newest.getRelatedPaperId());
+        group.setRelatedTaskId(newest.getRelatedTaskId());
+        group.setMetadataJson(newest.getMetadataJson());
+        group.setGroupCount(group.getGroupCount() + members.size());
+        group.setGroupMembersJson(grouping.members(group.getGroupMembersJson(), members));
+        group.setStatus(AppNotification.NotificationStatus.UNREAD);
+        group.setReadAt(null);
+        if (newest.getCreatedAt().isAfter(group.getCreatedAt())) {
+            group.setCreatedAt(newest.getCreatedAt());
+        }
+        return repository.save(group);
+    }
+
+    private boolean insertGroup(AppNotification n) {
+        return jdbcTemplate.update(
+                        GROUP_INSERT,
+                        n.getId(),
+                        n.getUserId(),
+                        n.getType().name(),
+                        n.getCategory(),
+                        n.getTitle(),
+                        n.getMessage(),
+                        n.getPriority() != null ? n.getPriority().name() : null,
+                        n.getStatus().name(),
+                        n.getActionUrl(),
+                        n.getActionText(),
+                        n.getRelatedProjectId(),
+                        n.getRelatedPaperId(),
+                        n.getRelatedTaskId(),
+                        n.getMetadataJson(),
+                        n.getGroupKey(),
+                        Timestamp.from(n.getGroupWindowStart()),
+                        n.getGroupCount(),
+                        n.getGroupMembersJson(),
+                        Timestamp.from(n.getCreatedAt()),
+                        Timestamp.from(n.getUpdatedAt()))
+                > 0;
+    }
+
+    private static List<String> validate(AppNotification n) {
+        List<String> errors = new ArrayList<>();
+        if (n.getUserId() == null) {
+            errors.add("userId is required");
+        }
+        if (n.getType() == null) {
+            errors.add("type is required");
+        }
+        checkLength(errors, "category", n.getCategory(), 128);
+        checkLength(errors, "title", n.getTitle(), 255);
+        checkLength(errors, "actionUrl", n.getActionUrl(), 255);
+        checkLength(errors, "actionText", n.getActionText(), 64);
+        checkLength(errors, "relatedProjectId", n.getRelatedProjectId(), 64);
+        checkLength(errors, "relatedPaperId", n.getRelatedPaperId(), 64);
+        checkLength(errors, "relatedTaskId", n.getRelatedTaskId(), 64);
+        return errors;
+    }
+
+    private static void checkLength(List<String> errors, String field, String value, int max) {
+        if (value != null && value.length() > max) {
+            errors.add(field + " exceeds " + max + " characters");
+        }
     }
 }
@@ -0,0 +1,347 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.Broadcast;
+import org.solace.scholar_ai.notification_service.repository.BroadcastRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Fans a SYSTEM notification out to many users with set-based SQL.
+ * The audience is staged once in {@code broadcast_recipients}; a single background worker then copies it into
+ * {@code app_notifications} with {@code INSERT ... SELECT} in keyset-ordered chunks, each in its own short
+ * transaction with a pause in between, so a large broadcast holds at most one connection and never a long lock.
+ * The instance running a broadcast holds a lease on its row, renewed with every chunk. On shutdown the worker
+ * stops between chunks and gives the lease up, leaving the broadcast RUNNING with its cursor. At startup, and
+ * every {@code app.broadcast.lease-ms}, each instance takes over PENDING or RUNNING broadcasts whose lease has
+ * lapsed and continues them after {@code cursor_user_id}, so a deploy or crash never leaves one half-delivered.
+ */
+@Service
+@Slf4j
+public class BroadcastService {
+
+    private static final String STAGE_ALL_USERS = "INSERT INTO broadcast_recipients (broadcast_id, user_id) "
+            + "SELECT ?, u.user_id FROM (SELECT user_id FROM app_notifications "
+            + "UNION SELECT user_id FROM notifications WHERE user_id IS NOT NULL) u";
+
+    private static final String STAGE_USER = "INSERT INTO broadcast_recipients (broadcast_id, user_id) VALUES (?, ?)";
+
+    private static final String CHUNK_UPPER_BOUND =
+            "SELECT user_id FROM broadcast_recipients " + "WHERE broadcast_id = ? %s ORDER BY user_id LIMIT 1 OFFSET ?";
+
+    private static final String MATERIALIZE = "INSERT INTO app_notifications (id, user_id, type, category, title, "
+            + "message, priority, status, action_url, action_text, metadata_json, broadcast_id, created_at, updated_at) "
+            + "SELECT gen_random_uuid(), r.user_id, 'SYSTEM', b.category, b.title, b.message, b.priority, 'UNREAD', "
+            + "b.action_url, b.action_text, b.metadata_json, b.id, ?, ? "
+            + "FROM broadcast_recipients r JOIN broadcasts b ON b.id = r.broadcast_id "
+            + "WHERE r.broadcast_id = ? %s";
+
+    private final BroadcastRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FeedVersionService feedVersions;
+    private static final String CLAIM = "UPDATE broadcasts SET lease_owner = ?, lease_until = ? WHERE id = ? "
+            + "AND status IN ('PENDING', 'RUNNING') AND (lease_owner = ? OR lease_until IS NULL OR lease_until < ?)";
+
+    private static final String STALLED = "SELECT id FROM broadcasts WHERE status IN ('PENDING', 'RUNNING') "
+            + "AND (lease_until IS NULL OR lease_until < ?) ORDER BY created_at";
+
+    private static final String ADVANCE = "UPDATE broadcasts SET delivered_count = delivered_count + ?, "
+            + "cursor_user_id = ?, lease_until = ? WHERE id = ? AND lease_owner = ?";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ScheduledExecutorService worker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "broadcast-fanout");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final UUID instanceId = UUID.randomUUID();
+    private volatile boolean stopping;
+
+    private final int chunkSize;
+    private final long chunkPauseMillis;
+    private final long leaseMillis;
+
+    public BroadcastService(
+            BroadcastRepository repository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            FeedVersionService feedVersions,
+            @Value("${app.broadcast.chunk-size:5000}") int chunkSize,
+            @Value("${app.broadcast.chunk-pause-ms:50}") long chunkPauseMillis,
+            @Value("${app.broadcast.lease-ms:60000}") long leaseMillis) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.feedVersions = feedVersions;
+        this.chunkSize = chunkSize;
+        this.chunkPauseMillis = chunkPauseMillis;
+        this.leaseMillis = leaseMillis;
+    }
+
+    public Broadcast submit(
+            Broadcast.Audience audience,
+            Collection<UUID> userIds,
+            String category,
+            String title,
+            String message,
+            AppNotification.NotificationPriority priority,
+            String actionUrl,
+            String actionText,
+            Map<String, Object> metadata) {
+        if (title == null || title.isBlank()) {
+            throw new IllegalArgumentException("Broadcast title is required");
+        }
+        if (audience == Broadcast.Audience.USERS && (userIds == null || userIds.isEmpty())) {
+            throw new IllegalArgumentException("Broadcast to USERS requires at least one userId");
+        }
+        Broadcast broadcast = transactionTemplate.execute(status -> {
+            Broadcast saved = repository.save(Broadcast.builder()
+                    .audience(audience)
+                    .category(category)
+                    .title(title)
+                    .message(message)
+                    .priority(priority)
+                    .actionUrl(actionUrl)
+                    .actionText(actionText)
+                    .metadataJson(toJson(metadata))
+                    .status(Broadcast.BroadcastStatus.PENDING)
+                    .leaseOwner(instanceId)
+                    .leaseUntil(Instant.now().plusMillis(leaseMillis))
+                    .createdAt(Instant.now())
+                    .build());
+            if (audience == Broadcast.Audience.USERS) {
+                stageUsers(saved.getId(), userIds);
+            }
+            return saved;
+        });
+        worker.submit(() -> run(broadcast.getId()));
+        log.info("Broadcast {} queued for {} audience", broadcast.getId(), audience);
+        return broadcast;
+    }
+
+    public Broadcast get(UUID id) {
+        return repository.findById(id).orElseThrow(() -> new IllegalArgumentException("Broadcast not found"));
+    }
+
+    public List<Broadcast> list() {
+        return repository.findAllByOrderByCreatedAtDesc();
+    }
+
+    /** Resumes broadcasts left behind by stopped or crashed instances, now and every lease period. */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        worker.scheduleWithFixedDelay(this::resumeStalled, 0, leaseMillis, TimeUnit.MILLISECONDS);
+    }
+
+    /** Lets the running chunk commit, then stops; the broadcast stays RUNNING for the next instance. */
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        stopping = true;
+        worker.shutdown();
+        if (!worker.awaitTermination(30, TimeUnit.SECONDS)) {
+            worker.shutdownNow();
+        }
+    }
+
+    private void resumeStalled() {
+        try {
+            List<UUID> stalled = jdbcTemplate.queryForList(STALLED, UUID.class, Timestamp.from(Instant.now()));
+            for (UUID id : stalled) {
+                if (stopping) {
+                    return;
+                }
+                log.info("Resuming broadcast {}", id);
+                run(id);
+            }
+        } catch (Exception e) {
+            log.warn("Could not look for broadcasts to resume: {}", e.getMessage());
+        }
+    }
+
+    /** Takes or renews the lease on a broadcast; false if another instance holds it or it is finished. */
+    private boolean claim(UUID id) {
+        Instant now = Instant.now();
+        return jdbcTemplate.update(
+                        CLAIM,
+                        instanceId,
+                        Timestamp.from(now.plusMillis(leaseMillis)),
+                        id,
+                        instanceId,
+                        Timestamp.from(now))
+                > 0;
+    }
+
+    private void stageUsers(UUID broadcastId, Collection<UUID> userIds) {
+        List<Object[]> rows = new ArrayList<>();
+        for (UUID userId : new LinkedHashSet<>(userIds)) {
+            rows.add(new Object[] {broadcastId, userId});
+        }
+        jdbcTemplate.batchUpdate(STAGE_USER, rows);
+    }
+
+    private void run(UUID id) {
+        if (stopping || !claim(id)) {
+            return;
+        }
+        try {
+            // read-write so the row committed by submit() is read from the primary, never a lagging replica;
+            // staging and the move to RUNNING commit together, so a resumed broadcast is never staged twice
+            Broadcast broadcast = transactionTemplate.execute(status -> {
+                Broadcast current = get(id);
+                if (current.getStatus() == Broadcast.BroadcastStatus.PENDING) {
+                    if (current.getAudience() == Broadcast.Audience.ALL_USERS) {
+                        jdbcTemplate.update(STAGE_ALL_USERS, id);
+                    }
+                    Long total = jdbcTemplate.queryForObject(
+                            "SELECT COUNT(*) FROM broadcast_recipients WHERE broadcast_id = ?", Long.class, id);
+                    current.setTotalRecipients(total == null ? 0 : total);
+                    current.setStatus(Broadcast.BroadcastStatus.RUNNING);
+                    current.setStartedAt(Instant.now());
+                }
+                return repository.save(current);
+            });
+
+            boolean more = true;
+            while (more && !stopping) {
+                more = materializeNextChunk(broadcast);
+                if (more) {
+                    Thread.sleep(chunkPauseMillis);
+                }
+            }
+            if (more) {
+                release(id);
+                log.info(
+                        "Broadcast {} paused at {} of {} recipients for shutdown",
+                        id,
+                        broadcast.getDeliveredCount(),
+                        broadcast.getTotalRecipients());
+                return;
+            }
+
+            broadcast.setStatus(Broadcast.BroadcastStatus.COMPLETED);
+            broadcast.setCompletedAt(Instant.now());
+            repository.save(broadcast);
+            jdbcTemplate.update("DELETE FROM broadcast_recipients WHERE broadcast_id = ?", id);
+            log.info("Broadcast {} delivered to {} users", id, broadcast.getDeliveredCount());
+        } catch (InterruptedException e) {
+            // forced shutdown: the cursor is where the last committed chunk left it
+            Thread.currentThread().interrupt();
+            release(id);
+        } catch (LeaseLostException e) {
+            log.warn("Broadcast {} was taken over by another instance", id);
+        } catch (Exception e) {
+            if (stopping) {
+                log.warn("Broadcast {} interrupted by shutdown: {}", id, e.getMessage());
+                release(id);
+                return;
+            }
+            log.error("Broadcast {} failed: {}", id, e.getMessage(), e);
+            markFailed(id, e.getMessage());
+        }
+    }
+
+    private void release(UUID id) {
+        try {
+            jdbcTemplate.update(
+                    "UPDATE broadcasts SET lease_until = NULL WHERE id = ? AND lease_owner = ?", id, instanceId);
+        } catch (Exception e) {
+            log.warn("Could not release broadcast {}; it resumes once its lease lapses: {}", id, e.getMessage());
+        }
+    }
+
+    /**
+     * Copies the recipients after the cursor, up to {@code chunkSize} of them, and advances the cursor and renews
+     * the lease in the same transaction. Returns false once nothing is left; throws {@link LeaseLostException},
+     * with nothing written, if another instance has taken the broadcast over.
+     */
+    private boolean materializeNextChunk(Broadcast broadcast) {
+        UUID lower = broadcast.getCursorUserId();
+        String afterCursor = lower == null ? "" : "AND user_id > ?";
+        Object[] boundArgs = lower == null
+                ? new Object[] {broadcast.getId(), chunkSize - 1}
+                : new Object[] {broadcast.getId(), lower, chunkSize - 1};
+        List<UUID> bound =
+                jdbcTemplate.queryForList(String.format(CHUNK_UPPER_BOUND, afterCursor), UUID.class, boundArgs);
+        UUID upper = bound.isEmpty() ? null : bound.get(0);
+
+        String range = (lower == null ? "" : " AND r.user_id > ?") + (upper == null ? "" : " AND r.user_id <= ?");
+        List<Object> args = new ArrayList<>();
+        Timestamp now = Timestamp.from(Instant.now());
+        args.add(now);
+        args.add(now);
+        args.add(broadcast.getId());
+        if (lower != null) {
+            args.add(lower);
+        }
+        if (upper != null) {
+            args.add(upper);
+        }
+
+        UUID cursor = upper != null ? upper : lastRecipient(broadcast.getId());
+        Integer inserted = transactionTemplate.execute(status -> {
+            int rows = jdbcTemplate.update(String.format(MATERIALIZE, range), args.toArray());
+            int advanced = jdbcTemplate.update(
+                    ADVANCE,
+                    rows,
+                    cursor,
+                    Timestamp.from(Instant.now().plusMillis(leaseMillis)),
+                    broadcast.getId(),
+                    instanceId);
+            if (advanced == 0) {
+                throw new LeaseLostException();
+            }
+            feedVersions.bumpRecipients(broadcast.getId(), range, args.subList(3, args.size()));
+            return rows;
+        });
+        broadcast.setDeliveredCount(broadcast.getDeliveredCount() + inserted);
+        broadcast.setCursorUserId(cursor);
+        return upper != null;
+    }
+
+    private UUID lastRecipient(UUID broadcastId) {
+        List<UUID> last = jdbcTemplate.queryForList(
+                "SELECT user_id FROM broadcast_recipients WHERE broadcast_id = ? ORDER BY user_id DESC LIMIT 1",
+                UUID.class,
+                broadcastId);
+        return last.isEmpty() ? null : last.get(0);
+    }
+
+    private void markFailed(UUID id, String error) {
+        transactionTemplate.executeWithoutResult(
+                status -> repository.findById(id).ifPresent(broadcast -> {
+                    broadcast.setStatus(Broadcast.BroadcastStatus.FAILED);
+                    broadcast.setErrorMessage(error);
+                    broadcast.setCompletedAt(Instant.now());
+                    repository.save(broadcast);
+                }));
+    }
+
+    private static final class LeaseLostException extends RuntimeException {}
+
+    private String toJson(Map<String, Object> metadata) {
+        try {
+            return metadata != null ? objectMapper.writeValueAsString(metadata) : null;
+        } catch (Exception e) {
+            throw new RuntimeException("Failed to serialize broadcast metadata", e);
+        }
+    }
+}
@@ -0,0 +1,331 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.solace.scholar_ai.notification_service.model.DeliveryEvent;
+import org.solace.scholar_ai.notification_service.model.DeliveryEvent.Stage;
+import org.solace.scholar_ai.notification_service.model.DeliveryState;
+import org.solace.scholar_ai.notification_service.repository.DeliveryEventRepository;
+import org.solace.scholar_ai.notification_service.repository.DeliveryStateRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Append-only log of the stages each consumed message goes through, in {@code delivery_events}, keyed by the
+ * message id (the correlation id in the MDC). Stages are recorded on the send path into a bounded in-memory
+ * buffer and inserted in JDBC batches every {@code app.delivery-events.flush-ms}; the same transaction folds each
+ * batch into {@code delivery_state}, one row per message with its latest stage, so "where is message X" is a
+ * primary-key read and the hot path never updates a row. When the buffer is full, or a flush fails twice, events
+ * are dropped and counted rather than slowing delivery down. Events and state rows are kept for
+ * {@code retention}.
+ */
+@Service
+@Slf4j
+public class DeliveryEventLog {
+
+    private static final String INSERT =
+            "INSERT INTO delivery_events (message_id, type, stage, occurred_at, detail) VALUES (?, ?, ?, ?, ?)";
+
+    // SET expressions see the row as it was, so the stage only moves forward in event time
+    private static final String FOLD = "UPDATE delivery_state SET "
+            + "stage = CASE WHEN updated_at <= ? THEN ? ELSE stage END, "
+            + "detail = CASE WHEN updated_at <= ? THEN ? ELSE detail END, "
+            + "type = COALESCE(type, ?), first_at = LEAST(first_at, ?), updated_at = GREATEST(updated_at, ?), "
+            + "event_count = event_count + ? WHERE message_id = ?";
+
+    private static final String CREATE = "INSERT INTO delivery_state (message_id, type, stage, detail, first_at, "
+            + "updated_at, event_count) VALUES (?, ?, ?, ?, ?, ?, ?) ON CONFLICT DO NOTHING";
+
+    private static final String PURGE_EVENTS = "DELETE FROM delivery_events WHERE occurred_at < ?";
+
+    private static final String PURGE_STATE = "DELETE FROM delivery_state WHERE updated_at < ?";
+
+    private static final int MAX_DETAIL_LENGTH = 500;
+
+    private final DeliveryEventRepository eventRepository;
+    private final DeliveryStateRepository stateRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final long flushMillis;
+    private final int batchSize;
+    private final Duration retention;
+
+    private final BlockingQueue<Pending> buffer;
+    private final Counter dropped;
+    private ScheduledExecutorService flusher;
+
+    public DeliveryEventLog(
+            DeliveryEventRepository eventRepository,
+            DeliveryStateRepository stateRepository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            MeterRegistry meterRegistry,
+            @Value("${app.delivery-events.enabled:true}") boolean enabled,
+            @Value("${app.delivery-events.flush-ms:200}") long flushMillis,
+            @Value("${app.delivery-events.batch-size:1000}") int batchSize,
+            @Value("${app.delivery-events.capacity:50000}") int capacity,
+            @Value("${app.delivery-events.retention:7d}") Duration retention) {
+        this.eventRepository = eventRepository;
+        this.stateRepository = stateRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.enabled = enabled;
+        this.flushMillis = flushMillis;
+        this.batchSize = Math.max(1, batchSize);
+        this.retention = retention;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        Gauge.builder("notification.delivery.events.pending", buffer, BlockingQueue::size)
+                .description("Delivery events recorded but not yet written")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("notification.delivery.events.dropped")
+                .description("Delivery events dropped because the buffer was full or could not be written")
+                .register(meterRegistry);
+    }
+
+    /** Records {@code stage} for the message being processed on this thread, now. */
+    public void record(Stage stage, String detail) {
+        record(MDC.get("correlationId"), MDC.get("notificationType"), stage, detail, Instant.now());
+    }
+
+    /** Records {@code stage} for {@code messageId}; never blocks and never throws. */
+    public void record(String messageId, String type, Stage stage, String detail, Instant occurredAt) {
+        if (!enabled || messageId == null) {
+            return;
+        }
+        if (detail != null && detail.length() > MAX_DETAIL_LENGTH) {
+            detail = detail.substring(0, MAX_DETAIL_LENGTH);
+        }
+        if (!buffer.offer(new Pending(messageId, type, stage, occurredAt, detail))) {
+            dropped.increment();
+        }
+    }
+
+    /** A callback that records {@code stage} for the message being processed on this thread when it runs. */
+    public Runnable recorder(Stage stage) {
+        String messageId = MDC.get("correlationId");
+        String type = MDC.get("notificationType");
+        return () -> record(messageId, type, stage, null, Instant.now());
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "delivery-events-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * Every stage recorded for {@code messageId} in time order, with the time since the first event and since the
+     * previous one; events not flushed yet are included. Null if there are none.
+     */
+    public Timeline timeline(String messageId) {
+        List<Pending> events = new ArrayList<>();
+        for (DeliveryEvent event : eventRepository.findByMessageIdOrderByOccurredAtAscIdAsc(messageId)) {
+            events.add(new Pending(
+                    event.getMessageId(), event.getType(), event.getStage(), event.getOccurredAt(), event.getDetail()));
+        }
+        for (Pending event : buffer) {
+            if (event.messageId().equals(messageId)) {
+                events.add(event);
+            }
+        }
+        if (events.isEmpty()) {
+            return null;
+        }
+        events.sort(Comparator.comparing(Pending::occurredAt));
+        Instant first = events.get(0).occurredAt();
+        Instant previous = first;
+        List<Step> steps = new ArrayList<>(events.size());
+        for (Pending event : events) {
+            steps.add(new Step(
+                    event.stage(),
+                    event.occurredAt(),
+                    event.detail(),
+                    Duration.between(first, event.occurredAt()).toMillis(),
+                    Duration.between(previous, event.occurredAt()).toMillis()));
+            previous = event.occurredAt();
+        }
+        Pending last = events.get(events.size() - 1);
+        return new Timeline(
+                messageId,
+                last.type(),
+                last.stage(),
+                Duration.between(first, previous).toMillis(),
+                steps);
+    }
+
+    /** The folded latest state of {@code messageId} as of the last flush, if it has any events. */
+    public Optional<DeliveryState> state(String messageId) {
+        return stateRepository.findById(messageId);
+    }
+
+    void flush() {
+        while (!buffer.isEmpty()) {
+            List<Pending> batch = new ArrayList<>(Math.min(batchSize, buffer.size()));
+            buffer.drainTo(batch, batchSize);
+            if (batch.isEmpty()) {
+                return;
+            }
+            if (!write(batch) && !write(batch)) {
+                dropped.increment(batch.size());
+                return;
+            }
+        }
+    }
+
+    private boolean write(List<Pending> batch) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(
+                        INSERT, batch.stream().map(Pending::args).toList());
+                fold(batch);
+            });
+            return true;
+        } catch (Exception e) {
+            log.warn("Could not write {} delivery events: {}", batch.size(), e.getMessage());
+            return false;
+        }
+    }
+
+    /** Collapses the batch to one row per message, then upserts it like {@link DeliveryStatsService} does. */
+    private void fold(List<Pending> batch) {
+        Map<String, Fold> folds = new LinkedHashMap<>();
+        for (Pending event : batch) {
+            folds.computeIfAbsent(event.messageId(), id -> new Fold(event)).add(event);
+        }
+        List<Fold> rows = new ArrayList<>(folds.values());
+        int[] updated =
+                jdbcTemplate.batchUpdate(FOLD, rows.stream().map(Fold::foldArgs).toList());
+        List<Fold> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(rows.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        // Seed rows count no events, and every missing row is folded again whether this insert or a concurrent
+        // one created it: with reWriteBatchedInserts the driver does not report which rows were inserted
+        jdbcTemplate.batchUpdate(CREATE, missing.stream().map(Fold::createArgs).toList());
+        jdbcTemplate.batchUpdate(FOLD, missing.stream().map(Fold::foldArgs).toList());
+    }
+
+    private void purge() {
+        try {
+            Timestamp cutoff = Timestamp.from(Instant.now().minus(retention));
+            int events = jdbcTemplate.update(PURGE_EVENTS, cutoff);
+            int states = jdbcTemplate.update(PURGE_STATE, cutoff);
+            log.debug("Purged {} delivery events and {} delivery states", events, states);
+        } catch (Exception e) {
+            log.warn("Could not purge delivery events: {}", e.getMessage());
+        }
+    }
+
+    private record Pending(String messageId, String type, Stage stage, Instant occurredAt, String detail) {
+
+        Object[] args() {
+            return new Object[] {messageId, type, stage.name(), Timestamp.from(occurredAt), detail};
+        }
+    }
+
+    /** One message's events within a batch: the latest (last recorded wins ties), the earliest and the count. */
+    private static final class Fold {
+        private final String messageId;
+        private String type;
+        private Pending latest;
+        private Instant first;
+        private long count;
+
+        private Fold(Pending event) {
+            this.messageId = event.messageId();
+            this.latest = event;
+            this.first = event.occurredAt();
+        }
+
+        private void add(Pending event) {
+            if (type == null) {
+                type = event.type();
+            }
+            if (!event.occurredAt().isBefore(latest.occurredAt())) {
+                latest = event;
+            }
+            if (event.occurredAt().isBefore(first)) {
+                first = event.occurredAt();
+            }
+            count++;
+        }
+
+        private Object[] foldArgs() {
+            Timestamp updated = Timestamp.from(latest.occurredAt());
+            return new Object[] {
+                updated,
+                latest.stage().name(),
+                updated,
+                latest.detail(),
+                type,
+                Timestamp.from(first),
+                updated,
+                count,
+                messageId
+            };
+        }
+
+        /** A row the fold then applies to unchanged: same stage and times, no events counted yet. */
+        private Object[] createArgs() {
+            return new Object[] {
+                messageId,
+                type,
+                latest.stage().name(),
+                latest.detail(),
+                Timestamp.from(first),
+                Timestamp.from(latest.occurredAt()),
+                0
+            };
+        }
+    }
+
+    public record Timeline(String messageId, String type, Stage stage, long totalMillis, List<Step> steps) {}
+
+    /** A stage with its time since the message's first event and since the event before it. */
+    public record Step(
+            Stage stage, Instant occurredAt, String detail, long sinceStartMillis, long sincePreviousMillis) {}
+}
@@ -0,0 +1,419 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.mail.Address;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.internet.InternetAddress;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest.NotificationType;
+import org.solace.scholar_ai.notification_service.model.EmailSuppression;
+import org.solace.scholar_ai.notification_service.model.NotificationPreference;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.solace.scholar_ai.notification_service.repository.EmailSuppressionRepository;
+import org.solace.scholar_ai.notification_service.repository.NotificationPreferenceRepository;
+import org.solace.scholar_ai.notification_service.repository.QuietHoursRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.mail.MailSendException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides, before anything is rendered, whether a notification goes out by email and in-app.
+ * Suppressed addresses sit in a Bloom filter backed by an exact set: almost every recipient is clean, and for
+ * those the filter answers in a few bit probes; a filter hit is confirmed against the set. Channel opt-outs are
+ * a bitmask per user, kept only for users who changed a default, and quiet-hours rules sit in a map beside
+ * them. All are loaded at startup, updated in place by this instance's writes, and polled for other instances'
+ * writes every {@code app.delivery-filter.refresh-ms}. Lifted suppressions and cleared quiet hours are kept as
+ * tombstones ({@code deleted_at}) so the poll sees them too; a full reload every
+ * {@code app.delivery-filter.full-reload-ms} resizes the filter and purges tombstones older than two reload
+ * intervals, by which time every instance has reloaded past them.
+ * If the tables cannot be read the filter lets everything through until the next refresh succeeds.
+ */
+@Service
+@Slf4j
+public class DeliveryFilterService implements SmartLifecycle {
+
+    private static final int EMAIL = 0;
+    private static final int IN_APP = 1;
+    private static final Duration POLL_OVERLAP = Duration.ofSeconds(5);
+    // Account security mail cannot be switched off, only suppressed when the address itself is dead
+    private static final Set<NotificationType> TRANSACTIONAL =
+            EnumSet.of(NotificationType.PASSWORD_RESET, NotificationType.EMAIL_VERIFICATION);
+
+    private final EmailSuppressionRepository suppressionRepository;
+    private final NotificationPreferenceRepository preferenceRepository;
+    private final QuietHoursRepository quietHoursRepository;
+    private final MeterRegistry meterRegistry;
+    private final int expectedSuppressions;
+    private final double falsePositiveRate;
+    private final long refreshMillis;
+    private final long fullReloadMillis;
+    private final ScheduledExecutorService refresher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "delivery-filter-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile Suppressions suppressions =
+            new Suppressions(BloomFilter.create(1, 0.01), ConcurrentHashMap.newKeySet());
+    private final Map<UUID, Integer> optOuts = new ConcurrentHashMap<>();
+    private final Map<UUID, QuietHours> quietHours = new ConcurrentHashMap<>();
+    private volatile Instant suppressionsSeen = Instant.EPOCH;
+    private volatile Instant preferencesSeen = Instant.EPOCH;
+    private volatile long lastFullReload;
+    private volatile boolean running;
+
+    public DeliveryFilterService(
+            EmailSuppressionRepository suppressionRepository,
+            NotificationPreferenceRepository preferenceRepository,
+            QuietHoursRepository quietHoursRepository,
+            MeterRegistry meterRegistry,
+            @Value("${app.delivery-filter.expected-suppressions:100000}") int expectedSuppressions,
+            @Value("${app.delivery-filter.false-positive-rate:0.01}") double falsePositiveRate,
+            @Value("${app.delivery-filter.refresh-ms:30000}") long refreshMillis,
+            @Value("${app.delivery-filter.full-reload-ms:600000}") long fullReloadMillis) {
+        this.suppressionRepository = suppressionRepository;
+        this.preferenceRepository = preferenceRepository;
+        this.quietHoursRepository = quietHoursRepository;
+        this.meterRegistry = meterRegistry;
+        this.expectedSuppressions = expectedSuppressions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.refreshMillis = refreshMillis;
+        this.fullReloadMillis = fullReloadMillis;
+        meterRegistry.gauge("notification.suppression.addresses", this, f -> f.suppressions.exact.size());
+        meterRegistry.gauge("notification.preference.opt_out.users", optOuts, Map::size);
+    }
+
+    /** Loads before the listener containers start, so the first messages are already filtered. */
+    @Override
+    public void start() {
+        refresh();
+        refresher.scheduleWithFixedDelay(this::refresh, refreshMillis, refreshMillis, TimeUnit.MILLISECONDS);
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        refresher.shutdownNow();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 1000;
+    }
+
+    /** Whether to send the email; counts {@code notification.suppressed} when not. */
+    public boolean allowEmail(UUID userId, String email, NotificationType type) {
+        if (email != null && isSuppressed(email)) {
+            suppressed(type, "email", "suppression_list");
+            return false;
+        }
+        if (!TRANSACTIONAL.contains(type) && optedOut(userId, type, EMAIL)) {
+            suppressed(type, "email", "preference");
+            return false;
+        }
+        return true;
+    }
+
+    /** Whether to create the in-app notification; counts {@code notification.suppressed} when not. */
+    public boolean allowInApp(UUID userId, NotificationType type) {
+        if (optedOut(userId, type, IN_APP)) {
+            suppressed(type, "in_app", "preference");
+            return false;
+        }
+        return true;
+    }
+
+    public boolean isSuppressed(String email) {
+        String key = normalize(email);
+        Suppressions current = suppressions;
+        return current.filter.mightContain(key) && current.exact.contains(key);
+    }
+
+    public EmailSuppression suppress(String email, EmailSuppression.Reason reason, String detail) {
+        String key = normalize(email);
+        if (key.isEmpty()) {
+            throw new IllegalArgumentException("email is required");
+        }
+        EmailSuppression saved = suppressionRepository.save(EmailSuppression.builder()
+                .email(key)
+                .reason(reason != null ? reason : EmailSuppression.Reason.MANUAL)
+                .detail(detail != null && detail.length() > 512 ? detail.substring(0, 512) : detail)
+                .build());
+        suppressions.add(key);
+        return saved;
+    }
+
+    public void unsuppress(String email) {
+        String key = normalize(email);
+        suppressionRepository
+                .findById(key)
+                .filter(s -> s.getDeletedAt() == null)
+                .ifPresent(s -> {
+                    s.setDeletedAt(Instant.now());
+                    suppressionRepository.save(s);
+                });
+        suppressions.remove(key);
+    }
+
+    public Optional<EmailSuppression> findSuppression(String email) {
+        return suppressionRepository.findById(normalize(email)).filter(s -> s.getDeletedAt() == null);
+    }
+
+    /**
+     * Adds addresses the relay rejected permanently to the suppression list. Angus Mail reports 5xx recipient
+     * rejections as invalid addresses of a {@link SendFailedException}, which Spring's sender wraps per message
+     * in a {@link MailSendException}; temporary (4xx) rejections are not included.
+     */
+    public void recordSendFailure(Throwable failure) {
+        for (Throwable t = failure; t != null; t = t.getCause()) {
+            if (t instanceof MailSendException mailSend) {
+                for (Exception e : mailSend.getMessageExceptions()) {
+                    recordSendFailure(e);
+                }
+            }
+            if (t instanceof SendFailedException sendFailed && sendFailed.getInvalidAddresses() != null) {
+                for (Address address : sendFailed.getInvalidAddresses()) {
+                    if (address instanceof InternetAddress internet && !isSuppressed(internet.getAddress())) {
+                        log.info("Suppressing {} after permanent rejection", internet.getAddress());
+                        suppress(internet.getAddress(), EmailSuppression.Reason.BOUNCE, sendFailed.getMessage());
+                    }
+                }
+                return;
+            }
+        }
+    }
+
+    public List<NotificationPreference> getPreferences(UUID userId) {
+        return preferenceRepository.findByIdUserId(userId);
+    }
+
+    public NotificationPreference setPreference(
+            UUID userId, NotificationType type, boolean emailEnabled, boolean inAppEnabled) {
+        if (!emailEnabled && TRANSACTIONAL.contains(type)) {
+            throw new IllegalArgumentException(type + " emails cannot be disabled");
+        }
+        NotificationPreference saved = preferenceRepository.save(NotificationPreference.builder()
+                .id(new NotificationPreference.Key(userId, type.name()))
+                .emailEnabled(emailEnabled)
+                .inAppEnabled(inAppEnabled)
+                .updatedAt(Instant.now())
+                .build());
+        apply(saved);
+        return saved;
+    }
+
+    /**
+     * When the user is inside their quiet hours at {@code now}, the instant those hours end; otherwise null.
+     * Transactional types are never held back.
+     */
+    public Instant quietHoursEnd(UUID userId, NotificationType type, Instant now) {
+        QuietHours rule = userId != null ? quietHours.get(userId) : null;
+        if (rule == null || TRANSACTIONAL.contains(type) || rule.getStartTime().equals(rule.getEndTime())) {
+            return null;
+        }
+        ZonedDateTime local = now.atZone(ZoneId.of(rule.getZoneId()));
+        LocalTime time = local.toLocalTime();
+        LocalTime start = rule.getStartTime();
+        LocalTime end = rule.getEndTime();
+        boolean overnight = start.isAfter(end);
+        boolean quiet =
+                overnight ? !time.isBefore(start) || time.isBefore(end) : !time.isBefore(start) && time.isBefore(end);
+        if (!quiet) {
+            return null;
+        }
+        ZonedDateTime endsAt = local.with(end);
+        return (overnight && !time.isBefore(start) ? endsAt.plusDays(1) : endsAt).toInstant();
+    }
+
+    public Optional<QuietHours> findQuietHours(UUID userId) {
+        return Optional.ofNullable(quietHours.get(userId))
+                .or(() -> quietHoursRepository.findById(userId).filter(rule -> rule.getDeletedAt() == null));
+    }
+
+    public QuietHours setQuietHours(UUID userId, LocalTime start, LocalTime end, String zoneId) {
+        if (start == null || end == null) {
+            throw new IllegalArgumentException("start and end are required");
+        }
+        ZoneId zone;
+        try {
+            zone = zoneId != null ? ZoneId.of(zoneId) : ZoneOffset.UTC;
+        } catch (DateTimeException e) {
+            throw new IllegalArgumentException("Unknown time zone: " + zoneId);
+        }
+        QuietHours saved = quietHoursRepository.save(QuietHours.builder()
+                .userId(userId)
+                .startTime(start)
+                .endTime(end)
+                .zoneId(zone.getId())
+                .updatedAt(Instant.now())
+                .build());
+        quietHours.put(userId, saved);
+        return saved;
+    }
+
+    public void clearQuietHours(UUID userId) {
+        quietHoursRepository
+                .findById(userId)
+                .filter(rule -> rule.getDeletedAt() == null)
+                .ifPresent(rule -> {
+                    Instant now = Instant.now();
+                    rule.setDeletedAt(now);
+                    rule.setUpdatedAt(now);
+                    quietHoursRepository.save(rule);
+                });
+        quietHours.remove(userId);
+    }
+
+    void refresh() {
+        try {
+            if (System.currentTimeMillis() - lastFullReload >= fullReloadMillis) {
+                reloadAll();
+            } else {
+                pollChanges();
+            }
+        } catch (Exception e) {
+            log.warn("Could not refresh suppressions and preferences: {}", e.getMessage());
+        }
+    }
+
+    private void reloadAll() {
+        Instant startedAt = Instant.now();
+        Instant purgeBefore = startedAt.minusMillis(2 * fullReloadMillis);
+        int purged = suppressionRepository.purgeDeletedBefore(purgeBefore)
+                + quietHoursRepository.purgeDeletedBefore(purgeBefore);
+        if (purged > 0) {
+            log.debug("Purged {} lifted suppressions and cleared quiet-hours rules", purged);
+        }
+        List<EmailSuppression> all = suppressionRepository.findByDeletedAtIsNull();
+        Suppressions loaded = new Suppressions(
+                BloomFilter.create(Math.max(expectedSuppressions, all.size() * 2), falsePositiveRate),
+                ConcurrentHashMap.newKeySet(all.size()));
+        all.forEach(s -> loaded.add(s.getEmail()));
+        suppressions = loaded;
+
+        Map<UUID, Integer> masks = new ConcurrentHashMap<>();
+        for (NotificationPreference preference : preferenceRepository.findAll()) {
+            int mask = mask(preference);
+            if (mask != 0) {
+                masks.merge(preference.getId().getUserId(), mask, (a, b) -> a | b);
+            }
+        }
+        optOuts.keySet().retainAll(masks.keySet());
+        optOuts.putAll(masks);
+
+        Map<UUID, QuietHours> rules = new HashMap<>();
+        quietHoursRepository.findByDeletedAtIsNull().forEach(rule -> rules.put(rule.getUserId(), rule));
+        quietHours.keySet().retainAll(rules.keySet());
+        quietHours.putAll(rules);
+
+        suppressionsSeen = startedAt.minus(POLL_OVERLAP);
+        preferencesSeen = startedAt.minus(POLL_OVERLAP);
+        lastFullReload = System.currentTimeMillis();
+        log.info(
+                "Loaded {} suppressed addresses ({} KB filter), opt-outs for {} users and {} quiet-hours rules",
+                loaded.exact.size(),
+                loaded.filter.sizeInBytes() / 1024,
+                optOuts.size(),
+                quietHours.size());
+    }
+
+    private void pollChanges() {
+        Instant startedAt = Instant.now();
+        suppressionRepository
+                .findByCreatedAtAfterOrDeletedAtAfter(suppressionsSeen, suppressionsSeen)
+                .forEach(s -> {
+                    if (s.getDeletedAt() == null) {
+                        suppressions.add(s.getEmail());
+                    } else {
+                        suppressions.remove(s.getEmail());
+                    }
+                });
+        preferenceRepository.findByUpdatedAtAfter(preferencesSeen).forEach(this::apply);
+        quietHoursRepository.findByUpdatedAtAfter(preferencesSeen).forEach(rule -> {
+            if (rule.getDeletedAt() == null) {
+                quietHours.put(rule.getUserId(), rule);
+            } else {
+                quietHours.remove(rule.getUserId());
+            }
+        });
+        suppressionsSeen = startedAt.minus(POLL_OVERLAP);
+        preferencesSeen = startedAt.minus(POLL_OVERLAP);
+    }
+
+    private void apply(NotificationPreference preference) {
+        NotificationType type = NotificationType.valueOf(preference.getId().getNotificationType());
+        int clear = bit(type, EMAIL) | bit(type, IN_APP);
+        int set = mask(preference);
+        optOuts.compute(preference.getId().getUserId(), (user, current) -> {
+            int next = ((current != null ? current : 0) & ~clear) | set;
+            return next != 0 ? next : null;
+        });
+    }
+
+    private boolean optedOut(UUID userId, NotificationType type, int channel) {
+        if (userId == null) {
+            return false;
+        }
+        Integer mask = optOuts.get(userId);
+        return mask != null && (mask & bit(type, channel)) != 0;
+    }
+
+    private void suppressed(NotificationType type, String channel, String reason) {
+        meterRegistry
+                .counter("notification.suppressed", "type", type.name(), "channel", channel, "reason", reason)
+                .increment();
+    }
+
+    private static int mask(NotificationPreference preference) {
+        NotificationType type = NotificationType.valueOf(preference.getId().getNotificationType());
+        return (preference.isEmailEnabled() ? 0 : bit(type, EMAIL))
+                | (preference.isInAppEnabled() ? 0 : bit(type, IN_APP));
+    }
+
+    private static int bit(NotificationType type, int channel) {
+        return 1 << (type.ordinal() * 2 + channel);
+    }
+
+    private static String normalize(String email) {
+        return email == null ? "" : email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private record Suppressions(BloomFilter filter, Set<String> exact) {
+
+        void add(String email) {
+            filter.put(email);
+            exact.add(email);
+        }
+
+        /** The filter bit stays set until the next full reload; the exact set decides. */
+        void remove(String email) {
+            exact.remove(email);
+        }
+    }
+}
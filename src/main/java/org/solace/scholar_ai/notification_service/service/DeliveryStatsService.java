@@ -0,0 +1,440 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.DeliveryStat;
+import org.solace.scholar_ai.notification_service.model.DeliveryStat.Granularity;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.repository.DeliveryStatRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Minute, hour and day rollups of {@code notifications} rows by type and status in {@code delivery_stats}.
+ * {@link NotificationPersistenceService} reports every row it writes; counts accumulate in memory and each
+ * instance adds its deltas to the rollup rows every {@code app.stats.flush-ms}, so the stats API reads a few
+ * hundred rollup rows, plus this instance's unflushed deltas, instead of scanning the raw table.
+ * Minute rows are kept for {@code minute-retention}, hour rows for {@code hour-retention}, day rows forever.
+ * {@link #startBackfill} rebuilds all buckets before the current day from the raw table.
+ */
+@Service
+@Slf4j
+public class DeliveryStatsService {
+
+    private static final String ADD = "UPDATE delivery_stats SET notification_count = notification_count + ?, "
+            + "latency_count = latency_count + ?, latency_sum_ms = latency_sum_ms + ?, "
+            + "latency_max_ms = GREATEST(latency_max_ms, ?) "
+            + "WHERE granularity = ? AND bucket_start = ? AND type = ? AND status = ?";
+
+    private static final String CREATE = "INSERT INTO delivery_stats (granularity, bucket_start, type, status, "
+            + "notification_count, latency_count, latency_sum_ms, latency_max_ms) VALUES (?, ?, ?, ?, 0, 0, 0, 0) "
+            + "ON CONFLICT DO NOTHING";
+
+    private static final String INSERT = "INSERT INTO delivery_stats (granularity, bucket_start, type, status, "
+            + "notification_count, latency_count, latency_sum_ms, latency_max_ms) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String PURGE = "DELETE FROM delivery_stats WHERE granularity = ? AND bucket_start < ?";
+
+    private static final String BACKFILL_PAGE = "SELECT id, type, status, created_at, requested_at FROM notifications "
+            + "WHERE id > ? ORDER BY id LIMIT ?";
+
+    private final DeliveryStatRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final long flushMillis;
+    private final Duration minuteRetention;
+    private final Duration hourRetention;
+    private final int maxBuckets;
+    private final int backfillBatchSize;
+
+    private final Map<DeliveryStat.Key, Cell> pending = new ConcurrentHashMap<>();
+    private ScheduledExecutorService flusher;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicLong backfillRows = new AtomicLong();
+    private volatile Instant backfillCutoff;
+    private volatile String backfillError;
+
+    public DeliveryStatsService(
+            DeliveryStatRepository repository,
+            JdbcTemplate jdbcTemplate,
+            TransactionTemplate transactionTemplate,
+            @Value("${app.stats.flush-ms:10000}") long flushMillis,
+            @Value("${app.stats.minute-retention:48h}") Duration minuteRetention,
+            @Value("${app.stats.hour-retention:90d}") Duration hourRetention,
+            @Value("${app.stats.max-buckets:1500}") int maxBuckets,
+            @Value("${app.stats.backfill-batch-size:5000}") int backfillBatchSize) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.flushMillis = flushMillis;
+        this.minuteRetention = minuteRetention;
+        this.hourRetention = hourRetention;
+        this.maxBuckets = maxBuckets;
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /** Counts a row that was just written; called after the insert succeeded. */
+    public void record(NotificationRecord record) {
+        Long latency = latencyMillis(record.getRequestedAt(), record.getCreatedAt());
+        for (Granularity granularity : Granularity.values()) {
+            DeliveryStat.Key key = new DeliveryStat.Key(
+                    granularity, granularity.bucket(record.getCreatedAt()), record.getType(), record.getStatus());
+            pending.computeIfAbsent(key, k -> new Cell()).add(1, latency);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        flusher = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "stats-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        flusher.scheduleWithFixedDelay(this::flush, flushMillis, flushMillis, TimeUnit.MILLISECONDS);
+        flusher.scheduleWithFixedDelay(this::purge, 1, 60, TimeUnit.MINUTES);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        flush();
+    }
+
+    /**
+     * Buckets of {@code granularity} starting in {@code [from, to)}, one per bucket and type, optionally for a
+     * single type. Buckets without notifications are left out.
+     */
+    @Transactional(readOnly = true)
+    public List<Bucket> query(Granularity granularity, Instant from, Instant to, String type) {
+        Instant start = granularity.bucket(from);
+        if (!start.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        long buckets = Duration.between(start, to).toMillis()
+                / Duration.between(start, granularity.next(start)).toMillis();
+        if (buckets > maxBuckets) {
+            throw new IllegalArgumentException(
+                    "Range spans " + buckets + " " + granularity + " buckets, the maximum is " + maxBuckets);
+        }
+        Map<DeliveryStat.Key, long[]> totals = new HashMap<>();
+        for (DeliveryStat stat : repository.findRange(granularity, start, to)) {
+            totals.put(stat.getId(), new long[] {
+                stat.getCount(), stat.getLatencyCount(), stat.getLatencySumMillis(), stat.getLatencyMaxMillis()
+            });
+        }
+        pending.forEach((key, cell) -> {
+            if (key.getGranularity() == granularity
+                    && !key.getBucketStart().isBefore(start)
+                    && key.getBucketStart().isBefore(to)) {
+                long[] unflushed = cell.peek();
+                totals.merge(key, unflushed, DeliveryStatsService::combine);
+            }
+        });
+
+        Map<Instant, Map<String, Bucket>> byBucket = new TreeMap<>();
+        totals.forEach((key, values) -> {
+            if (values[0] == 0 || (type != null && !type.equals(key.getType()))) {
+                return;
+            }
+            byBucket.computeIfAbsent(key.getBucketStart(), b -> new TreeMap<>())
+                    .computeIfAbsent(key.getType(), t -> new Bucket(key.getBucketStart(), t))
+                    .add(key.getStatus(), values);
+        });
+        List<Bucket> result = new ArrayList<>();
+        byBucket.values().forEach(types -> result.addAll(types.values()));
+        return result;
+    }
+
+    /** Starts rebuilding rollups from {@code notifications}; false if a backfill is already running. */
+    public boolean startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        backfillRows.set(0);
+        backfillError = null;
+        // Buckets of the current day stay with live counting; deltas still pending on other instances must
+        // not land in a bucket that was just rebuilt, hence the margin around midnight
+        backfillCutoff = Granularity.DAY.bucket(Instant.now().minusMillis(2 * flushMillis));
+        Thread worker = new Thread(this::backfill, "stats-backfill");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    public BackfillStatus backfillStatus() {
+        return new BackfillStatus(backfillRunning.get(), backfillCutoff, backfillRows.get(), backfillError);
+    }
+
+    void flush() {
+        List<Map.Entry<DeliveryStat.Key, long[]>> deltas = new ArrayList<>();
+        Instant idleBefore = Instant.now().minusMillis(2 * flushMillis);
+        pending.forEach((key, cell) -> {
+            long[] delta = cell.drain();
+            if (delta[0] > 0) {
+                deltas.add(Map.entry(key, delta));
+            } else if (key.getGranularity().next(key.getBucketStart()).isBefore(idleBefore)) {
+                pending.remove(key, cell);
+            }
+        });
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> write(deltas));
+        } catch (Exception e) {
+            // put the deltas back for the next flush
+            deltas.forEach(delta ->
+                    pending.computeIfAbsent(delta.getKey(), k -> new Cell()).restore(delta.getValue()));
+            log.warn("Could not flush {} delivery stats buckets: {}", deltas.size(), e.getMessage());
+        }
+    }
+
+    private void write(List<Map.Entry<DeliveryStat.Key, long[]>> deltas) {
+        int[] updated = jdbcTemplate.batchUpdate(ADD, addArgs(deltas));
+        List<Map.Entry<DeliveryStat.Key, long[]>> missing = new ArrayList<>();
+        for (int i = 0; i < updated.length; i++) {
+            if (updated[i] == 0) {
+                missing.add(deltas.get(i));
+            }
+        }
+        if (missing.isEmpty()) {
+            return;
+        }
+        List<Object[]> keys = new ArrayList<>(missing.size());
+        for (Map.Entry<DeliveryStat.Key, long[]> delta : missing) {
+            DeliveryStat.Key key = delta.getKey();
+            keys.add(new Object[] {
+                key.getGranularity().name(), Timestamp.from(key.getBucketStart()), key.getType(), key.getStatus()
+            });
+        }
+        jdbcTemplate.batchUpdate(CREATE, keys);
+        jdbcTemplate.batchUpdate(ADD, addArgs(missing));
+    }
+
+    private static List<Object[]> addArgs(List<Map.Entry<DeliveryStat.Key, long[]>> deltas) {
+        List<Object[]> args = new ArrayList<>(deltas.size());
+        for (Map.Entry<DeliveryStat.Key, long[]> delta : deltas) {
+            DeliveryStat.Key key = delta.getKey();
+            long[] v = delta.getValue();
+            args.add(new Object[] {
+                v[0],
+                v[1],
+                v[2],
+                v[3],
+                key.getGranularity().name(),
+                Timestamp.from(key.getBucketStart()),
+                key.getType(),
+                key.getStatus()
+            });
+        }
+        return args;
+    }
+
+    private void purge() {
+        try {
+            Instant now = Instant.now();
+            int minutes =
+                    jdbcTemplate.update(PURGE, Granularity.MINUTE.name(), Timestamp.from(now.minus(minuteRetention)));
+            int hours = jdbcTemplate.update(PURGE, Granularity.HOUR.name(), Timestamp.from(now.minus(hourRetention)));
+            log.debug("Purged {} minute and {} hour delivery stats rows", minutes, hours);
+        } catch (Exception e) {
+            log.warn("Could not purge delivery stats: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Aggregates the raw table in id order, a page at a time, keeping minute and hour buckets only within their
+     * retention, then replaces every bucket before the cutoff in one transaction.
+     */
+    private void backfill() {
+        Instant cutoff = backfillCutoff;
+        try {
+            Instant minuteFrom = cutoff.minus(minuteRetention);
+            Instant hourFrom = cutoff.minus(hourRetention);
+            Map<DeliveryStat.Key, long[]> totals = new LinkedHashMap<>();
+            UUID last = new UUID(0, 0);
+            while (true) {
+                List<UUID> ids = new ArrayList<>();
+                jdbcTemplate.query(
+                        BACKFILL_PAGE,
+                        rs -> {
+                            ids.add(rs.getObject("id", UUID.class));
+                            Timestamp created = rs.getTimestamp("created_at");
+                            String status = rs.getString("status");
+                            if (created == null
+                                    || status == null
+                                    || !created.toInstant().isBefore(cutoff)) {
+                                return;
+                            }
+                            Instant createdAt = created.toInstant();
+                            Timestamp requested = rs.getTimestamp("requested_at");
+                            Long latency = latencyMillis(requested != null ? requested.toInstant() : null, createdAt);
+                            long[] values = {1, latency != null ? 1 : 0, latency != null ? latency : 0, 0};
+                            values[3] = values[2];
+                            for (Granularity granularity : Granularity.values()) {
+                                Instant bucket = granularity.bucket(createdAt);
+                                if ((granularity == Granularity.MINUTE && bucket.isBefore(minuteFrom))
+                                        || (granularity == Granularity.HOUR && bucket.isBefore(hourFrom))) {
+                                    continue;
+                                }
+                                totals.merge(
+                                        new DeliveryStat.Key(granularity, bucket, rs.getString("type"), status),
+                                        values.clone(),
+                                        DeliveryStatsService::combine);
+                            }
+                        },
+                        last,
+                        backfillBatchSize);
+                if (ids.isEmpty()) {
+                    break;
+                }
+                backfillRows.addAndGet(ids.size());
+                last = ids.get(ids.size() - 1);
+            }
+            List<Object[]> rows = new ArrayList<>(totals.size());
+            totals.forEach((key, v) -> rows.add(new Object[] {
+                key.getGranularity().name(),
+                Timestamp.from(key.getBucketStart()),
+                key.getType(),
+                key.getStatus(),
+                v[0],
+                v[1],
+                v[2],
+                v[3]
+            }));
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update("DELETE FROM delivery_stats WHERE bucket_start < ?", Timestamp.from(cutoff));
+                jdbcTemplate.batchUpdate(INSERT, rows);
+            });
+            log.info("Delivery stats rebuilt before {} from {} rows: {} buckets", cutoff, backfillRows, rows.size());
+        } catch (Exception e) {
+            backfillError = e.getMessage();
+            log.warn("Delivery stats backfill failed: {}", e.getMessage());
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    private static Long latencyMillis(Instant requestedAt, Instant writtenAt) {
+        return requestedAt != null ? Math.max(0, writtenAt.toEpochMilli() - requestedAt.toEpochMilli()) : null;
+    }
+
+    private static long[] combine(long[] a, long[] b) {
+        return new long[] {a[0] + b[0], a[1] + b[1], a[2] + b[2], Math.max(a[3], b[3])};
+    }
+
+    /** Unflushed counts of one rollup row: notifications, latency samples, latency sum and max. */
+    private static final class Cell {
+
+        private final LongAdder count = new LongAdder();
+        private final LongAdder latencyCount = new LongAdder();
+        private final LongAdder latencySum = new LongAdder();
+        private final AtomicLong latencyMax = new AtomicLong();
+
+        void add(long notifications, Long latency) {
+            count.add(notifications);
+            if (latency != null) {
+                latencyCount.increment();
+                latencySum.add(latency);
+                latencyMax.accumulateAndGet(latency, Math::max);
+            }
+        }
+
+        void restore(long[] values) {
+            count.add(values[0]);
+            latencyCount.add(values[1]);
+            latencySum.add(values[2]);
+            latencyMax.accumulateAndGet(values[3], Math::max);
+        }
+
+        long[] drain() {
+            return new long[] {
+                count.sumThenReset(), latencyCount.sumThenReset(), latencySum.sumThenReset(), latencyMax.getAndSet(0)
+            };
+        }
+
+        long[] peek() {
+            return new long[] {count.sum(), latencyCount.sum(), latencySum.sum(), latencyMax.get()};
+        }
+    }
+
+    /** One bucket of one type: counts per status, failure rate and latency in milliseconds. */
+    public static final class Bucket {
+
+        private final Instant bucketStart;
+        private final String type;
+        private final Map<String, Long> counts = new TreeMap<>();
+        private long total;
+        private long latencyCount;
+        private long latencySumMillis;
+        private long latencyMaxMillis;
+
+        Bucket(Instant bucketStart, String type) {
+            this.bucketStart = bucketStart;
+            this.type = type;
+        }
+
+        void add(String status, long[] values) {
+            counts.merge(status, values[0], Long::sum);
+            total += values[0];
+            latencyCount += values[1];
+            latencySumMillis += values[2];
+            latencyMaxMillis = Math.max(latencyMaxMillis, values[3]);
+        }
+
+        public Instant getBucketStart() {
+            return bucketStart;
+        }
+
+        public String getType() {
+            return type;
+        }
+
+        public Map<String, Long> getCounts() {
+            return counts;
+        }
+
+        public long getTotal() {
+            return total;
+        }
+
+        public double getFailureRate() {
+            return total > 0 ? (double) counts.getOrDefault("FAILED", 0L) / total : 0;
+        }
+
+        public Long getAverageLatencyMillis() {
+            return latencyCount > 0 ? latencySumMillis / latencyCount : null;
+        }
+
+        public Long getMaxLatencyMillis() {
+            return latencyCount > 0 ? latencyMaxMillis : null;
+        }
+    }
+
+    public record BackfillStatus(boolean running, Instant cutoff, long rowsScanned, String error) {}
+}
@@ -0,0 +1,317 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.solace.scholar_ai.notification_service.model.AppNotification.NotificationPriority;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.stereotype.Service;
+
+/**
+ * Runs SMTP sends on {@code app.mail.send-scheduler.concurrency} threads, taking waiting sends by priority rather
+ * than arrival order. Listener threads render the email, hand the send to this queue and wait for it, so a message
+ * is still acknowledged only once its email went out; whatever the listener threads have in hand beyond the send
+ * threads is what gets reordered, so it matters once consumers (or virtual-thread consumers) outnumber them.
+ * Sends are ordered by enqueue time minus {@code aging-ms} per level above LOW: URGENT and HIGH overtake waiting
+ * bulk mail, but a send never waits behind one that arrived more than three aging intervals after it, so LOW does
+ * not starve. At {@code capacity} waiting sends, callers block until a slot frees up.
+ * When every send thread is busy, a thread that frees up takes up to {@code batch-size} consecutive sends for the
+ * same sender, waiting up to {@code batch-window-ms} for more, and delivers them with one
+ * {@code send(MimeMessage...)} call, i.e. one SMTP connection, handshake and login. Failures are reported per
+ * message, as a {@link MailSendException} for just that message, so each caller records its own outcome.
+ */
+@Service
+@Slf4j
+public class EmailSendScheduler {
+
+    private static final NotificationPriority[] PRIORITIES = NotificationPriority.values();
+
+    private final boolean enabled;
+    private final int concurrency;
+    private final int capacity;
+    private final long agingNanos;
+    private final int batchSize;
+    private final long batchWindowNanos;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition more = lock.newCondition();
+    private final PriorityQueue<Send> queue = new PriorityQueue<>(
+            Comparator.comparingLong((Send send) -> send.order).thenComparingLong(send -> send.sequence));
+    private final int[] waiting = new int[PRIORITIES.length];
+    private final Map<NotificationPriority, Timer> waits = new EnumMap<>(NotificationPriority.class);
+    private final Counter promoted;
+    private final DistributionSummary batches;
+    private final List<Thread> workers = new ArrayList<>();
+    private long sequence;
+    private int idle;
+    private int gathering;
+    private volatile boolean running;
+
+    public EmailSendScheduler(
+            @Value("${app.mail.send-scheduler.enabled:true}") boolean enabled,
+            @Value("${app.mail.send-scheduler.concurrency:16}") int concurrency,
+            @Value("${app.mail.send-scheduler.capacity:500}") int capacity,
+            @Value("${app.mail.send-scheduler.aging-ms:5000}") long agingMillis,
+            @Value("${app.mail.send-scheduler.batch-size:10}") int batchSize,
+            @Value("${app.mail.send-scheduler.batch-window-ms:20}") long batchWindowMillis,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        this.concurrency = concurrency;
+        this.capacity = capacity;
+        this.agingNanos = TimeUnit.MILLISECONDS.toNanos(agingMillis);
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWindowNanos = TimeUnit.MILLISECONDS.toNanos(batchWindowMillis);
+        for (NotificationPriority priority : PRIORITIES) {
+            waits.put(
+                    priority,
+                    Timer.builder("notification.email.queue.wait")
+                            .description("Time an email waited for a send thread")
+                            .tag("priority", priority.name())
+                            .publishPercentiles(0.5, 0.9, 0.99)
+                            .register(meterRegistry));
+            Gauge.builder("notification.email.queue.depth", waiting, counts -> counts[priority.ordinal()])
+                    .description("Emails waiting for a send thread")
+                    .tag("priority", priority.name())
+                    .register(meterRegistry);
+        }
+        this.promoted = Counter.builder("notification.email.queue.aged")
+                .description("Emails sent ahead of higher-priority ones because they had waited long enough")
+                .register(meterRegistry);
+        this.batches = DistributionSummary.builder("notification.email.batch.size")
+                .description("Emails delivered per SMTP connection")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        for (int i = 1; i <= concurrency; i++) {
+            Thread worker = new Thread(this::work, "email-send-" + i);
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+        log.info("Email send scheduler started with {} send threads", concurrency);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        workers.forEach(Thread::interrupt);
+        lock.lock();
+        try {
+            Send send;
+            while ((send = queue.poll()) != null) {
+                waiting[send.priority.ordinal()]--;
+                send.result.completeExceptionally(new IllegalStateException("Email send scheduler stopped"));
+            }
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /** Sends {@code message} through {@code sender} in priority order and waits for it, rethrowing its failure. */
+    public void send(NotificationPriority priority, JavaMailSender sender, MimeMessage message) {
+        send(priority, sender, message, null);
+    }
+
+    /** As {@link #send(NotificationPriority, JavaMailSender, MimeMessage)}; runs {@code onSending} once a thread takes it. */
+    public void send(NotificationPriority priority, JavaMailSender sender, MimeMessage message, Runnable onSending) {
+        if (!enabled) {
+            if (onSending != null) {
+                onSending.run();
+            }
+            sender.send(message);
+            return;
+        }
+        Send task = new Send(priority != null ? priority : NotificationPriority.MEDIUM, sender, message, onSending);
+        try {
+            enqueue(task);
+            task.result.get();
+        } catch (InterruptedException e) {
+            cancel(task);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while waiting to send email", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            throw new RuntimeException("Email send failed", e.getCause());
+        }
+    }
+
+    private void enqueue(Send task) throws InterruptedException {
+        lock.lockInterruptibly();
+        try {
+            while (queue.size() >= capacity && running) {
+                notFull.await();
+            }
+            if (!running) {
+                throw new IllegalStateException("Email send scheduler stopped");
+            }
+            task.enqueuedNanos = System.nanoTime();
+            task.order = task.enqueuedNanos - (PRIORITIES.length - 1 - task.priority.ordinal()) * agingNanos;
+            task.sequence = sequence++;
+            queue.add(task);
+            waiting[task.priority.ordinal()]++;
+            // idle threads first; a thread gathering a batch only gets what nobody else is free to send
+            (idle == 0 && gathering > 0 ? more : notEmpty).signal();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void cancel(Send task) {
+        lock.lock();
+        try {
+            if (queue.remove(task)) {
+                waiting[task.priority.ordinal()]--;
+                notFull.signal();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void work() {
+        while (running) {
+            List<Send> batch = new ArrayList<>();
+            lock.lock();
+            try {
+                while (queue.isEmpty()) {
+                    idle++;
+                    try {
+                        notEmpty.await();
+                    } finally {
+                        idle--;
+                    }
+                }
+                batch.add(take());
+                long deadline = System.nanoTime() + batchWindowNanos;
+                while (batch.size() < batchSize) {
+                    Send next = queue.peek();
+                    if (next != null) {
+                        if (next.sender != batch.get(0).sender) {
+                            break;
+                        }
+                        batch.add(take());
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    if (idle > 0 || remaining <= 0) {
+                        break;
+                    }
+                    gathering++;
+                    try {
+                        more.awaitNanos(remaining);
+                    } finally {
+                        gathering--;
+                    }
+                }
+                if (!queue.isEmpty()) {
+                    notEmpty.signal();
+                }
+            } catch (InterruptedException e) {
+                batch.forEach(send ->
+                        send.result.completeExceptionally(new IllegalStateException("Email send scheduler stopped")));
+                return;
+            } finally {
+                lock.unlock();
+            }
+            deliver(batch);
+        }
+    }
+
+    private Send take() {
+        Send task = queue.poll();
+        waiting[task.priority.ordinal()]--;
+        for (int level = 0; level < task.priority.ordinal(); level++) {
+            if (waiting[level] > 0) {
+                promoted.increment();
+                break;
+            }
+        }
+        waits.get(task.priority).record(System.nanoTime() - task.enqueuedNanos, TimeUnit.NANOSECONDS);
+        notFull.signal();
+        return task;
+    }
+
+    private void deliver(List<Send> batch) {
+        Send first = batch.get(0);
+        if (first.context != null) {
+            MDC.setContextMap(first.context);
+        }
+        batches.record(batch.size());
+        for (Send send : batch) {
+            if (send.onSending != null) {
+                send.onSending.run();
+            }
+        }
+        try {
+            first.sender.send(batch.stream().map(send -> send.message).toArray(MimeMessage[]::new));
+            batch.forEach(send -> send.result.complete(null));
+        } catch (MailSendException e) {
+            Map<Object, Exception> failed = e.getFailedMessages();
+            for (Send send : batch) {
+                Exception failure = failed.get(send.message);
+                if (failure == null && failed.isEmpty()) {
+                    send.result.completeExceptionally(e);
+                } else if (failure == null) {
+                    send.result.complete(null);
+                } else {
+                    send.result.completeExceptionally(
+                            batch.size() == 1 ? e : new MailSendException(Map.of(send.message, failure)));
+                }
+            }
+        } catch (Throwable t) {
+            batch.forEach(send -> send.result.completeExceptionally(t));
+        } finally {
+            MDC.clear();
+        }
+    }
+
+    private static final class Send {
+        private final NotificationPriority priority;
+        private final JavaMailSender sender;
+        private final MimeMessage message;
+        private final Runnable onSending;
+        private final Map<String, String> context = MDC.getCopyOfContextMap();
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        private long enqueuedNanos;
+        private long order;
+        private long sequence;
+
+        private Send(NotificationPriority priority, JavaMailSender sender, MimeMessage message, Runnable onSending) {
+            this.priority = priority;
+            this.sender = sender;
+            this.message = message;
+            this.onSending = onSending;
+        }
+    }
+}
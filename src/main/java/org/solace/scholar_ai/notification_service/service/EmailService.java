@@ -1,10 +1,17 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import jakarta.mail.Message;
 import jakarta.mail.MessagingException;
+import jakarta.mail.internet.InternetAddress;
+import jakarta.mail.internet.MimeBodyPart;
 import jakarta.mail.internet.MimeMessage;
+import jakarta.mail.internet.MimeMultipart;
 import java.util.Map;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.solace.scholar_ai.notification_service.model.AppNotification.NotificationPriority;
+import org.solace.scholar_ai.notification_service.model.DeliveryEvent.Stage;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.mail.javamail.MimeMessageHelper;
@@ -19,6 +26,10 @@ public class EmailService {
 
     private final JavaMailSender mailSender;
     private final TemplateEngine templateEngine;
+    private final StaticMimeParts staticMimeParts;
+    private final SmtpTraceService smtpTrace;
+    private final EmailSendScheduler sendScheduler;
+    private final DeliveryEventLog deliveryEvents;
 
     @Value("${spring.mail.username:scholarai.official@gmail.com}")
     private String fromEmail;
@@ -26,195 +37,162 @@ public class EmailService {
     @Value("${app.name:ScholarAI}")
     private String appName;
 
-    public void sendWelcomeEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send welcome email to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
-        }
-
-        log.info("Attempting to send welcome email to: {} with from: {}", toEmail, fromEmail);
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Welcome to " + appName + "!");
+    @Value("${app.mail.plain-text-alternative:true}")
+    private boolean plainTextAlternative;
 
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("welcome-email", context);
-            helper.setText(htmlContent, true);
-
-            log.debug("Email content prepared, attempting to send...");
-            mailSender.send(message);
-            log.info("Welcome email sent successfully to: {} from: {}", toEmail, fromEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send welcome email to: {} from: {}", toEmail, fromEmail, e);
-            throw new RuntimeException("Failed to send welcome email", e);
-        }
+    public void sendWelcomeEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail, "Welcome to " + appName + "!", "welcome-email", templateData, "Welcome email", priority);
     }
 
-    public void sendPasswordResetEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send password reset email to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
-        }
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Password Reset - " + appName);
-
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("password-reset-email", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Password reset email sent successfully to: {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send password reset email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send password reset email", e);
-        }
+    public void sendPasswordResetEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Password Reset - " + appName,
+                "password-reset-email",
+                templateData,
+                "Password reset email",
+                priority);
     }
 
-    public void sendEmailVerificationEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send email verification to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
-        }
+    public void sendEmailVerificationEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Verify Your Email - " + appName,
+                "email-verification",
+                templateData,
+                "Email verification",
+                priority);
+    }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+    public void sendWebSearchCompletedEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Your web search results are ready - " + appName,
+                "web-search-completed",
+                templateData,
+                "Web search completed email",
+                priority);
+    }
 
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Verify Your Email - " + appName);
+    public void sendSummarizationCompletedEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Your paper summary is ready - " + appName,
+                "summarization-completed",
+                templateData,
+                "Summarization completed email",
+                priority);
+    }
 
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("email-verification", context);
-            helper.setText(htmlContent, true);
+    public void sendProjectDeletedEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Project deleted - " + appName,
+                "project-deleted",
+                templateData,
+                "Project deleted email",
+                priority);
+    }
 
-            mailSender.send(message);
-            log.info("Email verification sent successfully to: {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send email verification to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send email verification", e);
-        }
+    public void sendGapAnalysisCompletedEmail(
+            String toEmail, String toName, Map<String, Object> templateData, NotificationPriority priority) {
+        sendTemplatedEmail(
+                toEmail,
+                "Gap analysis is ready - " + appName,
+                "gap-analysis-completed",
+                templateData,
+                "Gap analysis completed email",
+                priority);
     }
 
-    public void sendWebSearchCompletedEmail(String toEmail, String toName, Map<String, Object> templateData) {
+    private void sendTemplatedEmail(
+            String toEmail,
+            String subject,
+            String templateName,
+            Map<String, Object> templateData,
+            String description,
+            NotificationPriority priority) {
+        final String lowerDescription = description.toLowerCase();
         if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send web search completed email to: {}", toEmail);
+            log.error("Mail credentials not configured. Cannot send {} to: {}", lowerDescription, toEmail);
             throw new RuntimeException("Mail credentials not configured");
         }
 
         try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Your web search results are ready - " + appName);
-
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("web-search-completed", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Web search completed email sent successfully to: {}", toEmail);
+            MimeMessage message = prepare(toEmail, subject, templateName, templateData);
+            deliveryEvents.record(Stage.RENDERED, templateName);
+            JavaMailSender tracing = smtpTrace.senderFor(toEmail, MDC.get("notificationType"));
+            deliveryEvents.record(Stage.SEND_QUEUED, priority != null ? priority.name() : null);
+            sendScheduler.send(
+                    priority, tracing != null ? tracing : mailSender, message, deliveryEvents.recorder(Stage.SENDING));
+            deliveryEvents.record(Stage.SENT, null);
+            log.debug("{} sent to: {}", description, toEmail);
         } catch (MessagingException e) {
-            log.error("Failed to send web search completed email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send web search completed email", e);
+            log.error("Failed to send {} to: {}", lowerDescription, toEmail, e);
+            throw new RuntimeException("Failed to send " + lowerDescription, e);
         }
     }
 
-    public void sendSummarizationCompletedEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send summarization completed email to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
-        }
+    /** Renders {@code templateName} and builds the message exactly as a send would, without sending it. */
+    public MimeMessage prepare(String toEmail, String subject, String templateName, Map<String, Object> templateData)
+            throws MessagingException {
+        Context context = new Context();
+        context.setVariables(templateData);
+        context.setVariable("logoSrc", staticMimeParts.logoSrc());
+        String htmlContent = templateEngine.process(templateName, context);
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Your paper summary is ready - " + appName);
-
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("summarization-completed", context);
-            helper.setText(htmlContent, true);
+        String plainText = plainTextAlternative ? HtmlToPlainText.convert(htmlContent) : null;
 
-            mailSender.send(message);
-            log.info("Summarization completed email sent successfully to: {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send summarization completed email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send summarization completed email", e);
-        }
+        return buildMessage(toEmail, subject, htmlContent, plainText);
     }
 
-    public void sendProjectDeletedEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send project deleted email to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
-        }
-
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
+    private MimeMessage buildMessage(String toEmail, String subject, String htmlContent, String plainText)
+            throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        if (!staticMimeParts.isInlineLogo()) {
             MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
             helper.setFrom(fromEmail);
             helper.setTo(toEmail);
-            helper.setSubject("Project deleted - " + appName);
-
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("project-deleted", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Project deleted email sent successfully to: {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send project deleted email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send project deleted email", e);
+            helper.setSubject(subject);
+            if (plainText != null) {
+                helper.setText(plainText, htmlContent);
+            } else {
+                helper.setText(htmlContent, true);
+            }
+            return message;
         }
-    }
 
-    public void sendGapAnalysisCompletedEmail(String toEmail, String toName, Map<String, Object> templateData) {
-        if (fromEmail == null || fromEmail.isEmpty()) {
-            log.error("Mail credentials not configured. Cannot send gap analysis completed email to: {}", toEmail);
-            throw new RuntimeException("Mail credentials not configured");
+        // Inline mode: the HTML and the pre-encoded logo in one multipart/related, no helper nesting
+        message.setFrom(new InternetAddress(fromEmail));
+        message.setRecipients(Message.RecipientType.TO, InternetAddress.parse(toEmail));
+        message.setSubject(subject, "UTF-8");
+
+        MimeBodyPart html = new MimeBodyPart();
+        html.setText(htmlContent, "UTF-8", "html");
+        MimeMultipart related = new MimeMultipart("related");
+        related.addBodyPart(html);
+        related.addBodyPart(staticMimeParts.logoPart());
+        if (plainText == null) {
+            message.setContent(related);
+            return message;
         }
 
-        try {
-            MimeMessage message = mailSender.createMimeMessage();
-            MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
-
-            helper.setFrom(fromEmail);
-            helper.setTo(toEmail);
-            helper.setSubject("Gap analysis is ready - " + appName);
-
-            Context context = new Context();
-            context.setVariables(templateData);
-            String htmlContent = templateEngine.process("gap-analysis-completed", context);
-            helper.setText(htmlContent, true);
-
-            mailSender.send(message);
-            log.info("Gap analysis completed email sent successfully to: {}", toEmail);
-        } catch (MessagingException e) {
-            log.error("Failed to send gap analysis completed email to: {}", toEmail, e);
-            throw new RuntimeException("Failed to send gap analysis completed email", e);
-        }
+        // multipart/alternative [text/plain, multipart/related [html, logo]]
+        MimeBodyPart text = new MimeBodyPart();
+        text.setText(plainText, "UTF-8", "plain");
+        MimeBodyPart relatedPart = new MimeBodyPart();
+        relatedPart.setContent(related);
+        MimeMultipart alternative = new MimeMultipart("alternative");
+        alternative.addBodyPart(text);
+        alternative.addBodyPart(relatedPart);
+        message.setContent(alternative);
+        return message;
     }
 }
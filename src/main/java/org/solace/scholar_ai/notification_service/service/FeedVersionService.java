@@ -0,0 +1,115 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Per-user feed versions in {@code feed_versions}, shared by all instances through the database.
+ * Writers bump the version in the same transaction as their change to {@code app_notifications}, so a reader that
+ * sees a version never gets data older than it. A conditional GET then costs one primary-key lookup on this small
+ * table instead of a notifications query and its serialization.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedVersionService {
+
+    private static final String CURRENT = "SELECT version, updated_at FROM feed_versions WHERE user_id = ?";
+
+    private static final String BUMP =
+            "UPDATE feed_versions SET version = version + 1, updated_at = ? WHERE user_id = ?";
+
+    private static final String CREATE =
+            "INSERT INTO feed_versions (user_id, version, updated_at) VALUES (?, 0, ?) " + "ON CONFLICT DO NOTHING";
+
+    private static final String CREATE_RECIPIENTS = "INSERT INTO feed_versions (user_id, version, updated_at) "
+            + "SELECT r.user_id, 0, ? FROM broadcast_recipients r WHERE r.broadcast_id = ? %s "
+            + "ORDER BY r.user_id ON CONFLICT DO NOTHING";
+
+    private static final String LOCK_RECIPIENTS = "SELECT user_id FROM feed_versions WHERE user_id IN "
+            + "(SELECT r.user_id FROM broadcast_recipients r WHERE r.broadcast_id = ? %s) "
+            + "ORDER BY user_id FOR UPDATE";
+
+    private static final String BUMP_RECIPIENTS =
+            "UPDATE feed_versions SET version = version + 1, updated_at = ? WHERE user_id IN "
+                    + "(SELECT r.user_id FROM broadcast_recipients r WHERE r.broadcast_id = ? %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** The user's current version; version 0 without a last-modified time if their feed never changed. */
+    @Transactional(readOnly = true)
+    public Version current(UUID userId) {
+        List<Version> rows = jdbcTemplate.query(
+                CURRENT,
+                (rs, i) -> new Version(
+                        rs.getLong("version"), rs.getTimestamp("updated_at").getTime()),
+                userId);
+        return rows.isEmpty() ? new Version(0, -1) : rows.get(0);
+    }
+
+    /**
+     * The order PostgreSQL sorts {@code uuid} values in (unsigned, byte by byte). Every multi-user writer locks
+     * {@code feed_versions} rows in this order, so concurrent batches and broadcast chunks with overlapping users
+     * queue behind each other instead of deadlocking.
+     */
+    static final Comparator<UUID> LOCK_ORDER = Comparator.comparing(UUID::getMostSignificantBits, Long::compareUnsigned)
+            .thenComparing(UUID::getLeastSignificantBits, Long::compareUnsigned);
+
+    /** Bumps the version of every user in {@code userIds}; call inside the transaction that made the change. */
+    public void bump(Collection<UUID> userIds) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object[]> args = new ArrayList<>(userIds.size());
+        for (UUID userId : userIds.stream().distinct().sorted(LOCK_ORDER).toList()) {
+            args.add(new Object[] {userId, now});
+        }
+        jdbcTemplate.batchUpdate(CREATE, args);
+        args.replaceAll(row -> new Object[] {now, row[0]});
+        jdbcTemplate.batchUpdate(BUMP, args);
+    }
+
+    public void bump(UUID userId) {
+        Timestamp now = Timestamp.from(Instant.now());
+        if (jdbcTemplate.update(BUMP, now, userId) == 0) {
+            jdbcTemplate.update(CREATE, userId, now);
+            jdbcTemplate.update(BUMP, now, userId);
+        }
+    }
+
+    /**
+     * Bumps the versions of the recipients of a broadcast chunk; {@code range} and {@code rangeArgs} restrict
+     * {@code r.user_id} the way the chunk's insert does. Rows are created and locked in {@link #LOCK_ORDER} before
+     * the set-based update, whose own lock order is up to the query plan.
+     */
+    public void bumpRecipients(UUID broadcastId, String range, List<Object> rangeArgs) {
+        Timestamp now = Timestamp.from(Instant.now());
+        List<Object> args = new ArrayList<>();
+        args.add(now);
+        args.add(broadcastId);
+        args.addAll(rangeArgs);
+        jdbcTemplate.update(String.format(CREATE_RECIPIENTS, range), args.toArray());
+        jdbcTemplate.queryForList(
+                String.format(LOCK_RECIPIENTS, range),
+                UUID.class,
+                args.subList(1, args.size()).toArray());
+        jdbcTemplate.update(String.format(BUMP_RECIPIENTS, range), args.toArray());
+    }
+
+    public record Version(long version, long lastModifiedMillis) {
+
+        /**
+         * A strong ETag for one representation of the feed at this version. The full list and the slim feed are
+         * different bodies, so each gets its own tag and a copy of one never validates the other.
+         */
+        public String etag(String representation) {
+            return "\"" + version + "-" + representation + "\"";
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Hierarchical hashed timer wheel: {@code levels} wheels of {@code 2^bits} slots, where a slot on level
+ * {@code L} spans {@code 2^(bits*L)} ticks. An entry sits on the finest level whose wheel reaches its due tick
+ * and moves down a level when its slot comes round, so adding and expiring are O(1) per level no matter
+ * how many entries are waiting, and no per-entry timer or thread exists. Entries past the top level's reach
+ * wait in an overflow list that is placed again whenever the top level turns over.
+ * Not thread-safe on its own; callers synchronize.
+ */
+final class HierarchicalTimerWheel<T> {
+
+    private final long tickMillis;
+    private final int bits;
+    private final int mask;
+    private final List<Entry<T>>[][] slots;
+    private final List<Entry<T>> overflow = new ArrayList<>();
+    private long currentTick;
+    private int size;
+
+    @SuppressWarnings("unchecked")
+    HierarchicalTimerWheel(long tickMillis, int bits, int levels, long nowMillis) {
+        this.tickMillis = tickMillis;
+        this.bits = bits;
+        this.mask = (1 << bits) - 1;
+        this.slots = new List[levels][1 << bits];
+        this.currentTick = nowMillis / tickMillis;
+    }
+
+    /** Adds {@code item} to fire at {@code dueMillis}; returns false, without adding it, if that tick has passed. */
+    boolean add(T item, long dueMillis) {
+        long dueTick = dueMillis / tickMillis;
+        if (dueTick <= currentTick) {
+            return false;
+        }
+        place(new Entry<>(item, dueTick));
+        size++;
+        return true;
+    }
+
+    /** Moves the wheel to {@code nowMillis}, handing every entry that came due to {@code fire} in due order. */
+    void advance(long nowMillis, Consumer<T> fire) {
+        long target = nowMillis / tickMillis;
+        while (currentTick < target) {
+            currentTick++;
+            for (int level = slots.length - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (bits * level)) - 1)) == 0) {
+                    cascade(level, fire);
+                }
+            }
+            List<Entry<T>> due = slots[0][(int) (currentTick & mask)];
+            if (due != null && !due.isEmpty()) {
+                slots[0][(int) (currentTick & mask)] = null;
+                for (Entry<T> entry : due) {
+                    size--;
+                    fire.accept(entry.item);
+                }
+            }
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    private void cascade(int level, Consumer<T> fire) {
+        int slot = (int) ((currentTick >>> (bits * level)) & mask);
+        List<Entry<T>> entries = slots[level][slot];
+        slots[level][slot] = null;
+        if (level == slots.length - 1 && !overflow.isEmpty()) {
+            List<Entry<T>> waiting = new ArrayList<>(overflow);
+            overflow.clear();
+            if (entries != null) {
+                waiting.addAll(entries);
+            }
+            entries = waiting;
+        }
+        if (entries == null) {
+            return;
+        }
+        for (Entry<T> entry : entries) {
+            if (entry.dueTick <= currentTick) {
+                size--;
+                fire.accept(entry.item);
+            } else {
+                place(entry);
+            }
+        }
+    }
+
+    private void place(Entry<T> entry) {
+        for (int level = 0; level < slots.length; level++) {
+            long distance = (entry.dueTick >>> (bits * level)) - (currentTick >>> (bits * level));
+            if (distance <= mask) {
+                int slot = (int) ((entry.dueTick >>> (bits * level)) & mask);
+                if (slots[level][slot] == null) {
+                    slots[level][slot] = new ArrayList<>();
+                }
+                slots[level][slot].add(entry);
+                return;
+            }
+        }
+        overflow.add(entry);
+    }
+
+    private record Entry<T>(T item, long dueTick) {}
+}
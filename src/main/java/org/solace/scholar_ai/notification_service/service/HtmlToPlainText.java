@@ -0,0 +1,80 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+
+/**
+ * Derives the text/plain alternative of a rendered HTML email: visible text in reading order, one line per block,
+ * links written as {@code text (url)}. Hidden preheaders ({@code display:none}) and head content are skipped.
+ */
+final class HtmlToPlainText {
+
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "div", "p", "table", "tr", "h1", "h2", "h3", "h4", "h5", "h6", "ul", "ol", "li", "br", "hr", "center");
+    private static final Pattern WHITESPACE = Pattern.compile("[ \\t\\x0B\\f\\r\\n\\u00A0]+");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n[ \\t]*(\\n[ \\t]*)+");
+
+    private HtmlToPlainText() {}
+
+    static String convert(String html) {
+        StringBuilder out = new StringBuilder();
+        append(Jsoup.parse(html).body(), out);
+        return BLANK_LINES.matcher(out.toString()).replaceAll("\n\n").strip() + "\n";
+    }
+
+    private static void append(Node node, StringBuilder out) {
+        for (Node child : node.childNodes()) {
+            if (child instanceof TextNode text) {
+                String value = WHITESPACE.matcher(text.getWholeText()).replaceAll(" ");
+                if (endsWithNewline(out) || out.charAt(out.length() - 1) == ' ') {
+                    value = value.stripLeading();
+                }
+                out.append(value);
+            } else if (child instanceof Element element) {
+                if (isHidden(element)) {
+                    continue;
+                }
+                boolean block = BLOCK_TAGS.contains(element.normalName());
+                if (block) {
+                    newline(out);
+                }
+                append(element, out);
+                String href = element.attr("href");
+                if ("a".equals(element.normalName())
+                        && href.startsWith("http")
+                        && !element.text().contains(href)) {
+                    out.append(" (").append(href).append(')');
+                }
+                if (block) {
+                    newline(out);
+                }
+            }
+        }
+    }
+
+    private static boolean isHidden(Element element) {
+        String name = element.normalName();
+        if ("style".equals(name) || "script".equals(name) || "head".equals(name)) {
+            return true;
+        }
+        String style = element.attr("style").replace(" ", "").toLowerCase();
+        return style.contains("display:none") || style.contains("mso-hide:all");
+    }
+
+    private static boolean endsWithNewline(StringBuilder out) {
+        return out.length() == 0 || out.charAt(out.length() - 1) == '\n';
+    }
+
+    private static void newline(StringBuilder out) {
+        while (out.length() > 0 && out.charAt(out.length() - 1) == ' ') {
+            out.setLength(out.length() - 1);
+        }
+        if (!endsWithNewline(out)) {
+            out.append('\n');
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import java.time.Instant;
 import java.util.Map;
+import java.util.UUID;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
 import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.model.DeliveryEvent.Stage;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -16,127 +22,262 @@ public class NotificationConsumerService {
     private final EmailService emailService;
     private final NotificationPersistenceService persistenceService;
     private final AppNotificationService appNotificationService;
+    private final StartupTimer startupTimer;
+    private final DeliveryFilterService deliveryFilter;
+    private final AdaptiveListenerController listenerController;
+    private final NotificationScheduler scheduler;
+    private final DeliveryEventLog deliveryEvents;
+    private final TrafficCapture trafficCapture;
+
+    // In sharded mode NotificationShardRouter drains this queue and shards are consumed via ShardAssignmentService
+    @RabbitListener(
+            id = AdaptiveListenerController.LISTENER_ID,
+            queues = "${rabbitmq.notification.queue.name}",
+            autoStartup = "#{!${app.sharding.enabled:false} && ${spring.rabbitmq.listener.simple.auto-startup:true}}")
+    public void onMessage(
+            NotificationRequest request,
+            @Header(name = AmqpHeaders.CORRELATION_ID, required = false) String correlationId) {
+        handleNotification(request, correlationId);
+    }
 
-    @RabbitListener(queues = "${rabbitmq.notification.queue.name}")
     public void handleNotification(NotificationRequest request) {
-        log.info(
+        handleNotification(request, null);
+    }
+
+    /**
+     * Processes one notification. The correlation id (the AMQP correlation id when the producer set one) and the
+     * notification type are put in the MDC for every log line of the send path, and a single structured
+     * {@code notification processed} event with type, outcome and duration is logged at the end.
+     * A future {@code deliverAt} defers the whole message; quiet hours defer only the email.
+     * Every stage is recorded in the {@link DeliveryEventLog} under the correlation id.
+     */
+    public void handleNotification(NotificationRequest request, String correlationId) {
+        process(request, correlationId, false, false);
+    }
+
+    /**
+     * Processes a message released by {@link NotificationScheduler} under the correlation id it was deferred with;
+     * {@code emailOnly} when in-app already ran.
+     */
+    public void handleScheduled(NotificationRequest request, boolean emailOnly, String correlationId) {
+        process(request, correlationId, true, emailOnly);
+    }
+
+    private void process(NotificationRequest request, String correlationId, boolean released, boolean emailOnly) {
+        long start = System.nanoTime();
+        String outcome = "SENT";
+        MDC.put(
+                "correlationId",
+                correlationId != null ? correlationId : UUID.randomUUID().toString());
+        MDC.put("notificationType", request.getNotificationType());
+        log.debug(
                 "Received notification request: {} for {}", request.getNotificationType(), request.getRecipientEmail());
+        if (released) {
+            deliveryEvents.record(Stage.RELEASED, null);
+        } else {
+            if (request.getTimestamp() != null) {
+                deliveryEvents.record(
+                        MDC.get("correlationId"),
+                        request.getNotificationType(),
+                        Stage.PUBLISHED,
+                        null,
+                        request.getTimestamp());
+            }
+            deliveryEvents.record(Stage.RECEIVED, null);
+            trafficCapture.record(request);
+        }
 
         try {
             NotificationRequest.NotificationType type =
                     NotificationRequest.NotificationType.valueOf(request.getNotificationType());
+            Instant now = Instant.now();
+            if (!released
+                    && request.getDeliverAt() != null
+                    && request.getDeliverAt().isAfter(now)) {
+                scheduler.schedule(request, request.getDeliverAt(), false);
+                deliveryEvents.record(Stage.SCHEDULED, "until " + request.getDeliverAt());
+                outcome = "SCHEDULED";
+                return;
+            }
+            AppNotification.NotificationPriority priority =
+                    request.getPriority() != null ? request.getPriority() : defaultPriority(type);
+            boolean sendEmail = deliveryFilter.allowEmail(request.getUserId(), request.getRecipientEmail(), type);
+            boolean inApp = !emailOnly && deliveryFilter.allowInApp(request.getUserId(), type);
+            if (!sendEmail) {
+                deliveryEvents.record(Stage.SUPPRESSED, null);
+                outcome = "SUPPRESSED";
+            }
+            Instant quietUntil =
+                    sendEmail && !released ? deliveryFilter.quietHoursEnd(request.getUserId(), type, now) : null;
+            if (quietUntil != null) {
+                scheduler.schedule(request, quietUntil, true);
+                deliveryEvents.record(Stage.SCHEDULED, "quiet hours until " + quietUntil);
+                sendEmail = false;
+                outcome = "SCHEDULED";
+            }
             switch (type) {
                 case WELCOME_EMAIL:
-                    emailService.sendWelcomeEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Welcome to " + "", "welcome-email");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "welcome_email",
-                            "🎉 Welcome to ScholarAI!",
-                            "Your account has been created successfully. Start exploring research papers.",
-                            AppNotification.NotificationPriority.LOW,
-                            "/interface/projects",
-                            "Get Started");
+                    if (sendEmail) {
+                        emailService.sendWelcomeEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Welcome to " + "", "welcome-email");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "welcome_email",
+                                "🎉 Welcome to ScholarAI!",
+                                "Your account has been created successfully. Start exploring research papers.",
+                                priority,
+                                "/interface/projects",
+                                "Get Started");
+                    }
                     break;
 
                 case PASSWORD_RESET:
-                    emailService.sendPasswordResetEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Password Reset", "password-reset-email");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "password_reset",
-                            "🔐 Password Reset Request",
-                            "A password reset request was received for your account.",
-                            AppNotification.NotificationPriority.HIGH,
-                            "/interface/account",
-                            "Update Password");
+                    if (sendEmail) {
+                        emailService.sendPasswordResetEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Password Reset", "password-reset-email");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "password_reset",
+                                "🔐 Password Reset Request",
+                                "A password reset request was received for your account.",
+                                priority,
+                                "/interface/account",
+                                "Update Password");
+                    }
                     break;
 
                 case EMAIL_VERIFICATION:
-                    emailService.sendEmailVerificationEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Verify Your Email", "email-verification");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "email_verification",
-                            "✉️ Email Verification Required",
-                            "Please verify your email address to complete your account setup.",
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/account",
-                            "Verify Email");
+                    if (sendEmail) {
+                        emailService.sendEmailVerificationEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Verify Your Email", "email-verification");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "email_verification",
+                                "✉️ Email Verification Required",
+                                "Please verify your email address to complete your account setup.",
+                                priority,
+                                "/interface/account",
+                                "Verify Email");
+                    }
                     break;
 
                 case ACCOUNT_UPDATE:
-                    log.info("Account update email not yet implemented");
+                    log.debug("Account update email not yet implemented");
+                    outcome = "SKIPPED";
                     break;
 
                 case WEB_SEARCH_COMPLETED:
-                    emailService.sendWebSearchCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Web Search Completed", "web-search-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "web_search_completed",
-                            buildWebSearchTitle(request.getTemplateData()),
-                            buildWebSearchMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Results");
+                    if (sendEmail) {
+                        emailService.sendWebSearchCompletedEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Web Search Completed", "web-search-completed");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "web_search_completed",
+                                buildWebSearchTitle(request.getTemplateData()),
+                                buildWebSearchMessage(request.getTemplateData()),
+                                priority,
+                                "/interface/projects",
+                                "View Results");
+                    }
                     break;
 
                 case SUMMARIZATION_COMPLETED:
-                    emailService.sendSummarizationCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Summarization Completed", "summarization-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "summarization_completed",
-                            buildSummaryTitle(request.getTemplateData()),
-                            buildSummaryMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Summary");
+                    if (sendEmail) {
+                        emailService.sendSummarizationCompletedEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Summarization Completed", "summarization-completed");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "summarization_completed",
+                                buildSummaryTitle(request.getTemplateData()),
+                                buildSummaryMessage(request.getTemplateData()),
+                                priority,
+                                "/interface/projects",
+                                "View Summary");
+                    }
                     break;
 
                 case PROJECT_DELETED:
-                    emailService.sendProjectDeletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Project Deleted", "project-deleted");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "project_deleted",
-                            buildProjectDeletedTitle(request.getTemplateData()),
-                            buildProjectDeletedMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.HIGH,
-                            "/interface/projects",
-                            "View Projects");
+                    if (sendEmail) {
+                        emailService.sendProjectDeletedEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Project Deleted", "project-deleted");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "project_deleted",
+                                buildProjectDeletedTitle(request.getTemplateData()),
+                                buildProjectDeletedMessage(request.getTemplateData()),
+                                priority,
+                                "/interface/projects",
+                                "View Projects");
+                    }
                     break;
 
                 case GAP_ANALYSIS_COMPLETED:
-                    emailService.sendGapAnalysisCompletedEmail(
-                            request.getRecipientEmail(), request.getRecipientName(), request.getTemplateData());
-                    persistenceService.saveSuccess(request, "Gap Analysis Completed", "gap-analysis-completed");
-                    createAppNotification(
-                            request,
-                            AppNotification.NotificationKind.SERVICE,
-                            "gap_analysis_completed",
-                            buildGapAnalysisTitle(request.getTemplateData()),
-                            buildGapAnalysisMessage(request.getTemplateData()),
-                            AppNotification.NotificationPriority.MEDIUM,
-                            "/interface/projects",
-                            "View Analysis");
+                    if (sendEmail) {
+                        emailService.sendGapAnalysisCompletedEmail(
+                                request.getRecipientEmail(),
+                                request.getRecipientName(),
+                                request.getTemplateData(),
+                                priority);
+                        persistenceService.saveSuccess(request, "Gap Analysis Completed", "gap-analysis-completed");
+                    }
+                    if (inApp) {
+                        createAppNotification(
+                                request,
+                                AppNotification.NotificationKind.SERVICE,
+                                "gap_analysis_completed",
+                                buildGapAnalysisTitle(request.getTemplateData()),
+                                buildGapAnalysisMessage(request.getTemplateData()),
+                                priority,
+                                "/interface/projects",
+                                "View Analysis");
+                    }
                     break;
 
                 default:
                     log.warn("Unknown notification type: {}", request.getNotificationType());
+                    outcome = "SKIPPED";
             }
         } catch (Exception e) {
             log.error(
@@ -146,9 +287,34 @@ public class NotificationConsumerService {
                     e);
             // Best-effort persistence of failure
             persistenceService.saveFailure(request, request.getNotificationType(), "unknown", e);
+            deliveryFilter.recordSendFailure(e);
+            deliveryEvents.record(Stage.FAILED, e.getMessage());
+            outcome = "FAILED";
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            listenerController.record(elapsed, "FAILED".equals(outcome));
+            log.atInfo()
+                    .setMessage("notification processed")
+                    .addKeyValue("userId", request.getUserId())
+                    .addKeyValue("outcome", outcome)
+                    .addKeyValue("durationMs", elapsed / 1_000_000)
+                    .log();
+            deliveryEvents.record(Stage.COMPLETED, outcome);
+            MDC.remove("correlationId");
+            MDC.remove("notificationType");
+            startupTimer.messageProcessed();
         }
     }
 
+    /** Priority of both the email and the in-app notification unless the producer set one. */
+    private static AppNotification.NotificationPriority defaultPriority(NotificationRequest.NotificationType type) {
+        return switch (type) {
+            case PASSWORD_RESET, PROJECT_DELETED -> AppNotification.NotificationPriority.HIGH;
+            case WELCOME_EMAIL -> AppNotification.NotificationPriority.LOW;
+            default -> AppNotification.NotificationPriority.MEDIUM;
+        };
+    }
+
     private void createAppNotification(
             NotificationRequest request,
             AppNotification.NotificationKind kind,
@@ -171,6 +337,7 @@ public class NotificationConsumerService {
                 extractString(request.getTemplateData(), "paperId", "paper_id"),
                 null,
                 request.getTemplateData());
+        deliveryEvents.record(Stage.IN_APP_CREATED, category);
     }
 
     private String buildWebSearchTitle(Map<String, Object> data) {
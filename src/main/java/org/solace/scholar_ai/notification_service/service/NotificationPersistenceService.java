@@ -1,9 +1,11 @@
 package org.solace.scholar_ai.notification_service.service;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.time.Instant;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
 import org.solace.scholar_ai.notification_service.model.NotificationRecord;
 import org.solace.scholar_ai.notification_service.repository.NotificationRecordRepository;
@@ -15,6 +17,8 @@ import org.springframework.stereotype.Service;
 public class NotificationPersistenceService {
 
     private final NotificationRecordRepository repository;
+    private final TemplatePayloadCodec payloadCodec;
+    private final DeliveryStatsService stats;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     public void saveSuccess(NotificationRequest req, String subject, String templateName) {
@@ -23,18 +27,18 @@ public class NotificationPersistenceService {
                     .userId(req.getUserId())
                     .recipientEmail(req.getRecipientEmail())
                     .recipientName(req.getRecipientName())
+                    .messageId(MDC.get("correlationId"))
                     .type(req.getNotificationType())
                     .subject(subject)
                     .templateName(templateName)
-                    .templateDataJson(
-                            req.getTemplateData() != null
-                                    ? objectMapper.writeValueAsString(req.getTemplateData())
-                                    : null)
                     .status("SENT")
                     .createdAt(Instant.now())
                     .sentAt(Instant.now())
+                    .requestedAt(requestedAt(req))
                     .build();
+            writeTemplateData(record, req);
             repository.save(record);
+            stats.record(record);
         } catch (Exception e) {
             log.warn("Failed to persist notification record: {}", e.getMessage());
         }
@@ -46,20 +50,41 @@ public class NotificationPersistenceService {
                     .userId(req.getUserId())
                     .recipientEmail(req.getRecipientEmail())
                     .recipientName(req.getRecipientName())
+                    .messageId(MDC.get("correlationId"))
                     .type(req.getNotificationType())
                     .subject(subject)
                     .templateName(templateName)
-                    .templateDataJson(
-                            req.getTemplateData() != null
-                                    ? objectMapper.writeValueAsString(req.getTemplateData())
-                                    : null)
                     .status("FAILED")
                     .createdAt(Instant.now())
                     .errorMessage(error.getMessage())
+                    .requestedAt(requestedAt(req))
                     .build();
+            writeTemplateData(record, req);
             repository.save(record);
+            stats.record(record);
         } catch (Exception e) {
             log.warn("Failed to persist failed notification record: {}", e.getMessage());
         }
     }
+
+    private void writeTemplateData(NotificationRecord record, NotificationRequest req) throws JsonProcessingException {
+        if (req.getTemplateData() == null) {
+            return;
+        }
+        String json = objectMapper.writeValueAsString(req.getTemplateData());
+        if (payloadCodec.isEnabled()) {
+            record.setTemplateDataCompressed(payloadCodec.encode(req.getNotificationType(), json));
+        } else {
+            record.setTemplateDataJson(json);
+        }
+    }
+
+    private static Instant requestedAt(NotificationRequest req) {
+        Instant requested = req.getTimestamp();
+        if (req.getDeliverAt() != null
+                && (requested == null || req.getDeliverAt().isAfter(requested))) {
+            return req.getDeliverAt();
+        }
+        return requested;
+    }
 }
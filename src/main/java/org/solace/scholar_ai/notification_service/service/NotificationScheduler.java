@@ -0,0 +1,277 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.model.ScheduledNotification;
+import org.solace.scholar_ai.notification_service.repository.ScheduledNotificationRepository;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Holds back notifications with a future {@code deliverAt}, or emails that arrive during the user's quiet hours.
+ * Deferred messages live in {@code scheduled_notifications}; only the next {@code app.schedule.load-window-ms}
+ * is claimed by this instance and kept in memory, as bare ids in a {@link HierarchicalTimerWheel}, so pending
+ * volume costs table rows rather than heap or timers. Due ids are released through a queue at no more than
+ * {@code app.schedule.max-release-per-second}, and quiet-hours releases are spread over
+ * {@code app.schedule.quiet-hours-spread-ms} by user, so the end of a quiet window or a batch of identical
+ * {@code deliverAt}s does not turn into a burst at the SMTP relay.
+ * Delivery is at least once: a claim that is not released and deleted within {@code claim-lease-ms}, e.g.
+ * because the instance died, is picked up by another instance.
+ */
+@Service
+@Slf4j
+public class NotificationScheduler {
+
+    private static final String CLAIM = "UPDATE scheduled_notifications SET claim_token = ?, claimed_until = ? "
+            + "WHERE id IN (SELECT id FROM scheduled_notifications WHERE deliver_at < ? "
+            + "AND (claimed_until IS NULL OR claimed_until < ?) ORDER BY deliver_at LIMIT ?) "
+            + "AND (claimed_until IS NULL OR claimed_until < ?)";
+
+    private static final String CLAIMED = "SELECT id, deliver_at FROM scheduled_notifications WHERE claim_token = ?";
+
+    private static final String LOAD =
+            "SELECT payload_json, email_only, message_id FROM scheduled_notifications WHERE id = ? AND claim_token = ?";
+
+    private static final String DELETE = "DELETE FROM scheduled_notifications WHERE id = ? AND claim_token = ?";
+
+    private final ScheduledNotificationRepository repository;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ObjectProvider<NotificationConsumerService> consumer;
+    private final MeterRegistry meterRegistry;
+    private final long tickMillis;
+    private final long loadWindowMillis;
+    private final long loadIntervalMillis;
+    private final int maxLoaded;
+    private final long claimLeaseMillis;
+    private final double maxReleasePerSecond;
+    private final long quietHoursSpreadMillis;
+
+    private final HierarchicalTimerWheel<Due> wheel;
+    private final BlockingQueue<Due> released = new LinkedBlockingQueue<>();
+    private ScheduledExecutorService timer;
+    private Thread releaser;
+
+    public NotificationScheduler(
+            ScheduledNotificationRepository repository,
+            JdbcTemplate jdbcTemplate,
+            ObjectMapper objectMapper,
+            ObjectProvider<NotificationConsumerService> consumer,
+            MeterRegistry meterRegistry,
+            @Value("${app.schedule.tick-ms:1000}") long tickMillis,
+            @Value("${app.schedule.load-window-ms:600000}") long loadWindowMillis,
+            @Value("${app.schedule.load-interval-ms:30000}") long loadIntervalMillis,
+            @Value("${app.schedule.max-loaded:10000}") int maxLoaded,
+            @Value("${app.schedule.claim-lease-ms:900000}") long claimLeaseMillis,
+            @Value("${app.schedule.max-release-per-second:20}") double maxReleasePerSecond,
+            @Value("${app.schedule.quiet-hours-spread-ms:1800000}") long quietHoursSpreadMillis) {
+        this.repository = repository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.consumer = consumer;
+        this.meterRegistry = meterRegistry;
+        this.tickMillis = tickMillis;
+        this.loadWindowMillis = loadWindowMillis;
+        this.loadIntervalMillis = loadIntervalMillis;
+        this.maxLoaded = maxLoaded;
+        this.claimLeaseMillis = claimLeaseMillis;
+        this.maxReleasePerSecond = maxReleasePerSecond;
+        this.quietHoursSpreadMillis = quietHoursSpreadMillis;
+        // 64 slots per level: one-tick, ~1-minute and ~68-minute slots reach ~3 days at one-second ticks
+        this.wheel = new HierarchicalTimerWheel<>(tickMillis, 6, 3, System.currentTimeMillis());
+        Gauge.builder("notification.schedule.loaded", this, NotificationScheduler::loaded)
+                .description("Deferred notifications claimed by this instance and not yet released")
+                .register(meterRegistry);
+        Gauge.builder("notification.schedule.release.queue", released, BlockingQueue::size)
+                .description("Due notifications waiting for a release slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Stores a message to be processed at {@code deliverAt}; claims it right away if it is due soon. The stored
+     * copy carries {@code deliverAt} as its own, so the delivery latency of a message held for quiet hours is
+     * measured from its release rather than from when it arrived.
+     */
+    public void schedule(NotificationRequest request, Instant deliverAt, boolean emailOnly) {
+        if (emailOnly && request.getUserId() != null && quietHoursSpreadMillis > 0) {
+            deliverAt = deliverAt.plusMillis(Math.floorMod(request.getUserId().hashCode(), quietHoursSpreadMillis));
+        }
+        if (!deliverAt.equals(request.getDeliverAt())) {
+            request = objectMapper.convertValue(request, NotificationRequest.class);
+            request.setDeliverAt(deliverAt);
+        }
+        boolean nearTerm =
+                deliverAt.toEpochMilli() < System.currentTimeMillis() + loadWindowMillis && loaded() < maxLoaded;
+        UUID token = nearTerm ? UUID.randomUUID() : null;
+        ScheduledNotification saved;
+        try {
+            saved = repository.save(ScheduledNotification.builder()
+                    .userId(request.getUserId())
+                    .deliverAt(deliverAt)
+                    .emailOnly(emailOnly)
+                    .messageId(MDC.get("correlationId"))
+                    .payloadJson(objectMapper.writeValueAsString(request))
+                    .claimToken(token)
+                    .claimedUntil(nearTerm ? deliverAt.plusMillis(claimLeaseMillis) : null)
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Failed to serialize scheduled notification", e);
+        }
+        meterRegistry
+                .counter("notification.schedule.deferred", "reason", emailOnly ? "quiet_hours" : "deliver_at")
+                .increment();
+        if (nearTerm) {
+            enqueue(new Due(saved.getId(), token), deliverAt);
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "schedule-timer");
+            thread.setDaemon(true);
+            return thread;
+        });
+        timer.scheduleAtFixedRate(this::advance, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        timer.scheduleWithFixedDelay(this::claimDue, 0, loadIntervalMillis, TimeUnit.MILLISECONDS);
+        releaser = new Thread(this::releaseLoop, "schedule-release");
+        releaser.setDaemon(true);
+        releaser.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (timer != null) {
+            timer.shutdownNow();
+        }
+        if (releaser != null) {
+            releaser.interrupt();
+        }
+    }
+
+    /** Claims rows due within the load window that nobody holds, or whose holder's lease ran out. */
+    void claimDue() {
+        try {
+            int capacity = maxLoaded - loaded();
+            if (capacity <= 0) {
+                return;
+            }
+            Instant now = Instant.now();
+            Instant horizon = now.plusMillis(loadWindowMillis);
+            UUID token = UUID.randomUUID();
+            int claimed = jdbcTemplate.update(
+                    CLAIM,
+                    token,
+                    Timestamp.from(horizon.plusMillis(claimLeaseMillis)),
+                    Timestamp.from(horizon),
+                    Timestamp.from(now),
+                    capacity,
+                    Timestamp.from(now));
+            if (claimed == 0) {
+                return;
+            }
+            jdbcTemplate.query(
+                    CLAIMED,
+                    rs -> {
+                        enqueue(
+                                new Due(rs.getObject("id", UUID.class), token),
+                                rs.getTimestamp("deliver_at").toInstant());
+                    },
+                    token);
+            log.debug("Claimed {} scheduled notifications due before {}", claimed, horizon);
+        } catch (Exception e) {
+            log.warn("Could not claim scheduled notifications: {}", e.getMessage());
+        }
+    }
+
+    private void enqueue(Due due, Instant deliverAt) {
+        synchronized (wheel) {
+            if (wheel.add(due, deliverAt.toEpochMilli())) {
+                return;
+            }
+        }
+        released.add(due);
+    }
+
+    private void advance() {
+        synchronized (wheel) {
+            wheel.advance(System.currentTimeMillis(), released::add);
+        }
+    }
+
+    /**
+     * Claims held in memory: those waiting in the wheel and those already due but waiting for a release slot.
+     * Counting the release queue keeps a due backlog, which drains at only {@code max-release-per-second}, from
+     * being claimed faster than it is released and outliving its lease.
+     */
+    private int loaded() {
+        synchronized (wheel) {
+            return wheel.size() + released.size();
+        }
+    }
+
+    private void releaseLoop() {
+        long intervalNanos = (long) (1_000_000_000L / maxReleasePerSecond);
+        long next = System.nanoTime();
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                Due due = released.take();
+                long wait = next - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                next = Math.max(next, System.nanoTime() - intervalNanos) + intervalNanos;
+                release(due);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                log.warn("Failed to release scheduled notification: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void release(Due due) throws JsonProcessingException {
+        List<Payload> rows = jdbcTemplate.query(
+                LOAD,
+                (rs, i) -> new Payload(
+                        rs.getString("payload_json"), rs.getBoolean("email_only"), rs.getString("message_id")),
+                due.id(),
+                due.token());
+        if (rows.isEmpty()) {
+            // cancelled, or our claim lapsed and another instance took it over
+            return;
+        }
+        NotificationRequest request = objectMapper.readValue(rows.get(0).json(), NotificationRequest.class);
+        consumer.getObject()
+                .handleScheduled(request, rows.get(0).emailOnly(), rows.get(0).messageId());
+        if (jdbcTemplate.update(DELETE, due.id(), due.token()) == 0) {
+            // our lease ran out while it was being handled and another instance re-claimed it; leave it to them
+            log.warn("Scheduled notification {} was re-claimed by another instance before release", due.id());
+        }
+        meterRegistry.counter("notification.schedule.released").increment();
+    }
+
+    private record Due(UUID id, UUID token) {}
+
+    private record Payload(String json, boolean emailOnly, String messageId) {}
+}
@@ -0,0 +1,265 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.config.CborMessageConverter;
+import org.solace.scholar_ai.notification_service.config.ShardedQueueConfig;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.core.AmqpAdmin;
+import org.springframework.amqp.core.BatchMessageListener;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Forwards notifications from the router queue to their user's shard queue, unchanged.
+ * The router queue has a single active consumer and this instance reads it with one thread, so messages leave
+ * in the order they were published and every message for a user lands on the same shard.
+ *
+ * <p>Messages are taken in batches of up to {@code app.sharding.router-batch-size}. Each message is published
+ * as mandatory with a publisher confirm, and the batch is acked only after the broker has confirmed every
+ * message and returned none as unroutable. If a publish is nacked, returned or not confirmed within
+ * {@code app.sharding.confirm-timeout-ms}, the whole batch is rejected and requeued. Nothing is lost, but the
+ * messages of that batch that did get through are forwarded again. The shard is read from the
+ * {@value ShardedQueueConfig#USER_ID_HEADER} header when the producer sets it. Otherwise the top-level
+ * {@code userId} and {@code recipientEmail} fields are read from the body with a streaming parser, without
+ * binding the rest of the payload.
+ */
+@Service
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@Slf4j
+public class NotificationShardRouter implements DisposableBean {
+
+    private static final JsonFactory JSON = new JsonFactory();
+    private static final JsonFactory CBOR = new CBORFactory();
+
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final RabbitTemplate rabbitTemplate;
+    private final AmqpAdmin amqpAdmin;
+    private final MeterRegistry meterRegistry;
+    private final int shards;
+    private final int batchSize;
+    private final long batchWaitMillis;
+    private final long confirmTimeoutMillis;
+    private final String routerQueue;
+    private final String legacyQueue;
+    private final String shardExchange;
+    private final Binding legacyBinding;
+    private SimpleMessageListenerContainer container;
+
+    public NotificationShardRouter(
+            SimpleRabbitListenerContainerFactory containerFactory,
+            ConnectionFactory connectionFactory,
+            AmqpAdmin amqpAdmin,
+            MeterRegistry meterRegistry,
+            @Value("${app.sharding.shards:16}") int shards,
+            @Value("${app.sharding.router-batch-size:100}") int batchSize,
+            @Value("${app.sharding.router-batch-wait-ms:20}") long batchWaitMillis,
+            @Value("${app.sharding.confirm-timeout-ms:10000}") long confirmTimeoutMillis,
+            @Value("${rabbitmq.notification.queue.name}") String queueName,
+            @Value("${rabbitmq.notification.exchange.name}") String exchangeName,
+            @Value("${rabbitmq.notification.routing.key}") String routingKey) {
+        if (!connectionFactory.isPublisherConfirms() || !connectionFactory.isPublisherReturns()) {
+            throw new IllegalStateException("Sharding needs spring.rabbitmq.publisher-confirm-type=correlated and "
+                    + "spring.rabbitmq.publisher-returns=true to forward messages safely");
+        }
+        this.containerFactory = containerFactory;
+        this.rabbitTemplate = new RabbitTemplate(connectionFactory);
+        this.rabbitTemplate.setMandatory(true);
+        this.amqpAdmin = amqpAdmin;
+        this.meterRegistry = meterRegistry;
+        this.shards = shards;
+        this.batchSize = Math.max(1, batchSize);
+        this.batchWaitMillis = Math.max(1, batchWaitMillis);
+        this.confirmTimeoutMillis = confirmTimeoutMillis;
+        this.routerQueue = ShardedQueueConfig.routerQueueName(queueName);
+        this.legacyQueue = queueName;
+        this.shardExchange = ShardedQueueConfig.shardExchangeName(exchangeName);
+        this.legacyBinding = new Binding(queueName, Binding.DestinationType.QUEUE, exchangeName, routingKey, null);
+    }
+
+    /**
+     * The unsharded queue stays bound on brokers that ran the service before sharding was enabled; unbind it so
+     * new messages only reach the router queue. Whatever is still in it is drained by {@link #route}.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        try {
+            amqpAdmin.removeBinding(legacyBinding);
+        } catch (Exception e) {
+            log.warn("Could not remove legacy binding for {}: {}", legacyBinding.getDestination(), e.getMessage());
+        }
+        container = containerFactory.createListenerContainer();
+        container.setQueueNames(routerQueue, legacyQueue);
+        // one consumer keeps publish order; batching amortizes the confirm round trip
+        container.setConcurrentConsumers(1);
+        container.setMaxConcurrentConsumers(1);
+        container.setPrefetchCount(batchSize);
+        container.setConsumerBatchEnabled(true);
+        container.setBatchSize(batchSize);
+        container.setReceiveTimeout(batchWaitMillis);
+        container.setMessageListener((BatchMessageListener) this::route);
+        container.afterPropertiesSet();
+        container.start();
+    }
+
+    @Override
+    public void destroy() {
+        if (container != null) {
+            container.stop();
+        }
+    }
+
+    /** Forwards a batch and returns once the broker confirmed all of it; throwing requeues the batch. */
+    void route(List<Message> messages) {
+        int[] shardOf = new int[messages.size()];
+        List<CorrelationData> confirms = new ArrayList<>(messages.size());
+        for (int i = 0; i < messages.size(); i++) {
+            Message message = messages.get(i);
+            shardOf[i] = shardFor(message, shards);
+            CorrelationData confirm = new CorrelationData();
+            rabbitTemplate.send(shardExchange, ShardedQueueConfig.shardRoutingKey(shardOf[i]), message, confirm);
+            confirms.add(confirm);
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(confirmTimeoutMillis);
+        for (int i = 0; i < confirms.size(); i++) {
+            CorrelationData confirm = confirms.get(i);
+            CorrelationData.Confirm result;
+            try {
+                result = confirm.getFuture().get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new AmqpException("Interrupted while waiting for shard publish confirms", e);
+            } catch (ExecutionException | TimeoutException e) {
+                throw new AmqpException("Shard publish was not confirmed within " + confirmTimeoutMillis + " ms", e);
+            }
+            if (!result.isAck()) {
+                throw new AmqpException("Broker rejected publish to shard " + shardOf[i] + ": " + result.getReason());
+            }
+            if (confirm.getReturned() != null) {
+                // the shard queue or its binding is gone; declare the topology again before the batch is retried
+                amqpAdmin.initialize();
+                throw new AmqpException("Shard " + shardOf[i] + " is unroutable: "
+                        + confirm.getReturned().getReplyText());
+            }
+        }
+        for (int shard : shardOf) {
+            meterRegistry
+                    .counter("notification.shard.routed", "shard", Integer.toString(shard))
+                    .increment();
+        }
+    }
+
+    /**
+     * Shard of a raw message: the {@value ShardedQueueConfig#USER_ID_HEADER} header if set, otherwise the
+     * top-level {@code userId} or {@code recipientEmail} of the body. Unreadable bodies go to shard 0, where the
+     * consumer rejects them as before.
+     */
+    static int shardFor(Message message, int shards) {
+        Object header = message.getMessageProperties().getHeader(ShardedQueueConfig.USER_ID_HEADER);
+        UUID userId = header != null ? parseUuid(header.toString()) : null;
+        if (userId != null) {
+            return shardFor(userId, null, shards);
+        }
+        UUID userIdField = null;
+        String recipientEmail = null;
+        JsonFactory factory = CborMessageConverter.CONTENT_TYPE.equals(
+                        message.getMessageProperties().getContentType())
+                ? CBOR
+                : JSON;
+        try (JsonParser parser = factory.createParser(message.getBody())) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                while (parser.nextToken() == JsonToken.FIELD_NAME && userIdField == null) {
+                    String field = parser.currentName();
+                    JsonToken value = parser.nextToken();
+                    if ("userId".equals(field) && value == JsonToken.VALUE_STRING) {
+                        userIdField = parseUuid(parser.getText());
+                    } else if ("userId".equals(field) && value == JsonToken.VALUE_EMBEDDED_OBJECT) {
+                        // CBOR carries UUIDs as 16 raw bytes
+                        ByteBuffer bytes = ByteBuffer.wrap(parser.getBinaryValue());
+                        userIdField = bytes.remaining() == 16 ? new UUID(bytes.getLong(), bytes.getLong()) : null;
+                    } else if ("recipientEmail".equals(field) && value == JsonToken.VALUE_STRING) {
+                        recipientEmail = parser.getText();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Could not read the shard key of a message: {}", e.getMessage());
+        }
+        return shardFor(userIdField, recipientEmail, shards);
+    }
+
+    public static int shardFor(NotificationRequest request, int shards) {
+        return shardFor(request.getUserId(), request.getRecipientEmail(), shards);
+    }
+
+    /**
+     * Jump consistent hash of the user id (falling back to the recipient email) onto {@code shards} buckets;
+     * growing the shard count only moves the users that land on the new shards.
+     */
+    public static int shardFor(UUID userId, String recipientEmail, int shards) {
+        long key;
+        if (userId != null) {
+            key = userId.getMostSignificantBits() ^ userId.getLeastSignificantBits();
+        } else if (recipientEmail != null) {
+            key = fnv1a(recipientEmail.toLowerCase().getBytes(StandardCharsets.UTF_8));
+        } else {
+            return 0;
+        }
+        return jumpHash(key, shards);
+    }
+
+    static int jumpHash(long key, int buckets) {
+        long b = -1;
+        long j = 0;
+        while (j < buckets) {
+            b = j;
+            key = key * 2862933555777941757L + 1;
+            j = (long) ((b + 1) * ((double) (1L << 31) / (double) ((key >>> 33) + 1)));
+        }
+        return (int) b;
+    }
+
+    private static UUID parseUuid(String value) {
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private static long fnv1a(byte[] bytes) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : bytes) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+}
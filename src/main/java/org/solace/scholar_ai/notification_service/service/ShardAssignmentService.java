@@ -0,0 +1,195 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.config.ShardedQueueConfig;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.MessageListener;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.client.serviceregistry.Registration;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Decides which shard queues this instance consumes and runs one single-threaded listener container per owned
+ * shard. Ownership is rendezvous-hashed over the UP instances Eureka reports for this service, so every instance
+ * computes the same assignment and a join or leave moves few shards.
+ * Recomputed on every Eureka cache refresh; a handed-over shard is picked up by the new owner once the old one
+ * stops consuming, because shard queues allow a single active consumer.
+ */
+@Service
+@ConditionalOnProperty(name = "app.sharding.enabled", havingValue = "true")
+@Slf4j
+public class ShardAssignmentService implements DisposableBean {
+
+    private final SimpleRabbitListenerContainerFactory containerFactory;
+    private final MessageConverter messageConverter;
+    private final NotificationConsumerService consumerService;
+    private final ObjectProvider<DiscoveryClient> discoveryClient;
+    private final ObjectProvider<Registration> registration;
+    private final String serviceId;
+    private final String queueName;
+    private final int shards;
+
+    private final Map<Integer, SimpleMessageListenerContainer> containers = new TreeMap<>();
+    private List<String> members = List.of();
+
+    public ShardAssignmentService(
+            SimpleRabbitListenerContainerFactory containerFactory,
+            MessageConverter messageConverter,
+            NotificationConsumerService consumerService,
+            ObjectProvider<DiscoveryClient> discoveryClient,
+            ObjectProvider<Registration> registration,
+            MeterRegistry meterRegistry,
+            @Value("${spring.application.name}") String serviceId,
+            @Value("${rabbitmq.notification.queue.name}") String queueName,
+            @Value("${app.sharding.shards:16}") int shards) {
+        this.containerFactory = containerFactory;
+        this.messageConverter = messageConverter;
+        this.consumerService = consumerService;
+        this.discoveryClient = discoveryClient;
+        this.registration = registration;
+        this.serviceId = serviceId;
+        this.queueName = queueName;
+        this.shards = shards;
+        Gauge.builder("notification.shards.owned", this, ShardAssignmentService::ownedShardCount)
+                .description("Shard queues consumed by this instance")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        rebalance();
+    }
+
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryRefresh() {
+        rebalance();
+    }
+
+    public synchronized int ownedShardCount() {
+        return containers.size();
+    }
+
+    synchronized void rebalance() {
+        String self = selfId();
+        TreeSet<String> current = new TreeSet<>();
+        current.add(self);
+        DiscoveryClient discovery = discoveryClient.getIfAvailable();
+        if (discovery != null) {
+            for (ServiceInstance instance : discovery.getInstances(serviceId)) {
+                current.add(instance.getInstanceId());
+            }
+        }
+        List<String> instances = new ArrayList<>(current);
+        if (instances.equals(members)) {
+            return;
+        }
+        members = instances;
+
+        List<Integer> acquired = new ArrayList<>();
+        List<Integer> released = new ArrayList<>();
+        Map<Integer, String> owners = assign(shards, instances);
+        for (int shard = 0; shard < shards; shard++) {
+            boolean owned = self.equals(owners.get(shard));
+            if (owned && !containers.containsKey(shard)) {
+                containers.put(shard, start(shard));
+                acquired.add(shard);
+            } else if (!owned && containers.containsKey(shard)) {
+                containers.remove(shard).stop();
+                released.add(shard);
+            }
+        }
+        log.info(
+                "Shard assignment for {} across {} instances: owns {}, acquired {}, released {}",
+                self,
+                instances.size(),
+                containers.keySet(),
+                acquired,
+                released);
+    }
+
+    /**
+     * Rendezvous hashing with bounded load: each shard goes to its highest-weight instance that still has fewer
+     * than {@code ceil(shards / instances)} shards, so ownership stays even and mostly stable across changes.
+     */
+    static Map<Integer, String> assign(int shards, List<String> instances) {
+        int capacity = (shards + instances.size() - 1) / instances.size();
+        Map<String, Integer> load = new HashMap<>();
+        Map<Integer, String> owners = new TreeMap<>();
+        for (int shard = 0; shard < shards; shard++) {
+            String owner = null;
+            long best = Long.MIN_VALUE;
+            for (String instance : instances) {
+                long weight = mix(hash(instance) + shard * 0x9e3779b97f4a7c15L);
+                if (load.getOrDefault(instance, 0) < capacity && (owner == null || weight > best)) {
+                    owner = instance;
+                    best = weight;
+                }
+            }
+            owners.put(shard, owner);
+            load.merge(owner, 1, Integer::sum);
+        }
+        return owners;
+    }
+
+    @Override
+    public synchronized void destroy() {
+        containers.values().forEach(SimpleMessageListenerContainer::stop);
+        containers.clear();
+    }
+
+    private SimpleMessageListenerContainer start(int shard) {
+        SimpleMessageListenerContainer container = containerFactory.createListenerContainer();
+        container.setQueueNames(ShardedQueueConfig.shardQueueName(queueName, shard));
+        // one consumer per shard keeps each user's messages in order
+        container.setConcurrentConsumers(1);
+        container.setMaxConcurrentConsumers(1);
+        container.setMessageListener((MessageListener) message -> {
+            message.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+            consumerService.handleNotification(
+                    (NotificationRequest) messageConverter.fromMessage(message),
+                    message.getMessageProperties().getCorrelationId());
+        });
+        container.afterPropertiesSet();
+        container.start();
+        return container;
+    }
+
+    private String selfId() {
+        Registration self = registration.getIfAvailable();
+        return self != null ? self.getInstanceId() : serviceId + "-local";
+    }
+
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        return hash;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+}
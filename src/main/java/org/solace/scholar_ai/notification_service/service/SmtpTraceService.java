@@ -0,0 +1,237 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import jakarta.mail.Session;
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.solace.scholar_ai.notification_service.config.PlatformThreadMailSender;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.stereotype.Component;
+
+/**
+ * Conditional SMTP wire tracing, switched at runtime through the {@code smtptrace} actuator endpoint.
+ * Regular sends go through a session with {@code mail.debug} off; a message whose recipient or notification type
+ * matches the active rule, or that falls into the sample, is sent through a second sender whose debug output is
+ * written line by line to the {@code smtp.wire} logger, carrying the caller's MDC (correlation id). Only commands
+ * and replies are logged, never the message content, which carries reset codes and verification links.
+ * Rules expire on their own so tracing is not left on by accident. The endpoint is not exposed in the
+ * {@code prod} profile.
+ */
+@Component
+@Endpoint(id = "smtptrace")
+@Slf4j
+public class SmtpTraceService {
+
+    private static final Logger WIRE = LoggerFactory.getLogger("smtp.wire");
+    private static final Duration DEFAULT_DURATION = Duration.ofMinutes(15);
+
+    private final JavaMailSender mailSender;
+    private volatile Rule rule = Rule.OFF;
+    private volatile JavaMailSenderImpl tracingSender;
+
+    public SmtpTraceService(JavaMailSender mailSender) {
+        this.mailSender = mailSender;
+    }
+
+    /**
+     * Returns the tracing sender when this message should be traced, otherwise {@code null}.
+     */
+    @Nullable public JavaMailSender senderFor(String recipient, @Nullable String type) {
+        Rule current = rule;
+        if (current == Rule.OFF || !current.matches(recipient, type)) {
+            return null;
+        }
+        if (Instant.now().isAfter(current.expiresAt())) {
+            rule = Rule.OFF;
+            return null;
+        }
+        return tracingSender();
+    }
+
+    @ReadOperation
+    public Map<String, Object> rule() {
+        Rule current = rule;
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("active", current != Rule.OFF && Instant.now().isBefore(current.expiresAt()));
+        result.put("recipients", current.recipients());
+        result.put("types", current.types());
+        result.put("sampleRate", current.sampleRate());
+        result.put("expiresAt", current == Rule.OFF ? null : current.expiresAt());
+        return result;
+    }
+
+    /**
+     * Traces messages to any of the comma-separated recipients or notification types, plus a random
+     * {@code sampleRate} fraction of all others, for {@code minutes} (default 15).
+     */
+    @WriteOperation
+    public Map<String, Object> trace(
+            @Nullable String recipients,
+            @Nullable String types,
+            @Nullable Double sampleRate,
+            @Nullable Integer minutes) {
+        Duration duration = minutes != null ? Duration.ofMinutes(minutes) : DEFAULT_DURATION;
+        rule = new Rule(
+                split(recipients, true),
+                split(types, false),
+                sampleRate != null ? Math.max(0, Math.min(1, sampleRate)) : 0,
+                Instant.now().plus(duration));
+        log.info("SMTP wire tracing enabled: {}", rule());
+        return rule();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> clear() {
+        rule = Rule.OFF;
+        log.info("SMTP wire tracing disabled");
+        return rule();
+    }
+
+    private JavaMailSenderImpl tracingSender() {
+        JavaMailSenderImpl sender = tracingSender;
+        if (sender == null) {
+            synchronized (this) {
+                if (tracingSender == null) {
+                    tracingSender = createTracingSender();
+                }
+                sender = tracingSender;
+            }
+        }
+        return sender;
+    }
+
+    private JavaMailSenderImpl createTracingSender() {
+        JavaMailSenderImpl source = mailSender instanceof PlatformThreadMailSender offloading
+                ? offloading.getDelegate()
+                : (JavaMailSenderImpl) mailSender;
+        Properties properties = new Properties();
+        properties.putAll(source.getJavaMailProperties());
+        properties.put("mail.debug", "true");
+        properties.put("mail.debug.auth", "false");
+        Session session = Session.getInstance(properties);
+        session.setDebugOut(new PrintStream(new LineLogger(), true, StandardCharsets.UTF_8));
+
+        JavaMailSenderImpl sender = new JavaMailSenderImpl();
+        sender.setSession(session);
+        sender.setHost(source.getHost());
+        sender.setPort(source.getPort());
+        sender.setUsername(source.getUsername());
+        sender.setPassword(source.getPassword());
+        sender.setProtocol(source.getProtocol());
+        return sender;
+    }
+
+    private static Set<String> split(@Nullable String values, boolean lowerCase) {
+        if (values == null || values.isBlank()) {
+            return Set.of();
+        }
+        return Arrays.stream(values.split(","))
+                .map(String::trim)
+                .filter(value -> !value.isEmpty())
+                .map(value -> lowerCase ? value.toLowerCase() : value)
+                .collect(Collectors.toUnmodifiableSet());
+    }
+
+    private record Rule(Set<String> recipients, Set<String> types, double sampleRate, Instant expiresAt) {
+
+        static final Rule OFF = new Rule(Set.of(), Set.of(), 0, Instant.EPOCH);
+
+        boolean matches(String recipient, @Nullable String type) {
+            return (recipient != null && recipients.contains(recipient.toLowerCase()))
+                    || (type != null && types.contains(type))
+                    || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+        }
+    }
+
+    /** Turns Jakarta Mail's debug stream into one log event per protocol line that {@link WireFilter} keeps. */
+    private static final class LineLogger extends OutputStream {
+
+        private final ThreadLocal<ByteArrayOutputStream> line = ThreadLocal.withInitial(ByteArrayOutputStream::new);
+        private final ThreadLocal<WireFilter> filter = ThreadLocal.withInitial(WireFilter::new);
+
+        @Override
+        public void write(int b) {
+            ByteArrayOutputStream buffer = line.get();
+            if (b == '\n') {
+                String kept = filter.get()
+                        .accept(buffer.toString(StandardCharsets.UTF_8).stripTrailing());
+                if (kept != null) {
+                    WIRE.info(kept);
+                }
+                buffer.reset();
+            } else {
+                buffer.write(b);
+            }
+        }
+    }
+
+    /**
+     * Keeps only SMTP commands and server replies, so traces show the dialogue without the message itself: the
+     * headers and body between {@code DATA}'s 354 reply and the terminating {@code .} are replaced by a single
+     * line with their count, {@code AUTH} is cut to its mechanism, and Jakarta Mail's own {@code DEBUG} chatter
+     * and anything else unrecognised (such as credentials sent in reply to a 334 challenge) is dropped.
+     * One instance per sending thread.
+     */
+    static final class WireFilter {
+
+        private static final Pattern REPLY = Pattern.compile("^\\d{3}(?:[ -].*)?$");
+        private static final Pattern COMMAND = Pattern.compile(
+                "^(?:(?:EHLO|HELO|STARTTLS|DATA|RSET|NOOP|QUIT|AUTH)(?:\\s.*)?|(?:MAIL FROM|RCPT TO):.*)$",
+                Pattern.CASE_INSENSITIVE);
+
+        private boolean dataRequested;
+        private boolean inData;
+        private int omitted;
+
+        @Nullable String accept(String line) {
+            if (inData) {
+                if (!line.equals(".")) {
+                    omitted++;
+                    return null;
+                }
+                inData = false;
+                return "[message content omitted: " + omitted + " lines]";
+            }
+            if (REPLY.matcher(line).matches()) {
+                if (dataRequested) {
+                    dataRequested = false;
+                    inData = line.startsWith("354");
+                    omitted = 0;
+                }
+                return line;
+            }
+            if (COMMAND.matcher(line).matches()) {
+                String command = line.toUpperCase(Locale.ROOT);
+                if (command.equals("DATA")) {
+                    dataRequested = true;
+                } else if (command.startsWith("AUTH")) {
+                    String[] words = line.split(" ", 3);
+                    return words.length > 1 ? words[0] + " " + words[1] : line;
+                }
+                return line;
+            }
+            return null;
+        }
+    }
+}
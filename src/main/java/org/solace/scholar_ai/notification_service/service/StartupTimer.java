@@ -0,0 +1,51 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Records how long this instance took from JVM start to being ready and to finishing its first notification,
+ * the number that matters when scaling out under a queue spike. Exposed as
+ * {@code application.first.message.time} next to Boot's {@code application.ready.time}.
+ */
+@Component
+@Slf4j
+public class StartupTimer {
+
+    private final AtomicLong firstMessageMillis = new AtomicLong(-1);
+
+    public StartupTimer(MeterRegistry meterRegistry) {
+        TimeGauge.builder(
+                        "application.first.message.time",
+                        firstMessageMillis,
+                        TimeUnit.MILLISECONDS,
+                        AtomicLong::doubleValue)
+                .description("Time from JVM start until the first notification was processed")
+                .register(meterRegistry);
+    }
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        Duration timeTaken = event.getTimeTaken();
+        log.info(
+                "Ready in {} ms ({} ms since JVM start)",
+                timeTaken != null ? timeTaken.toMillis() : -1,
+                ManagementFactory.getRuntimeMXBean().getUptime());
+    }
+
+    public void messageProcessed() {
+        if (firstMessageMillis.get() < 0
+                && firstMessageMillis.compareAndSet(
+                        -1, ManagementFactory.getRuntimeMXBean().getUptime())) {
+            log.info("First notification processed {} ms after JVM start", firstMessageMillis.get());
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import jakarta.activation.DataHandler;
+import jakarta.mail.MessagingException;
+import jakarta.mail.Part;
+import jakarta.mail.internet.MimeBodyPart;
+import jakarta.mail.internet.PreencodedMimeBodyPart;
+import jakarta.mail.util.ByteArrayDataSource;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Base64;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+/**
+ * Holds the MIME parts that are identical for every outgoing email.
+ * When inline logo mode is enabled the bundled logo is read and base64-encoded once at startup; each message then
+ * gets a thin {@link PreencodedMimeBodyPart} over the same immutable buffer instead of re-encoding the image.
+ */
+@Component
+@Slf4j
+public class StaticMimeParts {
+
+    public static final String LOGO_CONTENT_ID = "scholarai-logo";
+
+    private static final String HOSTED_LOGO_URL = "https://fjomlww.stripocdn.email/content/guids/"
+            + "CABINET_01ab2388a18748421354f96f926ed34f512d33a8c71560b67b5bd3ce8dd0389a/images/image.png";
+
+    private final boolean inlineLogo;
+    private final String logoUrl;
+    private final byte[] encodedLogo;
+
+    public StaticMimeParts(
+            @Value("${app.mail.inline-logo:false}") boolean inlineLogo,
+            @Value("${app.mail.logo-url:" + HOSTED_LOGO_URL + "}") String logoUrl,
+            @Value("classpath:images/logo.png") Resource logo) {
+        this.inlineLogo = inlineLogo;
+        this.logoUrl = logoUrl;
+        this.encodedLogo = inlineLogo ? encode(logo) : new byte[0];
+        if (inlineLogo) {
+            log.info("Inline logo enabled, pre-encoded {} bytes as cid:{}", encodedLogo.length, LOGO_CONTENT_ID);
+        }
+    }
+
+    public boolean isInlineLogo() {
+        return inlineLogo;
+    }
+
+    /**
+     * Value for the {@code logoSrc} template variable: the CID reference in inline mode, the hosted URL otherwise.
+     */
+    public String logoSrc() {
+        return inlineLogo ? "cid:" + LOGO_CONTENT_ID : logoUrl;
+    }
+
+    /**
+     * Returns a new inline body part backed by the shared pre-encoded logo bytes.
+     * Parts are not shared between messages because Jakarta Mail mutates headers and parents while writing.
+     */
+    public MimeBodyPart logoPart() throws MessagingException {
+        PreencodedMimeBodyPart part = new PreencodedMimeBodyPart("base64");
+        part.setDataHandler(new DataHandler(new ByteArrayDataSource(encodedLogo, "image/png")));
+        part.setContentID("<" + LOGO_CONTENT_ID + ">");
+        part.setDisposition(Part.INLINE);
+        part.setFileName("logo.png");
+        return part;
+    }
+
+    private static byte[] encode(Resource logo) {
+        try (InputStream in = logo.getInputStream()) {
+            return Base64.getMimeEncoder().encode(in.readAllBytes());
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load inline logo from " + logo, e);
+        }
+    }
+}
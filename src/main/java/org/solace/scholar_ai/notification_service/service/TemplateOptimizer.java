@@ -0,0 +1,442 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Document;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.jsoup.select.Selector;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Preprocesses the email templates once at startup so every rendered message carries fewer bytes.
+ *
+ * <p>For each {@code templates/*.html}: rules from {@code <style>} blocks with plain type/class selectors are inlined
+ * into the matching elements' {@code style} attributes, rules (including inside media queries) that match nothing in
+ * the template are dropped, and CSS, inter-tag whitespace and ordinary comments are minified away. Client hooks that
+ * cannot be inlined (pseudo-classes, ids/attributes injected by mail clients, {@code mso-} rules, media queries) and
+ * Outlook conditional comments are kept. The optimized sources are served to Thymeleaf by
+ * {@code OptimizedTemplateResolver}; the per-template savings are logged and exported as gauges.
+ */
+@Component
+@Slf4j
+public class TemplateOptimizer {
+
+    private static final Pattern CSS_COMMENT = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PSEUDO_CLASS = Pattern.compile("::?[a-zA-Z-]+(\\([^)]*\\))?");
+    private static final Pattern SIMPLE_SELECTOR = Pattern.compile("[a-zA-Z0-9_\\-.\\s>*]+");
+    private static final Set<String> BLOCK_TAGS = Set.of(
+            "html", "head", "body", "title", "meta", "link", "style", "div", "table", "thead", "tbody", "tfoot", "tr",
+            "td", "th", "p", "h1", "h2", "h3", "h4", "h5", "h6", "ul", "ol", "li", "br", "hr", "center");
+    private static final Set<String> STRUCTURAL_TAGS =
+            Set.of("html", "head", "table", "thead", "tbody", "tfoot", "tr", "ul", "ol");
+
+    private final boolean enabled;
+    private final Map<String, String> optimizedSources = new LinkedHashMap<>();
+    private final Map<String, TemplateStats> stats = new TreeMap<>();
+
+    public TemplateOptimizer(
+            @Value("${app.mail.optimize-templates:true}") boolean enabled,
+            ResourcePatternResolver resourceResolver,
+            MeterRegistry meterRegistry) {
+        this.enabled = enabled;
+        if (enabled) {
+            optimizeAll(resourceResolver);
+            registerGauges(meterRegistry);
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Returns the optimized source for a template name such as {@code welcome-email}, if one was produced. */
+    public Optional<String> optimizedSource(String templateName) {
+        return Optional.ofNullable(optimizedSources.get(templateName));
+    }
+
+    public Map<String, TemplateStats> getStats() {
+        return stats;
+    }
+
+    private void optimizeAll(ResourcePatternResolver resourceResolver) {
+        Resource[] templates;
+        try {
+            templates = resourceResolver.getResources("classpath:templates/*.html");
+        } catch (IOException e) {
+            log.warn("Could not list email templates, sending them unoptimized: {}", e.getMessage());
+            return;
+        }
+        for (Resource template : templates) {
+            String filename = template.getFilename();
+            if (filename == null) {
+                continue;
+            }
+            String name = filename.substring(0, filename.length() - ".html".length());
+            try (InputStream in = template.getInputStream()) {
+                String original = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+                String optimized = optimize(original);
+                optimizedSources.put(name, optimized);
+                stats.put(
+                        name,
+                        new TemplateStats(
+                                original.getBytes(StandardCharsets.UTF_8).length,
+                                optimized.getBytes(StandardCharsets.UTF_8).length));
+            } catch (Exception e) {
+                log.warn("Failed to optimize template {}, it will be sent as authored: {}", name, e.getMessage());
+            }
+        }
+        stats.forEach((name, s) -> log.info(
+                "Template {}: {} -> {} bytes (saved {} bytes, {}%)",
+                name, s.originalBytes(), s.optimizedBytes(), s.savedBytes(), String.format("%.1f", s.savedPercent())));
+    }
+
+    private void registerGauges(MeterRegistry meterRegistry) {
+        stats.forEach((name, s) -> {
+            Gauge.builder("notification.template.bytes", s, TemplateStats::originalBytes)
+                    .tag("template", name)
+                    .tag("variant", "original")
+                    .register(meterRegistry);
+            Gauge.builder("notification.template.bytes", s, TemplateStats::optimizedBytes)
+                    .tag("template", name)
+                    .tag("variant", "optimized")
+                    .register(meterRegistry);
+        });
+    }
+
+    String optimize(String html) {
+        Document doc = Jsoup.parse(html);
+        doc.outputSettings().prettyPrint(false).charset(StandardCharsets.UTF_8);
+
+        for (Element style : doc.select("style")) {
+            String css = processStylesheet(doc, style.data());
+            if (css.isEmpty()) {
+                style.remove();
+            } else {
+                style.empty().appendChild(new DataNode(css));
+            }
+        }
+        minifyNodes(doc);
+        return doc.outerHtml();
+    }
+
+    /**
+     * Inlines what can be inlined, drops unused rules and returns the minified remainder of the stylesheet.
+     */
+    private String processStylesheet(Document doc, String css) {
+        List<CssBlock> blocks = parseCss(CSS_COMMENT.matcher(css).replaceAll(""));
+        List<InlineRule> inlineRules = new ArrayList<>();
+        StringBuilder kept = new StringBuilder();
+
+        for (CssBlock block : blocks) {
+            if (block.children() != null) {
+                StringBuilder media = new StringBuilder();
+                for (CssBlock child : block.children()) {
+                    appendKept(doc, media, child.prelude(), parseDeclarations(child.declarations()), false);
+                }
+                if (media.length() > 0) {
+                    kept.append(minifyPrelude(block.prelude()))
+                            .append('{')
+                            .append(media)
+                            .append('}');
+                }
+                continue;
+            }
+            if (block.prelude().startsWith("@")) {
+                kept.append(minifyPrelude(block.prelude()))
+                        .append('{')
+                        .append(WHITESPACE.matcher(block.declarations()).replaceAll(" "))
+                        .append('}');
+                continue;
+            }
+
+            Map<String, String> declarations = parseDeclarations(block.declarations());
+            if (declarations.isEmpty()) {
+                continue;
+            }
+            boolean outlookRule = declarations.keySet().stream().anyMatch(p -> p.startsWith("mso-"));
+            List<String> remaining = new ArrayList<>();
+            for (String selector : splitSelectors(block.prelude())) {
+                if (!outlookRule && SIMPLE_SELECTOR.matcher(selector).matches()) {
+                    List<Element> matches = select(doc, selector);
+                    if (matches != null && !matches.isEmpty()) {
+                        inlineRules.add(
+                                new InlineRule(specificity(selector), inlineRules.size(), matches, declarations));
+                    }
+                    // unused simple rules are dropped either way
+                } else {
+                    remaining.add(selector);
+                }
+            }
+            // Outlook styles its own injected markup (e.g. span.MsoHyperlink), so those rules are kept even if unused
+            appendKept(doc, kept, String.join(",", remaining), declarations, outlookRule);
+        }
+
+        applyInline(inlineRules);
+        return kept.toString();
+    }
+
+    private void appendKept(
+            Document doc, StringBuilder out, String selectors, Map<String, String> declarations, boolean keepUnused) {
+        if (declarations.isEmpty() || selectors.isBlank()) {
+            return;
+        }
+        List<String> used = new ArrayList<>();
+        for (String selector : splitSelectors(selectors)) {
+            String structural = PSEUDO_CLASS.matcher(selector).replaceAll("").trim();
+            boolean checkable = !keepUnused
+                    && !structural.isEmpty()
+                    && SIMPLE_SELECTOR.matcher(structural).matches();
+            if (checkable) {
+                List<Element> matches = select(doc, structural);
+                if (matches != null && matches.isEmpty()) {
+                    continue;
+                }
+            }
+            used.add(minifyPrelude(selector));
+        }
+        if (!used.isEmpty()) {
+            out.append(String.join(",", used))
+                    .append('{')
+                    .append(serialize(declarations))
+                    .append('}');
+        }
+    }
+
+    private void applyInline(List<InlineRule> rules) {
+        rules.sort(Comparator.comparingInt(InlineRule::specificity).thenComparingInt(InlineRule::order));
+        Map<Element, Map<String, String>> normal = new IdentityHashMap<>();
+        Map<Element, Map<String, String>> important = new IdentityHashMap<>();
+        for (InlineRule rule : rules) {
+            for (Element element : rule.elements()) {
+                rule.declarations().forEach((property, value) -> {
+                    boolean isImportant = value.endsWith("!important");
+                    (isImportant ? important : normal)
+                            .computeIfAbsent(element, e -> new LinkedHashMap<>())
+                            .put(property, value);
+                });
+            }
+        }
+        Set<Element> touched = Collections.newSetFromMap(new IdentityHashMap<>());
+        touched.addAll(normal.keySet());
+        touched.addAll(important.keySet());
+        for (Element element : touched) {
+            // Cascade: stylesheet < inline style < stylesheet !important
+            Map<String, String> merged = new LinkedHashMap<>(normal.getOrDefault(element, Map.of()));
+            merged.putAll(parseDeclarations(element.attr("style")));
+            merged.putAll(important.getOrDefault(element, Map.of()));
+            element.attr("style", serialize(merged));
+        }
+    }
+
+    private void minifyNodes(Node node) {
+        for (Node child : new ArrayList<>(node.childNodes())) {
+            if (child instanceof Comment comment) {
+                if (!isConditionalComment(comment)) {
+                    comment.remove();
+                }
+            } else if (child instanceof TextNode text) {
+                if (text.isBlank() && isRemovableWhitespace(text)) {
+                    text.remove();
+                } else {
+                    text.text(WHITESPACE.matcher(text.getWholeText()).replaceAll(" "));
+                }
+            } else if (child instanceof Element element) {
+                if (element.attributes().hasKey("style")) {
+                    element.attr("style", serialize(parseDeclarations(element.attr("style"))));
+                }
+                if (!"pre".equals(element.normalName()) && !"style".equals(element.normalName())) {
+                    minifyNodes(element);
+                }
+            }
+        }
+    }
+
+    private static boolean isConditionalComment(Comment comment) {
+        String data = comment.getData().trim();
+        return data.startsWith("[if") || data.contains("[endif]");
+    }
+
+    /**
+     * Whitespace-only text is insignificant inside table structure and next to block elements or the edges of a
+     * block; inside inline elements it may separate words, so it is only collapsed there.
+     */
+    private static boolean isRemovableWhitespace(TextNode text) {
+        if (!(text.parent() instanceof Element parent) || !BLOCK_TAGS.contains(parent.normalName())) {
+            return false;
+        }
+        Node previous = text.previousSibling();
+        Node next = text.nextSibling();
+        return STRUCTURAL_TAGS.contains(parent.normalName())
+                || previous == null
+                || next == null
+                || isBlock(previous)
+                || isBlock(next);
+    }
+
+    private static boolean isBlock(Node node) {
+        return node instanceof Element e && BLOCK_TAGS.contains(e.normalName());
+    }
+
+    private static List<Element> select(Document doc, String selector) {
+        try {
+            return doc.select(selector);
+        } catch (Selector.SelectorParseException e) {
+            return null;
+        }
+    }
+
+    private static int specificity(String selector) {
+        int ids = 0;
+        int classes = 0;
+        int elements = 0;
+        for (String compound : selector.trim().split("[\\s>]+")) {
+            for (char c : compound.toCharArray()) {
+                if (c == '#') {
+                    ids++;
+                } else if (c == '.') {
+                    classes++;
+                }
+            }
+            if (!compound.isEmpty() && Character.isLetter(compound.charAt(0))) {
+                elements++;
+            }
+        }
+        return ids * 10_000 + classes * 100 + elements;
+    }
+
+    private static List<CssBlock> parseCss(String css) {
+        List<CssBlock> blocks = new ArrayList<>();
+        int i = 0;
+        while (i < css.length()) {
+            int open = css.indexOf('{', i);
+            if (open < 0) {
+                break;
+            }
+            String prelude = css.substring(i, open).trim();
+            int depth = 1;
+            int j = open + 1;
+            while (j < css.length() && depth > 0) {
+                char c = css.charAt(j);
+                if (c == '{') {
+                    depth++;
+                } else if (c == '}') {
+                    depth--;
+                }
+                j++;
+            }
+            String body = css.substring(open + 1, Math.max(open + 1, j - 1));
+            if (prelude.startsWith("@media")) {
+                blocks.add(new CssBlock(prelude, null, parseCss(body)));
+            } else {
+                blocks.add(new CssBlock(prelude, body.trim(), null));
+            }
+            i = j;
+        }
+        return blocks;
+    }
+
+    /** Splits {@code a:b; c:d} into an ordered map, respecting parentheses and quotes in values. */
+    static Map<String, String> parseDeclarations(String declarations) {
+        Map<String, String> result = new LinkedHashMap<>();
+        if (declarations == null || declarations.isBlank()) {
+            return result;
+        }
+        int depth = 0;
+        char quote = 0;
+        int start = 0;
+        for (int i = 0; i <= declarations.length(); i++) {
+            char c = i < declarations.length() ? declarations.charAt(i) : ';';
+            if (quote != 0) {
+                if (c == quote) {
+                    quote = 0;
+                }
+            } else if (c == '\'' || c == '"') {
+                quote = c;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == ';' && depth == 0) {
+                String declaration = declarations.substring(start, Math.min(i, declarations.length()));
+                int colon = declaration.indexOf(':');
+                if (colon > 0) {
+                    String property = declaration.substring(0, colon).trim();
+                    String value = WHITESPACE
+                            .matcher(declaration.substring(colon + 1).trim())
+                            .replaceAll(" ")
+                            .replaceAll("\\s*!\\s*important$", "!important");
+                    if (!property.isEmpty() && !value.isEmpty()) {
+                        result.put(property, value);
+                    }
+                }
+                start = i + 1;
+            }
+        }
+        return result;
+    }
+
+    private static String serialize(Map<String, String> declarations) {
+        StringBuilder sb = new StringBuilder();
+        declarations.forEach((property, value) -> {
+            if (sb.length() > 0) {
+                sb.append(';');
+            }
+            sb.append(property).append(':').append(value);
+        });
+        return sb.toString();
+    }
+
+    private static List<String> splitSelectors(String prelude) {
+        List<String> selectors = new ArrayList<>();
+        for (String selector : prelude.split(",")) {
+            if (!selector.isBlank()) {
+                selectors.add(selector.trim());
+            }
+        }
+        return selectors;
+    }
+
+    private static String minifyPrelude(String prelude) {
+        return WHITESPACE.matcher(prelude.trim()).replaceAll(" ").replaceAll("\\s*([>+~,])\\s*", "$1");
+    }
+
+    private record CssBlock(String prelude, String declarations, List<CssBlock> children) {}
+
+    private record InlineRule(int specificity, int order, List<Element> elements, Map<String, String> declarations) {}
+
+    /** Size of a template before and after optimization, in UTF-8 bytes. */
+    public record TemplateStats(int originalBytes, int optimizedBytes) {
+
+        public int savedBytes() {
+            return originalBytes - optimizedBytes;
+        }
+
+        public double savedPercent() {
+            return originalBytes == 0 ? 0.0 : savedBytes() * 100.0 / originalBytes;
+        }
+    }
+}
@@ -0,0 +1,475 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.io.JsonStringEncoder;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.model.NotificationRecord;
+import org.solace.scholar_ai.notification_service.model.PayloadDictionary;
+import org.solace.scholar_ai.notification_service.repository.PayloadDictionaryRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Compressed storage for the {@code template_data} of {@code notifications} rows.
+ * Payloads are raw deflate streams in {@code template_data_z}, behind a 5-byte header: a format byte and the id
+ * of the {@link PayloadDictionary} used, if any. Payloads of one notification type repeat the same keys and
+ * many of the same values, but each is too small for deflate to find that on its own, so a preset dictionary
+ * trained per type from stored payloads supplies the shared parts. Dictionaries are immutable and kept forever,
+ * so every stored payload stays readable after retraining.
+ * Rows are inflated only when their payload is returned ({@link #expand}); the feed never reads the column.
+ */
+@Service
+@Slf4j
+public class TemplatePayloadCodec {
+
+    private static final byte FORMAT_DEFLATE = 1;
+    private static final byte FORMAT_DEFLATE_DICTIONARY = 2;
+    private static final int HEADER_BYTES = 5;
+    private static final int MAX_FRAGMENT_CHARS = 64;
+    private static final int MIN_TRAINING_SAMPLES = 10;
+
+    private static final String SAMPLE = "SELECT template_data, template_data_z FROM notifications "
+            + "WHERE type = ? AND (template_data IS NOT NULL OR template_data_z IS NOT NULL) "
+            + "ORDER BY created_at DESC LIMIT ?";
+
+    private static final String TOTALS = "SELECT type, COUNT(*) AS row_count, "
+            + "SUM(CASE WHEN template_data_z IS NOT NULL THEN 1 ELSE 0 END) AS compressed_rows, "
+            + "COALESCE(SUM(octet_length(template_data)), 0) AS text_bytes, "
+            + "COALESCE(SUM(octet_length(template_data_z)), 0) AS compressed_bytes "
+            + "FROM notifications GROUP BY type ORDER BY type";
+
+    private static final String BACKFILL_PAGE = "SELECT id, type, template_data FROM notifications "
+            + "WHERE template_data IS NOT NULL AND id > ? ORDER BY id LIMIT ?";
+
+    private static final String BACKFILL_UPDATE =
+            "UPDATE notifications SET template_data_z = ?, template_data = NULL WHERE id = ? AND template_data = ?";
+
+    private final PayloadDictionaryRepository dictionaryRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean enabled;
+    private final int maxDictionaryBytes;
+    private final int backfillBatchSize;
+
+    private final Map<Integer, byte[]> dictionaries = new ConcurrentHashMap<>();
+    private final Map<String, PayloadDictionary> latestByType = new ConcurrentHashMap<>();
+    private volatile boolean dictionariesLoaded;
+
+    private final AtomicBoolean backfillRunning = new AtomicBoolean();
+    private final AtomicLong backfillRows = new AtomicLong();
+    private final AtomicLong backfillBytesBefore = new AtomicLong();
+    private final AtomicLong backfillBytesAfter = new AtomicLong();
+    private volatile String backfillError;
+
+    public TemplatePayloadCodec(
+            PayloadDictionaryRepository dictionaryRepository,
+            JdbcTemplate jdbcTemplate,
+            @Value("${app.notifications.payload-compression.enabled:false}") boolean enabled,
+            @Value("${app.notifications.payload-compression.max-dictionary-bytes:32768}") int maxDictionaryBytes,
+            @Value("${app.notifications.payload-compression.backfill-batch-size:500}") int backfillBatchSize) {
+        this.dictionaryRepository = dictionaryRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.enabled = enabled;
+        // deflate cannot look back further than its 32 KB window
+        this.maxDictionaryBytes = Math.min(32768, maxDictionaryBytes);
+        this.backfillBatchSize = backfillBatchSize;
+    }
+
+    /** Whether new rows are written to {@code template_data_z} instead of {@code template_data}. */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /** Compresses {@code json} with the newest dictionary trained for {@code notificationType}, if any. */
+    public byte[] encode(String notificationType, String json) {
+        loadDictionaries(false);
+        PayloadDictionary dictionary = notificationType != null ? latestByType.get(notificationType) : null;
+        return dictionary != null
+                ? deflate(json, dictionary.getId(), dictionary.getDictionary())
+                : deflate(json, 0, null);
+    }
+
+    public String decode(byte[] stored) {
+        ByteBuffer header = ByteBuffer.wrap(stored, 0, HEADER_BYTES);
+        byte format = header.get();
+        int dictionaryId = header.getInt();
+        byte[] dictionary = null;
+        if (format == FORMAT_DEFLATE_DICTIONARY) {
+            dictionary = dictionaries.get(dictionaryId);
+            if (dictionary == null) {
+                // trained by another instance since we last looked
+                loadDictionaries(true);
+                dictionary = dictionaries.get(dictionaryId);
+            }
+            if (dictionary == null) {
+                throw new IllegalStateException("Unknown payload dictionary " + dictionaryId);
+            }
+        } else if (format != FORMAT_DEFLATE) {
+            throw new IllegalStateException("Unknown payload format " + format);
+        }
+        return inflate(stored, dictionary);
+    }
+
+    /** Inflates the compressed template data of {@code record}, so that its JSON carries the payload. */
+    public NotificationRecord expand(NotificationRecord record) {
+        if (record.getTemplateDataJson() == null && record.getTemplateDataCompressed() != null) {
+            record.setInflatedTemplateData(decode(record.getTemplateDataCompressed()));
+        }
+        return record;
+    }
+
+    public List<NotificationRecord> expand(List<NotificationRecord> records) {
+        records.forEach(this::expand);
+        return records;
+    }
+
+    /**
+     * Trains a dictionary from the newest {@code sampleSize} payloads of a type. Fragments that appear in many
+     * payloads ({@code "key":}, short values, and key-value pairs) are ranked by documents × length, the best
+     * are kept up to the size limit, and the most valuable go last, where deflate reaches them with the
+     * shortest distances.
+     */
+    public DictionarySummary train(String notificationType, int sampleSize) {
+        List<String> samples = sample(notificationType, sampleSize);
+        if (samples.size() < MIN_TRAINING_SAMPLES) {
+            throw new IllegalArgumentException("Need at least " + MIN_TRAINING_SAMPLES + " stored payloads of type "
+                    + notificationType + ", found " + samples.size());
+        }
+        byte[] dictionary = buildDictionary(samples);
+        if (dictionary.length == 0) {
+            throw new IllegalArgumentException("Payloads of type " + notificationType + " share no fragments");
+        }
+        PayloadDictionary saved = dictionaryRepository.save(PayloadDictionary.builder()
+                .notificationType(notificationType)
+                .dictionary(dictionary)
+                .sampleCount(samples.size())
+                .build());
+        dictionaries.put(saved.getId(), saved.getDictionary());
+        latestByType.put(notificationType, saved);
+        log.info(
+                "Trained {}-byte payload dictionary {} for {} from {} samples",
+                dictionary.length,
+                saved.getId(),
+                notificationType,
+                samples.size());
+        return new DictionarySummary(saved.getId(), notificationType, dictionary.length, samples.size());
+    }
+
+    /**
+     * Current storage per type, and what compressing the remaining text payloads would save, measured on up to
+     * {@code sampleSize} recent payloads per type. Without a trained dictionary the dictionary figure comes from
+     * a candidate trained on half of the sample and measured on the other half.
+     */
+    public StorageReport report(int sampleSize) {
+        loadDictionaries(false);
+        List<TypeReport> types = new ArrayList<>();
+        jdbcTemplate.query(TOTALS, rs -> {
+            types.add(new TypeReport(
+                    rs.getString("type"),
+                    rs.getLong("row_count"),
+                    rs.getLong("compressed_rows"),
+                    rs.getLong("text_bytes"),
+                    rs.getLong("compressed_bytes"),
+                    null,
+                    0,
+                    0,
+                    0,
+                    0,
+                    0));
+        });
+        List<TypeReport> measured = new ArrayList<>();
+        for (TypeReport totals : types) {
+            measured.add(measure(totals, sampleSize));
+        }
+        long textBytes = measured.stream().mapToLong(TypeReport::textBytes).sum();
+        long compressedBytes =
+                measured.stream().mapToLong(TypeReport::compressedBytes).sum();
+        long savings =
+                measured.stream().mapToLong(TypeReport::estimatedSavingsBytes).sum();
+        return new StorageReport(textBytes, compressedBytes, savings, backfillStatus(), measured);
+    }
+
+    /** Starts moving existing text payloads into the compressed column; false if a backfill is already running. */
+    public boolean startBackfill() {
+        if (!backfillRunning.compareAndSet(false, true)) {
+            return false;
+        }
+        backfillRows.set(0);
+        backfillBytesBefore.set(0);
+        backfillBytesAfter.set(0);
+        backfillError = null;
+        Thread worker = new Thread(this::backfill, "payload-backfill");
+        worker.setDaemon(true);
+        worker.start();
+        return true;
+    }
+
+    public BackfillStatus backfillStatus() {
+        return new BackfillStatus(
+                backfillRunning.get(),
+                backfillRows.get(),
+                backfillBytesBefore.get(),
+                backfillBytesAfter.get(),
+                backfillError);
+    }
+
+    /** Walks the table in id order, a batch per statement, so no long transaction or large result is held. */
+    private void backfill() {
+        try {
+            UUID last = new UUID(0, 0);
+            while (true) {
+                List<Object[]> updates = new ArrayList<>();
+                List<UUID> ids = new ArrayList<>();
+                jdbcTemplate.query(
+                        BACKFILL_PAGE,
+                        rs -> {
+                            UUID id = rs.getObject("id", UUID.class);
+                            String json = rs.getString("template_data");
+                            byte[] compressed = encode(rs.getString("type"), json);
+                            updates.add(new Object[] {compressed, id, json});
+                            ids.add(id);
+                            backfillBytesBefore.addAndGet(json.getBytes(StandardCharsets.UTF_8).length);
+                            backfillBytesAfter.addAndGet(compressed.length);
+                        },
+                        last,
+                        backfillBatchSize);
+                if (updates.isEmpty()) {
+                    break;
+                }
+                jdbcTemplate.batchUpdate(BACKFILL_UPDATE, updates);
+                backfillRows.addAndGet(updates.size());
+                last = ids.get(ids.size() - 1);
+            }
+            log.info(
+                    "Payload backfill compressed {} rows: {} -> {} bytes",
+                    backfillRows.get(),
+                    backfillBytesBefore.get(),
+                    backfillBytesAfter.get());
+        } catch (Exception e) {
+            backfillError = e.getMessage();
+            log.warn("Payload backfill stopped after {} rows: {}", backfillRows.get(), e.getMessage());
+        } finally {
+            backfillRunning.set(false);
+        }
+    }
+
+    private TypeReport measure(TypeReport totals, int sampleSize) {
+        List<String> samples = sample(totals.notificationType(), sampleSize);
+        PayloadDictionary current = latestByType.get(totals.notificationType());
+        byte[] dictionary;
+        List<String> measuredOn;
+        if (current != null) {
+            dictionary = current.getDictionary();
+            measuredOn = samples;
+        } else {
+            List<String> training = new ArrayList<>();
+            measuredOn = new ArrayList<>();
+            for (int i = 0; i < samples.size(); i++) {
+                (i % 2 == 0 ? training : measuredOn).add(samples.get(i));
+            }
+            dictionary = training.size() >= MIN_TRAINING_SAMPLES / 2 ? buildDictionary(training) : null;
+        }
+        long raw = 0;
+        long plain = 0;
+        long withDictionary = 0;
+        for (String json : measuredOn) {
+            raw += json.getBytes(StandardCharsets.UTF_8).length;
+            plain += deflate(json, 0, null).length;
+            withDictionary += dictionary != null && dictionary.length > 0 ? deflate(json, 0, dictionary).length : 0;
+        }
+        long best = withDictionary > 0 ? Math.min(plain, withDictionary) : plain;
+        long savings = raw > 0 ? Math.round(totals.textBytes() * (1 - (double) best / raw)) : 0;
+        return new TypeReport(
+                totals.notificationType(),
+                totals.rows(),
+                totals.compressedRows(),
+                totals.textBytes(),
+                totals.compressedBytes(),
+                current != null ? current.getId() : null,
+                measuredOn.size(),
+                raw,
+                plain,
+                withDictionary,
+                savings);
+    }
+
+    private List<String> sample(String notificationType, int sampleSize) {
+        List<String> samples = new ArrayList<>();
+        jdbcTemplate.query(
+                SAMPLE,
+                rs -> {
+                    String json = rs.getString("template_data");
+                    byte[] compressed = rs.getBytes("template_data_z");
+                    samples.add(json != null ? json : decode(compressed));
+                },
+                notificationType,
+                sampleSize);
+        return samples;
+    }
+
+    private byte[] buildDictionary(List<String> samples) {
+        Map<String, Integer> documentFrequency = new HashMap<>();
+        for (String json : samples) {
+            for (String fragment : fragments(json)) {
+                documentFrequency.merge(fragment, 1, Integer::sum);
+            }
+        }
+        int minDocuments = Math.max(2, samples.size() / 10);
+        List<Map.Entry<String, Integer>> ranked = new ArrayList<>();
+        for (Map.Entry<String, Integer> entry : documentFrequency.entrySet()) {
+            if (entry.getValue() >= minDocuments) {
+                ranked.add(entry);
+            }
+        }
+        ranked.sort(Comparator.comparingLong((Map.Entry<String, Integer> e) ->
+                        (long) e.getValue() * e.getKey().length())
+                .reversed());
+        List<byte[]> chosen = new ArrayList<>();
+        int total = 0;
+        for (Map.Entry<String, Integer> entry : ranked) {
+            byte[] bytes = entry.getKey().getBytes(StandardCharsets.UTF_8);
+            if (total + bytes.length > maxDictionaryBytes) {
+                continue;
+            }
+            chosen.add(bytes);
+            total += bytes.length;
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(total);
+        for (int i = chosen.size() - 1; i >= 0; i--) {
+            out.writeBytes(chosen.get(i));
+        }
+        return out.toByteArray();
+    }
+
+    /** Distinct {@code "key":}, short scalar values and {@code "key":value} pairs as they appear in compact JSON. */
+    private static Set<String> fragments(String json) {
+        Set<String> fragments = new HashSet<>();
+        JsonStringEncoder encoder = JsonStringEncoder.getInstance();
+        try (JsonParser parser = new JsonFactory().createParser(json)) {
+            String key = null;
+            JsonToken token;
+            while ((token = parser.nextToken()) != null) {
+                if (token == JsonToken.FIELD_NAME) {
+                    key = "\"" + new String(encoder.quoteAsString(parser.currentName())) + "\":";
+                    fragments.add(key);
+                    continue;
+                }
+                if (token.isScalarValue()) {
+                    String value = token == JsonToken.VALUE_STRING
+                            ? "\"" + new String(encoder.quoteAsString(parser.getText())) + "\""
+                            : parser.getText();
+                    if (value.length() <= MAX_FRAGMENT_CHARS) {
+                        fragments.add(value);
+                        if (key != null) {
+                            fragments.add(key + value);
+                        }
+                    }
+                }
+                key = null;
+            }
+        } catch (IOException e) {
+            // not JSON after all; it simply contributes nothing
+        }
+        return fragments;
+    }
+
+    private static byte[] deflate(String json, int dictionaryId, byte[] dictionary) {
+        Deflater deflater = new Deflater(Deflater.BEST_COMPRESSION, true);
+        try {
+            if (dictionary != null) {
+                deflater.setDictionary(dictionary);
+            }
+            deflater.setInput(json.getBytes(StandardCharsets.UTF_8));
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(json.length() / 2 + HEADER_BYTES + 16);
+            out.write(dictionary != null ? FORMAT_DEFLATE_DICTIONARY : FORMAT_DEFLATE);
+            out.writeBytes(ByteBuffer.allocate(4).putInt(dictionaryId).array());
+            byte[] buffer = new byte[1024];
+            while (!deflater.finished()) {
+                out.write(buffer, 0, deflater.deflate(buffer));
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(byte[] stored, byte[] dictionary) {
+        Inflater inflater = new Inflater(true);
+        try {
+            if (dictionary != null) {
+                inflater.setDictionary(dictionary);
+            }
+            inflater.setInput(stored, HEADER_BYTES, stored.length - HEADER_BYTES);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(stored.length * 4);
+            byte[] buffer = new byte[1024];
+            while (!inflater.finished()) {
+                int n = inflater.inflate(buffer);
+                if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new IllegalStateException("Truncated payload");
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toString(StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Corrupt payload", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private synchronized void loadDictionaries(boolean force) {
+        if (dictionariesLoaded && !force) {
+            return;
+        }
+        for (PayloadDictionary dictionary : dictionaryRepository.findAll()) {
+            dictionaries.put(dictionary.getId(), dictionary.getDictionary());
+            latestByType.merge(dictionary.getNotificationType(), dictionary, (a, b) -> a.getId() >= b.getId() ? a : b);
+        }
+        dictionariesLoaded = true;
+    }
+
+    public record DictionarySummary(int id, String notificationType, int bytes, int samples) {}
+
+    public record TypeReport(
+            String notificationType,
+            long rows,
+            long compressedRows,
+            long textBytes,
+            long compressedBytes,
+            Integer dictionaryId,
+            int sampled,
+            long sampledRawBytes,
+            long sampledDeflateBytes,
+            long sampledDictionaryBytes,
+            long estimatedSavingsBytes) {}
+
+    public record StorageReport(
+            long textBytes,
+            long compressedBytes,
+            long estimatedSavingsBytes,
+            BackfillStatus backfill,
+            List<TypeReport> types) {}
+
+    public record BackfillStatus(boolean running, long rows, long bytesBefore, long bytesAfter, String error) {}
+}
@@ -0,0 +1,160 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import jakarta.mail.internet.MimeMessage;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.stereotype.Component;
+
+/**
+ * Renders every {@code templates/*.html} with representative data and builds and serializes its
+ * {@link MimeMessage} through {@link EmailService#prepare}, {@code app.mail.warmup.iterations} times, without
+ * sending anything. It runs before the web server and the listener containers start, so template parsing,
+ * expression compilation, Jakarta Mail class loading and the first JIT passes are paid here rather than by the
+ * first message of each type, and the readiness probe only answers once every template has rendered. A template
+ * that fails to render fails startup instead of the first real message that needs it.
+ */
+@Component
+@Slf4j
+public class TemplateWarmup implements SmartLifecycle {
+
+    private static final Map<String, Object> SAMPLE_DATA = Map.ofEntries(
+            Map.entry("userName", "Ada Lovelace"),
+            Map.entry("userEmail", "ada@example.com"),
+            Map.entry("toName", "Ada Lovelace"),
+            Map.entry("toEmail", "ada@example.com"),
+            Map.entry("verificationCode", "482913"),
+            Map.entry("resetCode", "731904"),
+            Map.entry("supportEmail", "support@scholarai.com"),
+            Map.entry("appUrl", "https://scholarai.example.com"),
+            Map.entry("correlationId", "00000000-0000-0000-0000-000000000000"),
+            Map.entry("projectName", "Transformer Architectures Survey"),
+            Map.entry("paperTitle", "Attention Is All You Need"),
+            Map.entry("summaryConfidence", "92%"),
+            Map.entry("domain", "Computer Science"),
+            Map.entry("searchTerms", List.of("transformer", "self-attention", "sequence modelling")),
+            Map.entry("batchSize", 10),
+            Map.entry("papersCount", 42),
+            Map.entry("notesCount", 12),
+            Map.entry("summariesCount", 9),
+            Map.entry("gapAnalysesCount", 3),
+            Map.entry("readingListItemsCount", 15),
+            Map.entry("gapsCount", 5),
+            Map.entry("totalGaps", 7),
+            Map.entry("validGaps", 5),
+            Map.entry(
+                    "gapNames", List.of("Long-context evaluation", "Low-resource languages", "Energy cost reporting")));
+
+    private final EmailService emailService;
+    private final ResourcePatternResolver resourceResolver;
+    private final boolean enabled;
+    private final int iterations;
+    private final AtomicLong warmupMillis = new AtomicLong();
+    private volatile boolean running;
+
+    public TemplateWarmup(
+            EmailService emailService,
+            ResourcePatternResolver resourceResolver,
+            MeterRegistry meterRegistry,
+            @Value("${app.mail.warmup.enabled:true}") boolean enabled,
+            @Value("${app.mail.warmup.iterations:20}") int iterations) {
+        this.emailService = emailService;
+        this.resourceResolver = resourceResolver;
+        this.enabled = enabled;
+        this.iterations = Math.max(1, iterations);
+        TimeGauge.builder(
+                        "notification.template.warmup.time",
+                        warmupMillis,
+                        TimeUnit.MILLISECONDS,
+                        AtomicLong::doubleValue)
+                .description("Time spent rendering every email template before startup completed")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        if (enabled) {
+            warmUp();
+        }
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    /** Before the web server (DEFAULT_PHASE - 1024) and the listener containers (DEFAULT_PHASE). */
+    @Override
+    public int getPhase() {
+        return DEFAULT_PHASE - 2048;
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        List<String> failures = new ArrayList<>();
+        int templates = 0;
+        for (String template : templateNames()) {
+            templates++;
+            try {
+                long first = render(template);
+                long last = first;
+                for (int i = 1; i < iterations; i++) {
+                    last = render(template);
+                }
+                log.debug(
+                        "Warmed up template {}: first render {} ms, last {} ms",
+                        template,
+                        String.format("%.1f", first / 1e6),
+                        String.format("%.1f", last / 1e6));
+            } catch (Exception e) {
+                log.error("Email template {} failed to render during warm-up", template, e);
+                failures.add(template + " (" + e.getMessage() + ")");
+            }
+        }
+        if (!failures.isEmpty()) {
+            throw new IllegalStateException("Email templates failed to render: " + String.join(", ", failures));
+        }
+        warmupMillis.set(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        log.info("Warmed up {} email templates in {} ms ({} renders each)", templates, warmupMillis.get(), iterations);
+    }
+
+    private long render(String template) throws Exception {
+        long start = System.nanoTime();
+        MimeMessage message = emailService.prepare("warmup@example.com", "Warm-up", template, SAMPLE_DATA);
+        message.saveChanges();
+        message.writeTo(OutputStream.nullOutputStream());
+        return System.nanoTime() - start;
+    }
+
+    private List<String> templateNames() {
+        List<String> names = new ArrayList<>();
+        try {
+            for (Resource resource : resourceResolver.getResources("classpath:templates/*.html")) {
+                String filename = resource.getFilename();
+                if (filename != null) {
+                    names.add(filename.substring(0, filename.length() - ".html".length()));
+                }
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not list email templates", e);
+        }
+        return names;
+    }
+}
@@ -0,0 +1,342 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+/**
+ * Samples consumed {@link NotificationRequest}s with their arrival time into an append-only, gzipped NDJSON file
+ * ({@code app.capture.file}) for replaying real traffic in benchmarks. Capture is off unless
+ * {@code app.capture.enabled}; {@code sample-rate} of messages are kept, handed to a writer thread through a
+ * bounded buffer (full means dropped, never a slower consumer), and capture stops at {@code max-bytes}.
+ * Every entry is scrubbed before it is queued: user ids, emails and names become salted hashes, so one user
+ * still maps to one pseudonym within a capture, and every string in {@code templateData} is replaced by filler
+ * of the same length (digits by zeros), so keys, shapes and sizes survive but codes, names and links do not.
+ * Each restart appends a new gzip member, which {@link #read} reads as one stream.
+ * {@link #exportHistory} writes the same format from the {@code notifications} table.
+ */
+@Service
+@Slf4j
+public class TrafficCapture {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .setSerializationInclusion(JsonInclude.Include.NON_NULL)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private static final String HISTORY_PAGE = "SELECT id, type, user_id, recipient_email, recipient_name, "
+            + "template_data, template_data_z, created_at FROM notifications "
+            + "WHERE created_at >= ? AND created_at < ? AND (created_at > ? OR (created_at = ? AND id > ?)) "
+            + "ORDER BY created_at, id LIMIT ?";
+
+    private static final int HISTORY_PAGE_SIZE = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TemplatePayloadCodec payloadCodec;
+    private final boolean enabled;
+    private final Path file;
+    private final double sampleRate;
+    private final long maxBytes;
+    private final byte[] salt;
+
+    private final BlockingQueue<Entry> buffer;
+    private final AtomicLong captured = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private volatile boolean capturing;
+    private Thread writer;
+
+    public TrafficCapture(
+            JdbcTemplate jdbcTemplate,
+            TemplatePayloadCodec payloadCodec,
+            @Value("${app.capture.enabled:false}") boolean enabled,
+            @Value("${app.capture.file:./capture/traffic.ndjson.gz}") Path file,
+            @Value("${app.capture.sample-rate:1.0}") double sampleRate,
+            @Value("${app.capture.max-bytes:536870912}") long maxBytes,
+            @Value("${app.capture.capacity:10000}") int capacity,
+            @Value("${app.capture.salt:}") String salt) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.payloadCodec = payloadCodec;
+        this.enabled = enabled;
+        this.file = file;
+        this.sampleRate = sampleRate;
+        this.maxBytes = maxBytes;
+        this.buffer = new ArrayBlockingQueue<>(Math.max(1, capacity));
+        // without a configured salt pseudonyms are consistent within this process only
+        this.salt = (salt.isBlank() ? UUID.randomUUID().toString() : salt).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        capturing = true;
+        writer = new Thread(this::writeLoop, "traffic-capture");
+        writer.setDaemon(true);
+        writer.start();
+        log.info("Capturing {}% of consumed notifications to {}", sampleRate * 100, file.toAbsolutePath());
+    }
+
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        capturing = false;
+        if (writer != null) {
+            writer.interrupt();
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        }
+    }
+
+    /** Samples a message that was just received; scrubbing happens here, so nothing identifiable is buffered. */
+    public void record(NotificationRequest request) {
+        if (!capturing || ThreadLocalRandom.current().nextDouble() >= sampleRate) {
+            return;
+        }
+        Instant now = Instant.now();
+        Long delayMillis =
+                request.getDeliverAt() != null && request.getDeliverAt().isAfter(now)
+                        ? request.getDeliverAt().toEpochMilli() - now.toEpochMilli()
+                        : null;
+        if (!buffer.offer(new Entry(now.toEpochMilli(), delayMillis, scrub(request)))) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public Status status() {
+        long bytes = 0;
+        try {
+            bytes = Files.exists(file) ? Files.size(file) : 0;
+        } catch (IOException e) {
+            log.debug("Could not stat {}: {}", file, e.getMessage());
+        }
+        return new Status(enabled, capturing, file.toAbsolutePath().toString(), captured.get(), dropped.get(), bytes);
+    }
+
+    /**
+     * Writes the {@code notifications} rows created in {@code [from, to)}, at most {@code limit}, to a new file
+     * next to the capture file, in capture format and scrubbed the same way, with each row's creation time as
+     * its arrival time. Only messages that produced an email row are in there: suppressed, skipped and
+     * in-app-only messages are not.
+     */
+    public Export exportHistory(Instant from, Instant to, int limit) {
+        if (!from.isBefore(to)) {
+            throw new IllegalArgumentException("from must be before to");
+        }
+        Path target = file.resolveSibling("history-" + from.toEpochMilli() + "-" + to.toEpochMilli() + ".ndjson.gz");
+        long rows = 0;
+        try (Writer out = open(target, false)) {
+            Timestamp lastCreated = Timestamp.from(from);
+            UUID lastId = new UUID(0, 0);
+            while (rows < limit) {
+                List<Entry> page = new ArrayList<>();
+                Object[] last = new Object[2];
+                jdbcTemplate.query(
+                        HISTORY_PAGE,
+                        rs -> {
+                            Timestamp created = rs.getTimestamp("created_at");
+                            last[0] = created;
+                            last[1] = rs.getObject("id", UUID.class);
+                            byte[] compressed = rs.getBytes("template_data_z");
+                            String json = compressed != null
+                                    ? payloadCodec.decode(compressed)
+                                    : rs.getString("template_data");
+                            NotificationRequest request = NotificationRequest.builder()
+                                    .notificationType(rs.getString("type"))
+                                    .userId(rs.getObject("user_id", UUID.class))
+                                    .recipientEmail(rs.getString("recipient_email"))
+                                    .recipientName(rs.getString("recipient_name"))
+                                    .templateData(parse(json))
+                                    .build();
+                            page.add(new Entry(created.getTime(), null, scrub(request)));
+                        },
+                        Timestamp.from(from),
+                        Timestamp.from(to),
+                        lastCreated,
+                        lastCreated,
+                        lastId,
+                        (int) Math.min(HISTORY_PAGE_SIZE, limit - rows));
+                if (page.isEmpty()) {
+                    break;
+                }
+                for (Entry entry : page) {
+                    out.write(MAPPER.writeValueAsString(entry));
+                    out.write('\n');
+                }
+                rows += page.size();
+                lastCreated = (Timestamp) last[0];
+                lastId = (UUID) last[1];
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to export notification history to " + target, e);
+        }
+        log.info("Exported {} notifications from {} to {} into {}", rows, from, to, target.toAbsolutePath());
+        return new Export(target.toAbsolutePath().toString(), rows);
+    }
+
+    /** Every entry of a capture or history export, in file order. */
+    public static List<Entry> read(Path path) throws IOException {
+        List<Entry> entries = new ArrayList<>();
+        try (BufferedReader in = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(path), 65536), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    entries.add(MAPPER.readValue(line, Entry.class));
+                }
+            }
+        }
+        return entries;
+    }
+
+    private void writeLoop() {
+        try (Writer out = open(file, true)) {
+            while (capturing || !buffer.isEmpty()) {
+                Entry entry;
+                try {
+                    entry = buffer.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    capturing = false;
+                    continue;
+                }
+                if (entry != null) {
+                    out.write(MAPPER.writeValueAsString(entry));
+                    out.write('\n');
+                    captured.incrementAndGet();
+                }
+                if (entry == null || buffer.isEmpty()) {
+                    out.flush();
+                    if (Files.size(file) >= maxBytes) {
+                        log.warn("Traffic capture {} reached {} bytes, stopping capture", file, maxBytes);
+                        capturing = false;
+                    }
+                }
+            }
+        } catch (IOException e) {
+            capturing = false;
+            log.error("Traffic capture to {} failed, stopping capture", file, e);
+        }
+    }
+
+    private static Writer open(Path path, boolean append) throws IOException {
+        if (path.toAbsolutePath().getParent() != null) {
+            Files.createDirectories(path.toAbsolutePath().getParent());
+        }
+        return new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(
+                        append
+                                ? Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND)
+                                : Files.newOutputStream(path),
+                        65536,
+                        true),
+                StandardCharsets.UTF_8));
+    }
+
+    NotificationRequest scrub(NotificationRequest request) {
+        return NotificationRequest.builder()
+                .notificationType(request.getNotificationType())
+                .priority(request.getPriority())
+                .userId(request.getUserId() != null ? pseudonymousId(request.getUserId()) : null)
+                .recipientEmail(
+                        request.getRecipientEmail() != null
+                                ? "u" + hash(request.getRecipientEmail().toLowerCase()) + "@capture.invalid"
+                                : null)
+                .recipientName(request.getRecipientName() != null ? "User " + hash(request.getRecipientName()) : null)
+                .templateData(request.getTemplateData() != null ? scrubMap(request.getTemplateData()) : null)
+                .build();
+    }
+
+    private static Map<String, Object> scrubMap(Map<String, Object> data) {
+        Map<String, Object> scrubbed = new LinkedHashMap<>();
+        data.forEach((key, value) -> scrubbed.put(key, scrubValue(value)));
+        return scrubbed;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Object scrubValue(Object value) {
+        if (value instanceof String text) {
+            return text.matches("-?\\d+(\\.\\d+)?") ? text.replaceAll("\\d", "0") : "x".repeat(text.length());
+        }
+        if (value instanceof Map<?, ?> map) {
+            return scrubMap((Map<String, Object>) map);
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(TrafficCapture::scrubValue).toList();
+        }
+        // numbers and booleans are counts and flags
+        return value;
+    }
+
+    private UUID pseudonymousId(UUID userId) {
+        return UUID.nameUUIDFromBytes(digest(userId.toString()));
+    }
+
+    private String hash(String value) {
+        return HexFormat.of().formatHex(digest(value), 0, 6);
+    }
+
+    private byte[] digest(String value) {
+        try {
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            sha.update(salt);
+            return sha.digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> parse(String json) {
+        if (json == null || json.isBlank()) {
+            return null;
+        }
+        try {
+            return MAPPER.readValue(json, Map.class);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    /**
+     * One captured message: arrival time (epoch ms), how far in the future its {@code deliverAt} was, if it was,
+     * and the scrubbed request without timestamps.
+     */
+    public record Entry(long at, Long delayMillis, NotificationRequest request) {}
+
+    public record Status(
+            boolean enabled, boolean capturing, String file, long captured, long dropped, long fileBytes) {}
+
+    public record Export(String file, long rows) {}
+}
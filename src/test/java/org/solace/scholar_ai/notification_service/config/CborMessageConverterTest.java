@@ -0,0 +1,42 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+class CborMessageConverterTest {
+
+    private final CborMessageConverter converter = new CborMessageConverter();
+
+    @Test
+    void trustedPackageIsTheDtoPackage() {
+        assertThat(CborMessageConverter.TRUSTED_PACKAGE).isEqualTo(NotificationRequest.class.getPackageName());
+    }
+
+    @Test
+    void decodesDtosByTypeId() {
+        NotificationRequest request = NotificationRequest.builder()
+                .notificationType("WELCOME_EMAIL")
+                .recipientEmail("ada@example.com")
+                .userId(UUID.randomUUID())
+                .build();
+
+        Message message = converter.toMessage(request, new MessageProperties());
+
+        assertThat(converter.fromMessage(message)).isEqualTo(request);
+    }
+
+    @Test
+    void refusesTypeIdsOutsideTheDtoPackage() {
+        Message message = converter.toMessage(new java.awt.Point(1, 2), new MessageProperties());
+
+        assertThatThrownBy(() -> converter.fromMessage(message))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("not in the trusted packages");
+    }
+}
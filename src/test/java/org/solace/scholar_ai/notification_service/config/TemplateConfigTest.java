@@ -0,0 +1,73 @@
+package org.solace.scholar_ai.notification_service.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.service.TemplateOptimizer;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.thymeleaf.context.Context;
+import org.thymeleaf.spring6.SpringTemplateEngine;
+import org.thymeleaf.templateresolver.ClassLoaderTemplateResolver;
+import org.thymeleaf.templateresolver.ITemplateResolver;
+
+class TemplateConfigTest {
+
+    private final TemplateOptimizer optimizer =
+            new TemplateOptimizer(true, new PathMatchingResourcePatternResolver(), new SimpleMeterRegistry());
+    private final ITemplateResolver resolver = new TemplateConfig().optimizedTemplateResolver(optimizer);
+
+    @Test
+    void optimizedTemplatesRenderTheSameTextAsTheAuthoredOnes() {
+        Context context = new Context();
+        context.setVariable("userName", "Ada");
+        context.setVariable("paperTitle", "On Computable Numbers");
+        context.setVariable("gapsCount", 3);
+        context.setVariable("totalGaps", 4);
+        context.setVariable("validGaps", 3);
+        context.setVariable("gapNames", List.of("Dataset bias", "No ablation", "Small sample"));
+        context.setVariable("appUrl", "https://app.example.com/projects/1");
+        context.setVariable("logoSrc", "cid:logo");
+
+        String optimizedHtml = engine(resolver).process("gap-analysis-completed", context);
+        String authoredHtml = engine(classpathResolver()).process("gap-analysis-completed", context);
+        Document optimized = Jsoup.parse(optimizedHtml);
+        Document authored = Jsoup.parse(authoredHtml);
+
+        assertThat(optimized.body().text()).isEqualTo(authored.body().text());
+        assertThat(optimized.body().text()).contains("On Computable Numbers", "Dataset bias", "Small sample");
+        assertThat(optimized.select("a[href=https://app.example.com/projects/1]"))
+                .isNotEmpty();
+        assertThat(optimized.select("img[src=cid:logo]")).isNotEmpty();
+        assertThat(optimized.select("[th:text], [th:each], [th:href], [th:src]"))
+                .isEmpty();
+        assertThat(optimized.select("style").html()).contains("@media");
+        assertThat(optimizedHtml.length()).isLessThan(authoredHtml.length());
+    }
+
+    @Test
+    void templatesTheOptimizerDidNotProduceFallThrough() {
+        SpringTemplateEngine engine = engine(resolver);
+
+        assertThat(resolver.resolveTemplate(engine.getConfiguration(), null, "welcome-email", null))
+                .isNotNull();
+        assertThat(resolver.resolveTemplate(engine.getConfiguration(), null, "no-such-template", null))
+                .isNull();
+    }
+
+    private static SpringTemplateEngine engine(ITemplateResolver resolver) {
+        SpringTemplateEngine engine = new SpringTemplateEngine();
+        engine.setTemplateResolver(resolver);
+        return engine;
+    }
+
+    private static ITemplateResolver classpathResolver() {
+        ClassLoaderTemplateResolver resolver = new ClassLoaderTemplateResolver();
+        resolver.setPrefix("templates/");
+        resolver.setSuffix(".html");
+        return resolver;
+    }
+}
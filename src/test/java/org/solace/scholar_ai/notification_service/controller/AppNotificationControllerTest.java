@@ -0,0 +1,125 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.service.AppNotificationSearchService;
+import org.solace.scholar_ai.notification_service.service.AppNotificationService;
+import org.solace.scholar_ai.notification_service.service.FeedVersionService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+class AppNotificationControllerTest {
+
+    private final AppNotificationService service = mock(AppNotificationService.class);
+    private final FeedVersionService feedVersions = mock(FeedVersionService.class);
+    private final AppNotificationController controller = new AppNotificationController(
+            service, feedVersions, mock(AppNotificationSearchService.class), new ObjectMapper());
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(controller, "maxBatchSize", 10);
+        when(service.draft(any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(call -> {
+                    if (call.getArgument(11) != null) {
+                        throw new IllegalArgumentException("metadata is not serializable");
+                    }
+                    return AppNotification.builder().userId(call.getArgument(0)).build();
+                });
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void itemsThatDoNotBindAreRejectedAtTheirIndex() throws Exception {
+        UUID user = UUID.randomUUID();
+        controller.createBatch(body("[{\"userId\":\"" + user + "\",\"type\":\"SERVICE\"},"
+                + "{\"userId\":\"" + user + "\",\"type\":\"NOPE\"},"
+                + "null,"
+                + "{\"userId\":\"" + user + "\",\"type\":\"SERVICE\",\"metadata\":{\"a\":1}},"
+                + "{\"userId\":\"not-a-uuid\"},"
+                + "42]"));
+
+        ArgumentCaptor<List<AppNotification>> drafts = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<Map<Integer, List<String>>> rejected = ArgumentCaptor.forClass(Map.class);
+        verify(service).createBatch(drafts.capture(), rejected.capture());
+
+        assertThat(drafts.getValue()).hasSize(6);
+        assertThat(drafts.getValue().get(0).getUserId()).isEqualTo(user);
+        assertThat(rejected.getValue()).containsOnlyKeys(1, 2, 3, 4, 5);
+        assertThat(rejected.getValue().get(1)).singleElement().asString().startsWith("type: ");
+        assertThat(rejected.getValue().get(3)).containsExactly("metadata is not serializable");
+        assertThat(rejected.getValue().get(4)).singleElement().asString().startsWith("userId: ");
+    }
+
+    @Test
+    void syntaxErrorsStillFailTheWholeBatch() {
+        assertThatThrownBy(() -> controller.createBatch(body("[{\"userId\": }]")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> controller.createBatch(body("[{\"type\":\"SERVICE\"}")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThatThrownBy(() -> controller.createBatch(body("{\"type\":\"SERVICE\"}")))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+
+    @Test
+    void missingNotificationIsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(service.get(id)).thenThrow(new IllegalArgumentException("Notification not found"));
+
+        assertThatThrownBy(() -> controller.get(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+    }
+
+    @Test
+    void listAndFeedHaveTheirOwnEtags() {
+        UUID user = UUID.randomUUID();
+        when(feedVersions.current(user)).thenReturn(new FeedVersionService.Version(3, 1_000));
+
+        MockHttpServletResponse list = new MockHttpServletResponse();
+        assertThat(controller.listByUser(user, new ServletWebRequest(new MockHttpServletRequest("GET", "/"), list)))
+                .isNotNull();
+        assertThat(list.getHeader(HttpHeaders.ETAG)).isEqualTo("\"3-list\"");
+
+        MockHttpServletRequest feedRequest = new MockHttpServletRequest("GET", "/");
+        feedRequest.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-list\"");
+        MockHttpServletResponse feed = new MockHttpServletResponse();
+        assertThat(controller.feedByUser(user, new ServletWebRequest(feedRequest, feed)))
+                .isNotNull();
+        assertThat(feed.getHeader(HttpHeaders.ETAG)).isEqualTo("\"3-feed\"");
+
+        MockHttpServletRequest revalidate = new MockHttpServletRequest("GET", "/");
+        revalidate.addHeader(HttpHeaders.IF_NONE_MATCH, "\"3-feed\"");
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertThat(controller.feedByUser(user, new ServletWebRequest(revalidate, notModified)))
+                .isNull();
+        assertThat(notModified.getStatus()).isEqualTo(HttpStatus.NOT_MODIFIED.value());
+    }
+
+    private static InputStream body(String json) {
+        return new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8));
+    }
+}
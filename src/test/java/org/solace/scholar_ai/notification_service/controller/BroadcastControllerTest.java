@@ -0,0 +1,41 @@
+package org.solace.scholar_ai.notification_service.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.service.BroadcastService;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class BroadcastControllerTest {
+
+    private final BroadcastService service = mock(BroadcastService.class);
+    private final BroadcastController controller = new BroadcastController(service);
+
+    @Test
+    void invalidBroadcastIsBadRequest() {
+        when(service.submit(any(), any(), any(), any(), any(), any(), any(), any(), any()))
+                .thenThrow(new IllegalArgumentException("Broadcast title is required"));
+
+        assertThatThrownBy(() -> controller.create(new BroadcastController.CreateRequest()))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST);
+                    assertThat(e.getReason()).isEqualTo("Broadcast title is required");
+                });
+    }
+
+    @Test
+    void missingBroadcastIsNotFound() {
+        UUID id = UUID.randomUUID();
+        when(service.get(id)).thenThrow(new IllegalArgumentException("Broadcast not found"));
+
+        assertThatThrownBy(() -> controller.get(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode())
+                        .isEqualTo(HttpStatus.NOT_FOUND));
+    }
+}
@@ -0,0 +1,213 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.UUID;
+import java.util.function.Supplier;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.dto.AppNotificationSearchResult;
+import org.solace.scholar_ai.notification_service.model.AppNotification;
+import org.solace.scholar_ai.notification_service.service.AppNotificationSearchService;
+import org.solace.scholar_ai.notification_service.service.AppNotificationService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Search latency at realistic per-user history sizes. Seeds background users, then one user per size in
+ * {@code searchbench.histories} with notifications shaped like the ones the consumer writes, and times
+ * {@code searchbench.queries} searches per size (first page of 20) against each user.
+ *
+ * <p>Runs on the load test's H2 database by default, which exercises the substring fallback only. To measure
+ * the tsvector/GIN path, point it at a scratch PostgreSQL database with {@code searchbench.jdbcUrl},
+ * {@code searchbench.username} and {@code searchbench.password}; the tables are created and dropped.
+ * Run with {@code ./mvnw -Ploadtest test -Dtest=AppNotificationSearchBenchmark}. Other tunables:
+ * {@code searchbench.backgroundRows} (default 50000) spread over {@code searchbench.backgroundUsers} (500).
+ */
+@Slf4j
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class AppNotificationSearchBenchmark {
+
+    private static final String[] QUERIES = {
+        "summary ready",
+        "gap analysis",
+        "\"search complete\"",
+        "transformer",
+        "graph neural",
+        "password",
+        "deleted -archive",
+        "reinforcement learning",
+        "federated or privacy",
+        "quantum"
+    };
+
+    private static final String[] TOPICS = {
+        "transformer",
+        "graph neural network",
+        "reinforcement learning",
+        "federated learning",
+        "diffusion model",
+        "protein folding",
+        "climate modelling",
+        "differential privacy",
+        "quantum error correction",
+        "retrieval augmented generation",
+        "causal inference",
+        "speech recognition",
+        "few-shot learning",
+        "knowledge graph",
+        "contrastive learning",
+        "robotics",
+        "medical imaging",
+        "recommender systems"
+    };
+
+    @Autowired
+    private AppNotificationService appNotificationService;
+
+    @Autowired
+    private AppNotificationSearchService searchService;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        String url = System.getProperty("searchbench.jdbcUrl");
+        if (url != null) {
+            registry.add("spring.datasource.url", () -> url);
+            registry.add("spring.datasource.driver-class-name", () -> "org.postgresql.Driver");
+            registry.add("spring.datasource.username", () -> System.getProperty("searchbench.username", "postgres"));
+            registry.add("spring.datasource.password", () -> System.getProperty("searchbench.password", ""));
+        }
+    }
+
+    @Test
+    void searchLatencyByHistorySize() {
+        int[] histories = Arrays.stream(
+                        setting("searchbench.histories", "100,1000,10000").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+        int queries = Integer.parseInt(setting("searchbench.queries", "200"));
+        int backgroundRows = Integer.parseInt(setting("searchbench.backgroundRows", "50000"));
+        int backgroundUsers = Integer.parseInt(setting("searchbench.backgroundUsers", "500"));
+        Random random = new Random(42);
+
+        List<UUID> others = new ArrayList<>();
+        for (int i = 0; i < backgroundUsers; i++) {
+            others.add(UUID.randomUUID());
+        }
+        seed(random, backgroundRows, () -> others.get(random.nextInt(others.size())));
+
+        Map<Integer, Map<String, Double>> results = new LinkedHashMap<>();
+        for (int history : histories) {
+            UUID user = UUID.randomUUID();
+            seed(random, history, () -> user);
+            for (String query : QUERIES) {
+                searchService.search(user, query, 0, 20);
+            }
+            long[] latencies = new long[queries];
+            int matched = 0;
+            for (int i = 0; i < queries; i++) {
+                String query = QUERIES[i % QUERIES.length];
+                long start = System.nanoTime();
+                AppNotificationSearchResult result = searchService.search(user, query, 0, 20);
+                latencies[i] = System.nanoTime() - start;
+                matched += result.getItems().isEmpty() ? 0 : 1;
+            }
+            assertTrue(matched > 0, "No search matched anything for a history of " + history);
+            results.put(history, LoadTestReport.percentiles(latencies, queries));
+        }
+
+        StringBuilder table = new StringBuilder("Search latency (ms) by history size, first page of 20:");
+        results.forEach((history, percentiles) -> table.append(String.format(
+                "%n  %7d rows  p50=%.2f p90=%.2f p99=%.2f max=%.2f",
+                history,
+                percentiles.get("p50"),
+                percentiles.get("p90"),
+                percentiles.get("p99"),
+                percentiles.get("max"))));
+        log.info(table.toString());
+    }
+
+    private void seed(Random random, int rows, Supplier<UUID> users) {
+        List<AppNotification> batch = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            batch.add(draft(random, users.get()));
+            if (batch.size() == 1000 || i == rows - 1) {
+                appNotificationService.createBatch(batch);
+                batch = new ArrayList<>();
+            }
+        }
+    }
+
+    /** Titles, categories and messages in the shapes NotificationConsumerService produces. */
+    private AppNotification draft(Random random, UUID userId) {
+        String topic = TOPICS[random.nextInt(TOPICS.length)];
+        String paper = "A study of " + topic + " at scale " + random.nextInt(1000);
+        String[] parts =
+                switch (random.nextInt(7)) {
+                    case 0 -> new String[] {
+                        "web_search_completed",
+                        "🔍 Research Search Complete • " + topic + " (" + random.nextInt(60) + " papers)",
+                        "Your search for \"" + topic + "\" finished with new papers ready to review."
+                    };
+                    case 1 -> new String[] {
+                        "summarization_completed",
+                        "📄 AI Summary Ready • " + paper,
+                        "AI-powered summary generated for \"" + paper + "\". Key findings and methods are ready."
+                    };
+                    case 2 -> new String[] {
+                        "gap_analysis_completed",
+                        "🎯 Gap Analysis Complete • " + topic,
+                        "We identified " + random.nextInt(12) + " research gaps in " + topic + " literature."
+                    };
+                    case 3 -> new String[] {
+                        "project_deleted",
+                        "🗑️ Project Deleted • " + topic + " review",
+                        "The project and its papers were deleted. Export an archive before deleting next time."
+                    };
+                    case 4 -> new String[] {
+                        "password_reset",
+                        "🔐 Password Reset Request",
+                        "A password reset request was received for your account."
+                    };
+                    case 5 -> new String[] {
+                        "email_verification",
+                        "✉️ Email Verification Required",
+                        "Please verify your email address to complete your account setup."
+                    };
+                    default -> new String[] {
+                        "system",
+                        "Scheduled maintenance",
+                        "ScholarAI will be briefly unavailable for maintenance tonight."
+                    };
+                };
+        return appNotificationService.draft(
+                userId,
+                AppNotification.NotificationKind.SERVICE,
+                parts[0],
+                parts[1],
+                parts[2],
+                AppNotification.NotificationPriority.values()[random.nextInt(4)],
+                "/interface/projects",
+                "View",
+                null,
+                null,
+                null,
+                null);
+    }
+
+    private static String setting(String name, String defaultValue) {
+        return System.getProperty(name, defaultValue);
+    }
+}
@@ -0,0 +1,162 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Minimal in-process SMTP sink for offline load testing.
+ * Speaks just enough ESMTP (EHLO, AUTH, MAIL, RCPT, DATA, RSET, NOOP, QUIT) for Jakarta Mail,
+ * accepts every message and only keeps counters. An optional per-message delay simulates a slow relay, and an
+ * optional per-connection delay the TLS handshake and login a real relay costs before the first message.
+ */
+@Slf4j
+public class FakeSmtpServer implements AutoCloseable {
+
+    private final ServerSocket serverSocket;
+    private final ExecutorService sessions = Executors.newCachedThreadPool(r -> {
+        Thread t = new Thread(r, "fake-smtp");
+        t.setDaemon(true);
+        return t;
+    });
+    private final long dataDelayMillis;
+    private final long connectDelayMillis;
+
+    private final AtomicLong messagesReceived = new AtomicLong();
+    private final AtomicLong bytesReceived = new AtomicLong();
+    private final AtomicLong connectionsAccepted = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public FakeSmtpServer(int port, long dataDelayMillis) throws IOException {
+        this(port, dataDelayMillis, 0);
+    }
+
+    public FakeSmtpServer(int port, long dataDelayMillis, long connectDelayMillis) throws IOException {
+        this.serverSocket = new ServerSocket(port, 128, InetAddress.getLoopbackAddress());
+        this.dataDelayMillis = dataDelayMillis;
+        this.connectDelayMillis = connectDelayMillis;
+        Thread acceptor = new Thread(this::acceptLoop, "fake-smtp-acceptor");
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    public int getPort() {
+        return serverSocket.getLocalPort();
+    }
+
+    public long getMessagesReceived() {
+        return messagesReceived.get();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.get();
+    }
+
+    public long getConnectionsAccepted() {
+        return connectionsAccepted.get();
+    }
+
+    private void acceptLoop() {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                connectionsAccepted.incrementAndGet();
+                sessions.submit(() -> handle(socket));
+            } catch (IOException e) {
+                if (running) {
+                    log.warn("Fake SMTP accept failed: {}", e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void handle(Socket socket) {
+        try (socket;
+                BufferedReader in = new BufferedReader(
+                        new InputStreamReader(socket.getInputStream(), StandardCharsets.ISO_8859_1));
+                BufferedWriter out = new BufferedWriter(
+                        new OutputStreamWriter(socket.getOutputStream(), StandardCharsets.ISO_8859_1))) {
+            pause(connectDelayMillis);
+            reply(out, "220 fake-smtp ESMTP ready");
+            String line;
+            while ((line = in.readLine()) != null) {
+                String command = line.length() >= 4 ? line.substring(0, 4).toUpperCase() : line.toUpperCase();
+                switch (command) {
+                    case "EHLO" -> reply(out, "250-fake-smtp\r\n250-AUTH PLAIN LOGIN\r\n250 8BITMIME");
+                    case "HELO" -> reply(out, "250 fake-smtp");
+                    case "AUTH" -> authenticate(line, in, out);
+                    case "MAIL", "RCPT", "RSET", "NOOP" -> reply(out, "250 OK");
+                    case "DATA" -> receiveData(in, out);
+                    case "QUIT" -> {
+                        reply(out, "221 Bye");
+                        return;
+                    }
+                    default -> reply(out, "502 Command not implemented");
+                }
+            }
+        } catch (IOException e) {
+            log.debug("Fake SMTP session closed: {}", e.getMessage());
+        }
+    }
+
+    private void authenticate(String line, BufferedReader in, BufferedWriter out) throws IOException {
+        String[] parts = line.split(" ");
+        if (parts.length >= 2 && "LOGIN".equalsIgnoreCase(parts[1])) {
+            reply(out, "334 VXNlcm5hbWU6");
+            in.readLine();
+            reply(out, "334 UGFzc3dvcmQ6");
+            in.readLine();
+        } else if (parts.length == 2) {
+            reply(out, "334 ");
+            in.readLine();
+        }
+        reply(out, "235 Authentication successful");
+    }
+
+    private void receiveData(BufferedReader in, BufferedWriter out) throws IOException {
+        reply(out, "354 End data with <CR><LF>.<CR><LF>");
+        long bytes = 0;
+        String line;
+        while ((line = in.readLine()) != null && !".".equals(line)) {
+            bytes += line.length() + 2;
+        }
+        pause(dataDelayMillis);
+        messagesReceived.incrementAndGet();
+        bytesReceived.addAndGet(bytes);
+        reply(out, "250 OK queued");
+    }
+
+    private static void pause(long millis) {
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void reply(BufferedWriter out, String response) throws IOException {
+        out.write(response);
+        out.write("\r\n");
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        running = false;
+        serverSocket.close();
+        sessions.shutdownNow();
+    }
+}
@@ -0,0 +1,108 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Machine-readable result of one load test run, written as JSON so runs can be diffed or compared in scripts.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class LoadTestReport {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper()
+            .findAndRegisterModules()
+            .enable(SerializationFeature.INDENT_OUTPUT)
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    private String label;
+    private Instant startedAt;
+    private Map<String, Object> settings;
+
+    private long messagesPublished;
+    private long messagesCompleted;
+    private double elapsedSeconds;
+    private double targetRate;
+    private double messagesPerSecond;
+
+    /** End-to-end latency (scheduled publish to listener return) in milliseconds, keyed p50/p90/p99/p999/max. */
+    private Map<String, Double> latencyMillis;
+
+    /** {@code platform} or {@code virtual}, following {@code spring.threads.virtual.enabled}. */
+    private String threadModel;
+
+    private long peakHeapBytes;
+    private int peakPlatformThreads;
+
+    private long smtpMessages;
+    private long smtpBytes;
+    private long brokerBytes;
+
+    /** Row count and storage growth per table over the measured run. */
+    private Map<String, Map<String, Long>> dbGrowth;
+
+    public static Map<String, Double> percentiles(long[] latenciesNanos, int count) {
+        long[] sorted = Arrays.copyOf(latenciesNanos, count);
+        Arrays.sort(sorted);
+        Map<String, Double> result = new LinkedHashMap<>();
+        result.put("p50", percentile(sorted, 0.50));
+        result.put("p90", percentile(sorted, 0.90));
+        result.put("p99", percentile(sorted, 0.99));
+        result.put("p999", percentile(sorted, 0.999));
+        result.put("max", sorted.length == 0 ? 0.0 : sorted[sorted.length - 1] / 1_000_000.0);
+        return result;
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(quantile * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    public void write(Path path) throws IOException {
+        if (path.getParent() != null) {
+            Files.createDirectories(path.getParent());
+        }
+        MAPPER.writeValue(path.toFile(), this);
+    }
+
+    public static LoadTestReport read(Path path) throws IOException {
+        return MAPPER.readValue(path.toFile(), LoadTestReport.class);
+    }
+
+    public String summary() {
+        return String.format(
+                "[%s/%s] %d msgs in %.1fs -> %.1f msg/s (target %.1f) | latency ms p50=%.1f p90=%.1f p99=%.1f max=%.1f"
+                        + " | heap peak=%d MB, platform threads peak=%d | smtp=%d msgs/%d bytes | db=%s",
+                label,
+                threadModel,
+                messagesCompleted,
+                elapsedSeconds,
+                messagesPerSecond,
+                targetRate,
+                latencyMillis.get("p50"),
+                latencyMillis.get("p90"),
+                latencyMillis.get("p99"),
+                latencyMillis.get("max"),
+                peakHeapBytes / (1024 * 1024),
+                peakPlatformThreads,
+                smtpMessages,
+                smtpBytes,
+                dbGrowth);
+    }
+}
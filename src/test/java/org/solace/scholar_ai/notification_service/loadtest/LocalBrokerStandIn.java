@@ -0,0 +1,113 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import lombok.extern.slf4j.Slf4j;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * In-process stand-in for the RabbitMQ queue.
+ * Messages go through the service's own {@link MessageConverter} on both sides, so serialization and
+ * deserialization costs match the real listener path, and are delivered by a fixed set of consumer threads
+ * the same way a listener container with that concurrency would.
+ */
+@Slf4j
+public class LocalBrokerStandIn implements AutoCloseable {
+
+    public static final String PUBLISHED_AT_HEADER = "x-loadtest-published-at";
+
+    private final BlockingQueue<Message> queue = new LinkedBlockingQueue<>();
+    private final MessageConverter converter;
+    private final String contentType;
+    private final List<Thread> consumers = new ArrayList<>();
+    private final AtomicLong publishedBytes = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public LocalBrokerStandIn(MessageConverter converter) {
+        this(converter, MessageProperties.CONTENT_TYPE_JSON);
+    }
+
+    /** Publishes with {@code contentType}, e.g. {@code application/cbor}, as a producer would. */
+    public LocalBrokerStandIn(MessageConverter converter, String contentType) {
+        this.converter = converter;
+        this.contentType = contentType;
+    }
+
+    /**
+     * Publishes a request, stamping it with the nanoTime it was scheduled for.
+     * Latency is measured from the scheduled time so that a stalled publisher does not hide queueing delay.
+     */
+    public void publish(NotificationRequest request, long scheduledAtNanos) {
+        MessageProperties properties = new MessageProperties();
+        properties.setHeader(PUBLISHED_AT_HEADER, scheduledAtNanos);
+        properties.setContentType(contentType);
+        Message message = converter.toMessage(request, properties);
+        publishedBytes.addAndGet(message.getBody().length);
+        queue.add(message);
+    }
+
+    /**
+     * Starts {@code concurrency} consumer threads (virtual or platform, mirroring the listener container's mode)
+     * that decode each message and hand it to {@code listener}.
+     * {@code onComplete} receives the end-to-end latency in nanoseconds once the listener returns.
+     */
+    public void start(
+            int concurrency,
+            boolean virtualThreads,
+            Consumer<NotificationRequest> listener,
+            Consumer<Long> onComplete) {
+        Thread.Builder builder = virtualThreads
+                ? Thread.ofVirtual().name("loadtest-consumer-", 0)
+                : Thread.ofPlatform().daemon().name("loadtest-consumer-", 0);
+        for (int i = 0; i < concurrency; i++) {
+            consumers.add(builder.start(() -> consume(listener, onComplete)));
+        }
+    }
+
+    private void consume(Consumer<NotificationRequest> listener, Consumer<Long> onComplete) {
+        while (running) {
+            Message message;
+            try {
+                message = queue.poll(100, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            if (message == null) {
+                continue;
+            }
+            long scheduledAt = message.getMessageProperties().getHeader(PUBLISHED_AT_HEADER);
+            // Same hint the @RabbitListener adapter gives the converter from the method signature
+            message.getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+            try {
+                listener.accept((NotificationRequest) converter.fromMessage(message));
+            } catch (Exception e) {
+                log.warn("Listener threw during load test: {}", e.getMessage());
+            }
+            onComplete.accept(System.nanoTime() - scheduledAt);
+        }
+    }
+
+    public int depth() {
+        return queue.size();
+    }
+
+    public long getPublishedBytes() {
+        return publishedBytes.get();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        consumers.forEach(Thread::interrupt);
+    }
+}
@@ -0,0 +1,258 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.service.NotificationConsumerService;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * End-to-end load test: real consumer, template rendering, Jakarta Mail and JPA, with RabbitMQ, SMTP and
+ * PostgreSQL replaced by in-process stand-ins so it runs offline on a single machine.
+ *
+ * <p>Excluded from the default build; run with {@code ./mvnw -Ploadtest test} or {@code scripts/local.sh loadtest}.
+ * Tunables are system properties:
+ * <ul>
+ *   <li>{@code loadtest.rate} - target publish rate in msg/s (default 50)</li>
+ *   <li>{@code loadtest.messages} - measured messages (default 2000), preceded by {@code loadtest.warmup} (default 200)</li>
+ *   <li>{@code loadtest.concurrency} - consumer threads (default 4)</li>
+ *   <li>{@code loadtest.mix} - weighted types, e.g. {@code WELCOME_EMAIL:1,WEB_SEARCH_COMPLETED:5}</li>
+ *   <li>{@code loadtest.users} - distinct synthetic users (default 500)</li>
+ *   <li>{@code loadtest.smtpDelayMs} - artificial relay delay per message (default 0)</li>
+ *   <li>{@code loadtest.smtpConnectDelayMs} - artificial handshake delay per SMTP connection (default 0)</li>
+ *   <li>{@code loadtest.contentType} - wire format of published messages, {@code application/json} (default) or
+ *       {@code application/cbor}</li>
+ *   <li>{@code spring.threads.virtual.enabled} - run consumers on virtual threads, as the listener container
+ *       does in virtual-thread mode; the JDBC connection limiter is active as well</li>
+ *   <li>{@code loadtest.report} - JSON report path (default {@code target/loadtest/report.json})</li>
+ *   <li>{@code loadtest.baseline} - previous report; the run fails if throughput drops more than
+ *       {@code loadtest.maxRegressionPct} (default 10)</li>
+ * </ul>
+ */
+@Slf4j
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class NotificationLoadTest {
+
+    private static final FakeSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private NotificationConsumerService consumerService;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void sustainedMixedLoad() throws Exception {
+        double rate = Double.parseDouble(setting("loadtest.rate", "50"));
+        int messages = Integer.parseInt(setting("loadtest.messages", "2000"));
+        int warmup = Integer.parseInt(setting("loadtest.warmup", "200"));
+        int concurrency = Integer.parseInt(setting("loadtest.concurrency", "4"));
+        int users = Integer.parseInt(setting("loadtest.users", "500"));
+        NotificationMix mix = NotificationMix.parse(setting("loadtest.mix", NotificationMix.DEFAULT_SPEC), users);
+
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+
+        try (LocalBrokerStandIn broker = new LocalBrokerStandIn(
+                        messageConverter, setting("loadtest.contentType", MessageProperties.CONTENT_TYPE_JSON));
+                ResourceSampler sampler = new ResourceSampler()) {
+            long[] latencies = new long[messages];
+            AtomicInteger completed = new AtomicInteger();
+            AtomicInteger measuring = new AtomicInteger(-warmup);
+
+            broker.start(concurrency, virtualThreads, consumerService::handleNotification, latency -> {
+                int slot = measuring.getAndIncrement();
+                if (slot >= 0 && slot < messages) {
+                    latencies[slot] = latency;
+                    completed.incrementAndGet();
+                }
+            });
+
+            publish(broker, mix, warmup, rate);
+            awaitDrained(broker, measuring, 0);
+
+            Map<String, Long> rowsBefore = rowCounts();
+            Map<String, Long> bytesBefore = diskUsage();
+            long smtpMessagesBefore = SMTP.getMessagesReceived();
+            long smtpBytesBefore = SMTP.getBytesReceived();
+            long brokerBytesBefore = broker.getPublishedBytes();
+            sampler.reset();
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+
+            publish(broker, mix, messages, rate);
+            awaitDrained(broker, measuring, messages);
+
+            double elapsedSeconds = (System.nanoTime() - start) / 1_000_000_000.0;
+            LoadTestReport report = LoadTestReport.builder()
+                    .label(setting("loadtest.label", "local"))
+                    .startedAt(startedAt)
+                    .settings(settings(rate, messages, warmup, concurrency, users, mix))
+                    .messagesPublished(messages)
+                    .messagesCompleted(completed.get())
+                    .elapsedSeconds(elapsedSeconds)
+                    .targetRate(rate)
+                    .messagesPerSecond(completed.get() / elapsedSeconds)
+                    .latencyMillis(LoadTestReport.percentiles(latencies, completed.get()))
+                    .threadModel(virtualThreads ? "virtual" : "platform")
+                    .peakHeapBytes(sampler.getPeakHeapBytes())
+                    .peakPlatformThreads(sampler.getPeakPlatformThreads())
+                    .smtpMessages(SMTP.getMessagesReceived() - smtpMessagesBefore)
+                    .smtpBytes(SMTP.getBytesReceived() - smtpBytesBefore)
+                    .brokerBytes(broker.getPublishedBytes() - brokerBytesBefore)
+                    .dbGrowth(growth(rowsBefore, rowCounts(), bytesBefore, diskUsage()))
+                    .build();
+
+            Path reportPath = Path.of(setting("loadtest.report", "target/loadtest/report.json"));
+            report.write(reportPath);
+            log.info("Load test report written to {}", reportPath.toAbsolutePath());
+            log.info(report.summary());
+
+            assertTrue(completed.get() == messages, "Not every published message completed");
+            compareWithBaseline(report);
+        }
+    }
+
+    /** Open-loop publisher: message i is scheduled at start + i/rate regardless of how the consumers keep up. */
+    private void publish(LocalBrokerStandIn broker, NotificationMix mix, int count, double rate) {
+        long intervalNanos = (long) (1_000_000_000L / rate);
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            long scheduledAt = start + i * intervalNanos;
+            long wait = scheduledAt - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            broker.publish(mix.next(), scheduledAt);
+        }
+    }
+
+    private void awaitDrained(LocalBrokerStandIn broker, AtomicInteger measuring, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(10);
+        while ((broker.depth() > 0 || measuring.get() < expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private Map<String, Long> rowCounts() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (String table : List.of("notifications", "app_notifications")) {
+            counts.put(table, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Long.class));
+        }
+        return counts;
+    }
+
+    private Map<String, Long> diskUsage() {
+        Map<String, Long> bytes = new LinkedHashMap<>();
+        for (String table : List.of("notifications", "app_notifications")) {
+            bytes.put(table, jdbcTemplate.queryForObject("SELECT DISK_SPACE_USED('" + table + "')", Long.class));
+        }
+        return bytes;
+    }
+
+    private Map<String, Map<String, Long>> growth(
+            Map<String, Long> rowsBefore,
+            Map<String, Long> rowsAfter,
+            Map<String, Long> bytesBefore,
+            Map<String, Long> bytesAfter) {
+        Map<String, Map<String, Long>> growth = new LinkedHashMap<>();
+        rowsAfter.forEach((table, rows) -> {
+            Map<String, Long> entry = new LinkedHashMap<>();
+            entry.put("rows", rows - rowsBefore.get(table));
+            entry.put("bytes", bytesAfter.get(table) - bytesBefore.get(table));
+            growth.put(table, entry);
+        });
+        return growth;
+    }
+
+    private Map<String, Object> settings(
+            double rate, int messages, int warmup, int concurrency, int users, NotificationMix mix) {
+        Map<String, Object> settings = new LinkedHashMap<>();
+        settings.put("rate", rate);
+        settings.put("messages", messages);
+        settings.put("warmup", warmup);
+        settings.put("concurrency", concurrency);
+        settings.put("users", users);
+        settings.put("mix", mix.getWeights());
+        settings.put("smtpDelayMs", Long.getLong("loadtest.smtpDelayMs", 0));
+        settings.put("smtpConnectDelayMs", Long.getLong("loadtest.smtpConnectDelayMs", 0));
+        settings.put("contentType", setting("loadtest.contentType", MessageProperties.CONTENT_TYPE_JSON));
+        settings.put("poolSize", environment.getProperty("spring.datasource.hikari.maximum-pool-size"));
+        return settings;
+    }
+
+    private void compareWithBaseline(LoadTestReport report) throws IOException {
+        String baseline = System.getProperty("loadtest.baseline");
+        if (baseline == null || baseline.isBlank() || !Files.exists(Path.of(baseline))) {
+            return;
+        }
+        LoadTestReport previous = LoadTestReport.read(Path.of(baseline));
+        double maxRegression = Double.parseDouble(setting("loadtest.maxRegressionPct", "10"));
+        double change = (report.getMessagesPerSecond() - previous.getMessagesPerSecond())
+                / previous.getMessagesPerSecond()
+                * 100.0;
+        log.info(
+                "Throughput vs baseline [{}]: {} -> {} msg/s ({}%), p99 {} -> {} ms",
+                previous.getLabel(),
+                String.format("%.1f", previous.getMessagesPerSecond()),
+                String.format("%.1f", report.getMessagesPerSecond()),
+                String.format("%+.1f", change),
+                previous.getLatencyMillis().get("p99"),
+                report.getLatencyMillis().get("p99"));
+        assertTrue(change >= -maxRegression, "Throughput regressed by more than " + maxRegression + "%");
+    }
+
+    private static String setting(String key, String defaultValue) {
+        String value = System.getProperty(key);
+        return value == null || value.isBlank() ? defaultValue : value;
+    }
+
+    private static FakeSmtpServer startSmtp() {
+        try {
+            return new FakeSmtpServer(
+                    0, Long.getLong("loadtest.smtpDelayMs", 0), Long.getLong("loadtest.smtpConnectDelayMs", 0));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake SMTP server", e);
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest.NotificationType;
+
+/**
+ * Weighted mix of notification types with representative synthetic template data.
+ * Parsed from a spec such as {@code WELCOME_EMAIL:1,WEB_SEARCH_COMPLETED:5}.
+ */
+public class NotificationMix {
+
+    public static final String DEFAULT_SPEC = "WELCOME_EMAIL:1,PASSWORD_RESET:1,EMAIL_VERIFICATION:1,"
+            + "WEB_SEARCH_COMPLETED:3,SUMMARIZATION_COMPLETED:3,PROJECT_DELETED:1,GAP_ANALYSIS_COMPLETED:2";
+
+    private final Map<NotificationType, Integer> weights;
+    private final List<NotificationType> wheel = new ArrayList<>();
+    private final List<UUID> users = new ArrayList<>();
+
+    private NotificationMix(Map<NotificationType, Integer> weights, int userCount) {
+        this.weights = weights;
+        weights.forEach((type, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                wheel.add(type);
+            }
+        });
+        for (int i = 0; i < userCount; i++) {
+            users.add(UUID.randomUUID());
+        }
+    }
+
+    public static NotificationMix parse(String spec, int userCount) {
+        Map<NotificationType, Integer> weights = new LinkedHashMap<>();
+        for (String entry : spec.split(",")) {
+            String[] parts = entry.trim().split(":");
+            int weight = parts.length > 1 ? Integer.parseInt(parts[1].trim()) : 1;
+            if (weight > 0) {
+                weights.put(NotificationType.valueOf(parts[0].trim()), weight);
+            }
+        }
+        if (weights.isEmpty()) {
+            throw new IllegalArgumentException("Notification mix is empty: " + spec);
+        }
+        return new NotificationMix(weights, Math.max(1, userCount));
+    }
+
+    public Map<NotificationType, Integer> getWeights() {
+        return weights;
+    }
+
+    public NotificationRequest next() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        NotificationType type = wheel.get(random.nextInt(wheel.size()));
+        UUID userId = users.get(random.nextInt(users.size()));
+        String name = "Load Test User " + userId.toString().substring(0, 8);
+        return NotificationRequest.builder()
+                .notificationType(type.name())
+                .recipientEmail("user-" + userId + "@loadtest.local")
+                .recipientName(name)
+                .timestamp(Instant.now())
+                .userId(userId)
+                .templateData(templateData(type, name, random))
+                .build();
+    }
+
+    static Map<String, Object> templateData(NotificationType type, String name, ThreadLocalRandom random) {
+        Map<String, Object> data = new HashMap<>();
+        data.put("userName", name);
+        data.put("appUrl", "http://localhost:3000");
+        switch (type) {
+            case WELCOME_EMAIL -> {
+                data.put("welcomeMessage", "Welcome to ScholarAI!");
+                data.put("supportEmail", "support@scholarai.com");
+            }
+            case PASSWORD_RESET -> data.put("resetCode", String.format("%06d", random.nextInt(1_000_000)));
+            case EMAIL_VERIFICATION -> data.put("verificationCode", String.format("%06d", random.nextInt(1_000_000)));
+            case WEB_SEARCH_COMPLETED -> {
+                data.put("projectId", UUID.randomUUID().toString());
+                data.put("projectName", "Project " + random.nextInt(1000));
+                data.put("papersCount", random.nextInt(5, 200));
+                data.put("searchTerms", List.of("transformers", "retrieval augmented generation", "graph neural"));
+                data.put("domain", "Computer Science");
+                data.put("batchSize", 20);
+                data.put("correlationId", UUID.randomUUID().toString());
+            }
+            case SUMMARIZATION_COMPLETED -> {
+                data.put("projectId", UUID.randomUUID().toString());
+                data.put("paperId", UUID.randomUUID().toString());
+                data.put("paperTitle", "A Study of Attention Mechanisms in Long-Context Language Models");
+                data.put("summaryConfidence", "high");
+            }
+            case PROJECT_DELETED -> {
+                data.put("projectName", "Project " + random.nextInt(1000));
+                data.put("papersCount", random.nextInt(0, 100));
+                data.put("notesCount", random.nextInt(0, 30));
+                data.put("summariesCount", random.nextInt(0, 50));
+                data.put("gapAnalysesCount", random.nextInt(0, 10));
+                data.put("readingListItemsCount", random.nextInt(0, 40));
+            }
+            case GAP_ANALYSIS_COMPLETED -> {
+                data.put("projectId", UUID.randomUUID().toString());
+                data.put("paperId", UUID.randomUUID().toString());
+                data.put("paperTitle", "Benchmarking Retrieval for Scientific Question Answering");
+                data.put("totalGaps", 8);
+                data.put("validGaps", 5);
+                data.put("gapNames", List.of("Dataset coverage", "Evaluation metrics", "Cross-domain transfer"));
+            }
+            default -> {}
+        }
+        return data;
+    }
+}
@@ -0,0 +1,190 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.solace.scholar_ai.notification_service.service.NotificationConsumerService;
+import org.solace.scholar_ai.notification_service.service.TrafficCapture;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+/**
+ * Replays a traffic capture (or a history export) from {@link TrafficCapture} through the real consumer, with
+ * RabbitMQ, SMTP and PostgreSQL replaced by the same stand-ins as {@link NotificationLoadTest}, keeping the
+ * captured spacing between messages, and reports throughput and latency percentiles.
+ *
+ * <p>Skipped unless {@code replay.file} points at a capture; run with
+ * {@code ./mvnw -Ploadtest test -Dtest=NotificationReplayTest -Dreplay.file=capture/traffic.ndjson.gz}.
+ * Other tunables:
+ * <ul>
+ *   <li>{@code replay.speed} - time compression, e.g. 10 replays an hour in six minutes (default 1); 0 publishes
+ *       everything at once</li>
+ *   <li>{@code replay.limit} - replay only the first N entries</li>
+ *   <li>{@code replay.warmup} - leading entries replayed but left out of the measurement (default 100)</li>
+ *   <li>{@code replay.concurrency} - consumer threads (default 4)</li>
+ *   <li>{@code loadtest.smtpDelayMs}, {@code loadtest.smtpConnectDelayMs}, {@code loadtest.contentType} and
+ *       {@code spring.threads.virtual.enabled} as for the load test</li>
+ *   <li>{@code replay.report} - JSON report path (default {@code target/loadtest/replay.json})</li>
+ * </ul>
+ */
+@Slf4j
+@Tag("loadtest")
+@ActiveProfiles("loadtest")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+class NotificationReplayTest {
+
+    private static final FakeSmtpServer SMTP = startSmtp();
+
+    @Autowired
+    private NotificationConsumerService consumerService;
+
+    @Autowired
+    private MessageConverter messageConverter;
+
+    @Autowired
+    private Environment environment;
+
+    @DynamicPropertySource
+    static void smtpProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.mail.host", () -> "localhost");
+        registry.add("spring.mail.port", SMTP::getPort);
+    }
+
+    @AfterAll
+    static void stopSmtp() throws IOException {
+        SMTP.close();
+    }
+
+    @Test
+    void replayCapture() throws Exception {
+        String file = System.getProperty("replay.file");
+        assumeTrue(file != null && Files.exists(Path.of(file)), "replay.file is not set or does not exist");
+        double speed = Double.parseDouble(System.getProperty("replay.speed", "1"));
+        int concurrency = Integer.getInteger("replay.concurrency", 4);
+        List<TrafficCapture.Entry> entries = TrafficCapture.read(Path.of(file));
+        int limit = Integer.getInteger("replay.limit", entries.size());
+        entries = entries.subList(0, Math.min(limit, entries.size()));
+        int warmup = Math.min(Integer.getInteger("replay.warmup", 100), entries.size() / 2);
+        int messages = entries.size() - warmup;
+        assumeTrue(messages > 0, "Capture " + file + " is empty");
+        double captureSeconds =
+                (entries.get(entries.size() - 1).at() - entries.get(0).at()) / 1000.0;
+
+        boolean virtualThreads = environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false);
+        try (LocalBrokerStandIn broker = new LocalBrokerStandIn(
+                        messageConverter,
+                        System.getProperty("loadtest.contentType", MessageProperties.CONTENT_TYPE_JSON));
+                ResourceSampler sampler = new ResourceSampler()) {
+            long[] latencies = new long[messages];
+            AtomicInteger completed = new AtomicInteger();
+            AtomicInteger measuring = new AtomicInteger(-warmup);
+            broker.start(concurrency, virtualThreads, consumerService::handleNotification, latency -> {
+                int slot = measuring.getAndIncrement();
+                if (slot >= 0 && slot < messages) {
+                    latencies[slot] = latency;
+                    completed.incrementAndGet();
+                }
+            });
+
+            long smtpMessagesBefore = SMTP.getMessagesReceived();
+            long smtpBytesBefore = SMTP.getBytesReceived();
+            Instant startedAt = Instant.now();
+            long start = System.nanoTime();
+            long measuredFrom = start;
+            long firstAt = entries.get(0).at();
+            for (int i = 0; i < entries.size(); i++) {
+                TrafficCapture.Entry entry = entries.get(i);
+                long scheduledAt =
+                        speed > 0 ? start + (long) ((entry.at() - firstAt) * 1_000_000 / speed) : System.nanoTime();
+                long wait = scheduledAt - System.nanoTime();
+                if (wait > 0) {
+                    LockSupport.parkNanos(wait);
+                }
+                if (i == warmup) {
+                    measuredFrom = scheduledAt;
+                }
+                broker.publish(request(entry), scheduledAt);
+            }
+            awaitDrained(broker, measuring, messages);
+            double elapsedSeconds = (System.nanoTime() - measuredFrom) / 1_000_000_000.0;
+
+            Map<String, Object> settings = new LinkedHashMap<>();
+            settings.put("file", file);
+            settings.put("speed", speed);
+            settings.put("entries", entries.size());
+            settings.put("warmup", warmup);
+            settings.put("concurrency", concurrency);
+            settings.put("captureSeconds", captureSeconds);
+            settings.put("smtpDelayMs", Long.getLong("loadtest.smtpDelayMs", 0));
+            LoadTestReport report = LoadTestReport.builder()
+                    .label(System.getProperty("loadtest.label", "replay"))
+                    .startedAt(startedAt)
+                    .settings(settings)
+                    .messagesPublished(messages)
+                    .messagesCompleted(completed.get())
+                    .elapsedSeconds(elapsedSeconds)
+                    .targetRate(speed > 0 && captureSeconds > 0 ? entries.size() * speed / captureSeconds : 0)
+                    .messagesPerSecond(completed.get() / elapsedSeconds)
+                    .latencyMillis(LoadTestReport.percentiles(latencies, completed.get()))
+                    .threadModel(virtualThreads ? "virtual" : "platform")
+                    .peakHeapBytes(sampler.getPeakHeapBytes())
+                    .peakPlatformThreads(sampler.getPeakPlatformThreads())
+                    .smtpMessages(SMTP.getMessagesReceived() - smtpMessagesBefore)
+                    .smtpBytes(SMTP.getBytesReceived() - smtpBytesBefore)
+                    .build();
+
+            Path reportPath = Path.of(System.getProperty("replay.report", "target/loadtest/replay.json"));
+            report.write(reportPath);
+            log.info("Replay report written to {}", reportPath.toAbsolutePath());
+            log.info(report.summary());
+            assertEquals(messages, completed.get(), "Not every replayed message completed");
+        }
+    }
+
+    /** The captured request as its producer would send it now; deferred messages keep their captured delay. */
+    private static NotificationRequest request(TrafficCapture.Entry entry) {
+        NotificationRequest request = entry.request();
+        Instant now = Instant.now();
+        request.setTimestamp(now);
+        request.setDeliverAt(entry.delayMillis() != null ? now.plusMillis(entry.delayMillis()) : null);
+        return request;
+    }
+
+    private static void awaitDrained(LocalBrokerStandIn broker, AtomicInteger measuring, int expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(30);
+        while ((broker.depth() > 0 || measuring.get() < expected) && System.nanoTime() < deadline) {
+            Thread.sleep(20);
+        }
+    }
+
+    private static FakeSmtpServer startSmtp() {
+        try {
+            return new FakeSmtpServer(
+                    0, Long.getLong("loadtest.smtpDelayMs", 0), Long.getLong("loadtest.smtpConnectDelayMs", 0));
+        } catch (IOException e) {
+            throw new IllegalStateException("Could not start fake SMTP server", e);
+        }
+    }
+}
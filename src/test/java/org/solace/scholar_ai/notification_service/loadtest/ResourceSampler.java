@@ -0,0 +1,54 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Samples heap usage every 50 ms and tracks the peak platform thread count during a load test run.
+ */
+public class ResourceSampler implements AutoCloseable {
+
+    private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+    private final AtomicLong peakHeapBytes = new AtomicLong();
+    private final Thread sampler;
+
+    private volatile boolean running = true;
+
+    public ResourceSampler() {
+        sampler = Thread.ofPlatform().daemon().name("loadtest-sampler").start(this::sample);
+    }
+
+    private void sample() {
+        while (running) {
+            peakHeapBytes.accumulateAndGet(memory.getHeapMemoryUsage().getUsed(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                return;
+            }
+        }
+    }
+
+    /** Starts a new measurement window, e.g. after warm-up. */
+    public void reset() {
+        peakHeapBytes.set(memory.getHeapMemoryUsage().getUsed());
+        threads.resetPeakThreadCount();
+    }
+
+    public long getPeakHeapBytes() {
+        return peakHeapBytes.get();
+    }
+
+    public int getPeakPlatformThreads() {
+        return threads.getPeakThreadCount();
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        sampler.interrupt();
+    }
+}
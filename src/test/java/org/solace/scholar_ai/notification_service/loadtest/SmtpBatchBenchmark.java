@@ -0,0 +1,100 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.MessagingException;
+import jakarta.mail.internet.MimeMessage;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.AppNotification.NotificationPriority;
+import org.solace.scholar_ai.notification_service.service.EmailSendScheduler;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+
+/**
+ * SMTP throughput of the send scheduler with and without multi-message batching, against {@link FakeSmtpServer}.
+ * {@code smtpbench.callers} threads (default 32, standing in for listener threads) send
+ * {@code smtpbench.messages} (default 2000) ready-made messages through {@code smtpbench.concurrency} send
+ * threads (default 4), once per size in {@code smtpbench.batchSizes} (default 1,10). The relay charges
+ * {@code smtpbench.connectDelayMs} (default 20) per connection, standing in for TLS and login, and
+ * {@code smtpbench.dataDelayMs} (default 0) per message.
+ * Run with {@code ./mvnw -Ploadtest test -Dtest=SmtpBatchBenchmark}.
+ */
+@Slf4j
+@Tag("loadtest")
+class SmtpBatchBenchmark {
+
+    @Test
+    void throughputByBatchSize() throws Exception {
+        int messages = Integer.getInteger("smtpbench.messages", 2000);
+        int callers = Integer.getInteger("smtpbench.callers", 32);
+        int concurrency = Integer.getInteger("smtpbench.concurrency", 4);
+        int[] batchSizes = Arrays.stream(
+                        System.getProperty("smtpbench.batchSizes", "1,10").split(","))
+                .mapToInt(value -> Integer.parseInt(value.trim()))
+                .toArray();
+
+        Map<Integer, String> results = new LinkedHashMap<>();
+        try (FakeSmtpServer smtp = new FakeSmtpServer(
+                0, Long.getLong("smtpbench.dataDelayMs", 0), Long.getLong("smtpbench.connectDelayMs", 20))) {
+            JavaMailSenderImpl sender = new JavaMailSenderImpl();
+            sender.setHost("localhost");
+            sender.setPort(smtp.getPort());
+            sender.setUsername("bench@example.com");
+            sender.setPassword("secret");
+            sender.getJavaMailProperties().put("mail.smtp.auth", "true");
+
+            for (int batchSize : batchSizes) {
+                EmailSendScheduler scheduler =
+                        new EmailSendScheduler(true, concurrency, 1000, 5000, batchSize, 20, new SimpleMeterRegistry());
+                scheduler.start();
+                long messagesBefore = smtp.getMessagesReceived();
+                long connectionsBefore = smtp.getConnectionsAccepted();
+                ExecutorService pool = Executors.newFixedThreadPool(callers);
+                long start = System.nanoTime();
+                Future<?>[] futures = new Future<?>[messages];
+                for (int i = 0; i < messages; i++) {
+                    MimeMessage message = message(sender, i);
+                    futures[i] = pool.submit(() -> scheduler.send(NotificationPriority.MEDIUM, sender, message));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+                double seconds = (System.nanoTime() - start) / 1e9;
+                pool.shutdown();
+                scheduler.stop();
+
+                assertEquals(messages, smtp.getMessagesReceived() - messagesBefore);
+                results.put(
+                        batchSize,
+                        String.format(
+                                "%.1f msg/s over %d connections",
+                                messages / seconds, smtp.getConnectionsAccepted() - connectionsBefore));
+            }
+        }
+
+        StringBuilder table = new StringBuilder(String.format(
+                "SMTP throughput, %d messages from %d callers on %d send threads:", messages, callers, concurrency));
+        results.forEach(
+                (batchSize, result) -> table.append(String.format("%n  batch-size %3d  %s", batchSize, result)));
+        log.info(table.toString());
+    }
+
+    private static MimeMessage message(JavaMailSenderImpl sender, int i) throws MessagingException {
+        MimeMessage message = sender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, "UTF-8");
+        helper.setFrom("noreply@example.com");
+        helper.setTo("user" + i + "@example.com");
+        helper.setSubject("Your paper summary is ready");
+        helper.setText("<p>Summary " + i + " is ready.</p>", true);
+        return message;
+    }
+}
@@ -0,0 +1,96 @@
+package org.solace.scholar_ai.notification_service.loadtest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import com.sun.management.ThreadMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.config.CborMessageConverter;
+import org.solace.scholar_ai.notification_service.config.RabbitMQConfig;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+/**
+ * Payload size and decode cost of {@code NotificationRequest} as JSON and as CBOR, through the service's own
+ * content-type-negotiating converter. Encodes {@code wirebench.messages} (default 5000) requests from the load
+ * test mix in each format, then decodes all of them {@code wirebench.rounds} times (default 30, the first third
+ * discarded as warm-up) on one thread, reporting the median time and the bytes allocated per decode.
+ * Run with {@code ./mvnw -Ploadtest test -Dtest=WireFormatBenchmark}.
+ */
+@Slf4j
+@Tag("loadtest")
+class WireFormatBenchmark {
+
+    private static final String[] CONTENT_TYPES = {
+        MessageProperties.CONTENT_TYPE_JSON, CborMessageConverter.CONTENT_TYPE
+    };
+
+    @Test
+    void payloadSizeAndDecodeCost() {
+        int messages = Integer.getInteger("wirebench.messages", 5000);
+        int rounds = Math.max(3, Integer.getInteger("wirebench.rounds", 30));
+        MessageConverter converter = new RabbitMQConfig().messageConverter();
+        NotificationMix mix = NotificationMix.parse(NotificationMix.DEFAULT_SPEC, 500);
+        List<NotificationRequest> requests = new ArrayList<>(messages);
+        for (int i = 0; i < messages; i++) {
+            requests.add(mix.next());
+        }
+
+        Map<String, String> results = new LinkedHashMap<>();
+        ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (String contentType : CONTENT_TYPES) {
+            Message[] encoded = new Message[messages];
+            long[] sizes = new long[messages];
+            for (int i = 0; i < messages; i++) {
+                MessageProperties properties = new MessageProperties();
+                properties.setContentType(contentType);
+                encoded[i] = converter.toMessage(requests.get(i), properties);
+                encoded[i].getMessageProperties().setInferredArgumentType(NotificationRequest.class);
+                sizes[i] = encoded[i].getBody().length;
+                assertEquals(contentType, encoded[i].getMessageProperties().getContentType());
+            }
+            for (int i = 0; i < messages; i++) {
+                assertEquals(requests.get(i), converter.fromMessage(encoded[i]), "round trip as " + contentType);
+            }
+
+            long[] roundNanos = new long[rounds - rounds / 3];
+            long allocated = 0;
+            for (int round = 0; round < rounds; round++) {
+                long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+                long start = System.nanoTime();
+                for (Message message : encoded) {
+                    converter.fromMessage(message);
+                }
+                long elapsed = System.nanoTime() - start;
+                if (round >= rounds / 3) {
+                    roundNanos[round - rounds / 3] = elapsed;
+                    allocated += threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+                }
+            }
+            Arrays.sort(roundNanos);
+            Arrays.sort(sizes);
+            results.put(
+                    contentType,
+                    String.format(
+                            "bytes avg=%.0f p50=%d max=%d | decode %.2f us/msg, %.1f KB allocated/msg",
+                            Arrays.stream(sizes).average().orElse(0),
+                            sizes[messages / 2],
+                            sizes[messages - 1],
+                            roundNanos[roundNanos.length / 2] / 1e3 / messages,
+                            allocated / 1024.0 / roundNanos.length / messages));
+        }
+
+        StringBuilder table = new StringBuilder("NotificationRequest wire formats (" + messages + " messages):");
+        results.forEach((contentType, line) -> table.append(String.format("%n  %-18s %s", contentType, line)));
+        log.info(table.toString());
+    }
+}
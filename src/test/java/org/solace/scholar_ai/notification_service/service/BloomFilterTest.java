@@ -0,0 +1,85 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+
+class BloomFilterTest {
+
+    @Test
+    void everyAddedValueIsFound() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(address(i));
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain(address(i))).as(address(i)).isTrue();
+        }
+    }
+
+    @Test
+    void falsePositiveRateIsCloseToTheTarget() {
+        BloomFilter filter = BloomFilter.create(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.put(address(i));
+        }
+
+        int falsePositives = 0;
+        int probes = 200_000;
+        for (int i = 0; i < probes; i++) {
+            if (filter.mightContain("other-" + i + "@example.org")) {
+                falsePositives++;
+            }
+        }
+
+        assertThat((double) falsePositives / probes).isLessThan(0.02);
+        // about 9.6 bits per entry at 1%
+        assertThat(filter.sizeInBytes()).isBetween(11_000L, 13_000L);
+    }
+
+    @Test
+    void anEmptyFilterContainsNothing() {
+        BloomFilter filter = BloomFilter.create(0, 0.01);
+
+        assertThat(filter.mightContain("")).isFalse();
+        assertThat(filter.mightContain("ada@example.com")).isFalse();
+        filter.put("ada@example.com");
+        assertThat(filter.mightContain("ada@example.com")).isTrue();
+    }
+
+    @Test
+    void concurrentAddsAreNotLost() throws Exception {
+        BloomFilter filter = BloomFilter.create(80_000, 0.01);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> adds = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                adds.add(pool.submit(() -> {
+                    for (int i = thread; i < 80_000; i += 8) {
+                        filter.put(address(i));
+                    }
+                }));
+            }
+            for (Future<?> add : adds) {
+                add.get();
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        for (int i = 0; i < 80_000; i++) {
+            assertThat(filter.mightContain(address(i))).as(address(i)).isTrue();
+        }
+    }
+
+    private static String address(int i) {
+        return "user" + i + "@example.com";
+    }
+}
@@ -0,0 +1,214 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.AppNotification.NotificationPriority;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+
+class EmailSendSchedulerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService callers = Executors.newCachedThreadPool();
+    private final CountDownLatch unblock = new CountDownLatch(1);
+    private EmailSendScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        unblock.countDown();
+        scheduler.stop();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void waitingSendsGoOutByPriority() throws Exception {
+        start(60_000, 1);
+        JavaMailSender sender = mock(JavaMailSender.class);
+        List<MimeMessage> sent = recordSends(sender);
+        holdTheSendThread();
+
+        Map<NotificationPriority, MimeMessage> messages = Map.of(
+                NotificationPriority.LOW, message(),
+                NotificationPriority.MEDIUM, message(),
+                NotificationPriority.URGENT, message(),
+                NotificationPriority.HIGH, message());
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (NotificationPriority priority : List.of(
+                NotificationPriority.LOW,
+                NotificationPriority.MEDIUM,
+                NotificationPriority.URGENT,
+                NotificationPriority.HIGH)) {
+            results.add(send(priority, sender, messages.get(priority)));
+            awaitWaiting(results.size());
+        }
+        unblock.countDown();
+        CompletableFuture.allOf(results.toArray(CompletableFuture[]::new)).get(5, TimeUnit.SECONDS);
+
+        assertThat(sent)
+                .containsExactly(
+                        messages.get(NotificationPriority.URGENT),
+                        messages.get(NotificationPriority.HIGH),
+                        messages.get(NotificationPriority.MEDIUM),
+                        messages.get(NotificationPriority.LOW));
+        assertThat(meterRegistry.get("notification.email.queue.aged").counter().count())
+                .isZero();
+    }
+
+    @Test
+    void aSendThatWaitedLongEnoughGoesBeforeLaterUrgentOnes() throws Exception {
+        long agingMillis = 50;
+        start(agingMillis, 1);
+        JavaMailSender sender = mock(JavaMailSender.class);
+        List<MimeMessage> sent = recordSends(sender);
+        holdTheSendThread();
+
+        MimeMessage low = message();
+        MimeMessage urgent = message();
+        CompletableFuture<Void> lowResult = send(NotificationPriority.LOW, sender, low);
+        awaitWaiting(1);
+        // URGENT is ahead by three aging intervals; LOW has waited longer than that
+        Thread.sleep(4 * agingMillis);
+        CompletableFuture<Void> urgentResult = send(NotificationPriority.URGENT, sender, urgent);
+        awaitWaiting(2);
+        unblock.countDown();
+        CompletableFuture.allOf(lowResult, urgentResult).get(5, TimeUnit.SECONDS);
+
+        assertThat(sent).containsExactly(low, urgent);
+        assertThat(meterRegistry.get("notification.email.queue.aged").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void aFailedBatchFailsOnlyTheRejectedMessage() throws Exception {
+        start(5_000, 10);
+        JavaMailSender sender = mock(JavaMailSender.class);
+        MimeMessage first = message();
+        MimeMessage rejected = message();
+        MimeMessage last = message();
+        SendFailedException rejection = new SendFailedException("550 mailbox unavailable");
+        doAnswer(call -> {
+                    throw new MailSendException(Map.of(rejected, rejection));
+                })
+                .when(sender)
+                .send(any(MimeMessage[].class));
+        holdTheSendThread();
+
+        CompletableFuture<Void> firstResult = send(NotificationPriority.MEDIUM, sender, first);
+        CompletableFuture<Void> rejectedResult = send(NotificationPriority.MEDIUM, sender, rejected);
+        CompletableFuture<Void> lastResult = send(NotificationPriority.MEDIUM, sender, last);
+        awaitWaiting(3);
+        unblock.countDown();
+
+        firstResult.get(5, TimeUnit.SECONDS);
+        lastResult.get(5, TimeUnit.SECONDS);
+        assertThatThrownBy(() -> rejectedResult.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(MailSendException.class)
+                .cause()
+                .satisfies(e -> assertThat(((MailSendException) e).getFailedMessages())
+                        .containsExactly(Map.entry(rejected, rejection)));
+        // one connection for the three, not one each
+        verify(sender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    @Test
+    void aBatchThatFailsAsAWholeFailsEveryMessage() throws Exception {
+        start(5_000, 10);
+        JavaMailSender sender = mock(JavaMailSender.class);
+        MailSendException connectFailed = new MailSendException("Mail server connection failed");
+        doAnswer(call -> {
+                    throw connectFailed;
+                })
+                .when(sender)
+                .send(any(MimeMessage[].class));
+        holdTheSendThread();
+
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            results.add(send(NotificationPriority.MEDIUM, sender, message()));
+            awaitWaiting(i);
+        }
+        unblock.countDown();
+
+        for (CompletableFuture<Void> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS)).hasCause(connectFailed);
+        }
+        verify(sender, times(1)).send(any(MimeMessage[].class));
+    }
+
+    private void start(long agingMillis, int batchSize) {
+        scheduler = new EmailSendScheduler(true, 1, 100, agingMillis, batchSize, 200, meterRegistry);
+        scheduler.start();
+    }
+
+    /** Occupies the only send thread, through a sender of its own, until {@link #unblock} opens. */
+    private void holdTheSendThread() throws Exception {
+        JavaMailSender blocker = mock(JavaMailSender.class);
+        CountDownLatch sending = new CountDownLatch(1);
+        doAnswer(call -> {
+                    sending.countDown();
+                    unblock.await();
+                    return null;
+                })
+                .when(blocker)
+                .send(any(MimeMessage[].class));
+        send(NotificationPriority.LOW, blocker, message());
+        assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+
+    private static List<MimeMessage> recordSends(JavaMailSender sender) {
+        List<MimeMessage> sent = Collections.synchronizedList(new ArrayList<>());
+        doAnswer(call -> {
+                    for (Object message : call.getArguments()) {
+                        sent.add((MimeMessage) message);
+                    }
+                    return null;
+                })
+                .when(sender)
+                .send(any(MimeMessage[].class));
+        return sent;
+    }
+
+    private CompletableFuture<Void> send(NotificationPriority priority, JavaMailSender sender, MimeMessage message) {
+        return CompletableFuture.runAsync(() -> scheduler.send(priority, sender, message), callers);
+    }
+
+    private void awaitWaiting(int expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (waiting() < expected) {
+            assertThat(System.nanoTime()).as("sends queued").isLessThan(deadline);
+            Thread.sleep(1);
+        }
+    }
+
+    private int waiting() {
+        return (int) meterRegistry.get("notification.email.queue.depth").gauges().stream()
+                .mapToDouble(Gauge::value)
+                .sum();
+    }
+
+    private static MimeMessage message() {
+        return new MimeMessage((Session) null);
+    }
+}
@@ -0,0 +1,104 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+class HierarchicalTimerWheelTest {
+
+    // 4 slots per level and 3 levels: level 0 reaches 4 ticks, level 1 16, level 2 64; later entries overflow
+    private static final int BITS = 2;
+    private static final int LEVELS = 3;
+
+    @Test
+    void everyEntryFiresOnItsDueTick() {
+        long start = 7; // not aligned to any level boundary
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, BITS, LEVELS, start);
+        for (long due = start + 1; due <= start + 300; due++) {
+            assertThat(wheel.add(due, due)).isTrue();
+        }
+        assertThat(wheel.size()).isEqualTo(300);
+
+        for (long now = start + 1; now <= start + 300; now++) {
+            List<Long> fired = new ArrayList<>();
+            wheel.advance(now, fired::add);
+            assertThat(fired).as("fired at tick %d", now).containsExactly(now);
+        }
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void entriesCascadeAcrossLevelBoundaries() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(1, BITS, LEVELS, 0);
+        // Just before and after the level 1 (4), level 2 (16) and overflow (64) boundaries
+        Map<String, Long> due = Map.ofEntries(
+                Map.entry("l0", 3L),
+                Map.entry("l1-first", 4L),
+                Map.entry("l1-last", 15L),
+                Map.entry("l2-first", 16L),
+                Map.entry("l2-last", 63L),
+                Map.entry("overflow", 64L),
+                Map.entry("far", 200L));
+        due.forEach((item, tick) -> wheel.add(item, tick));
+
+        Map<String, Long> firedAt = new HashMap<>();
+        for (long now = 1; now <= 200; now++) {
+            long tick = now;
+            wheel.advance(now, item -> firedAt.put(item, tick));
+        }
+
+        assertThat(firedAt).isEqualTo(due);
+    }
+
+    @Test
+    void oneLongAdvanceFiresInDueOrder() {
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(10, BITS, LEVELS, 1_000);
+        Random random = new Random(42);
+        List<Long> dues = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            long due = 1_010 + random.nextInt(5_000) * 10L;
+            dues.add(due);
+            wheel.add(due, due);
+        }
+
+        List<Long> fired = new ArrayList<>();
+        wheel.advance(1_000 + 5_000 * 10L, fired::add);
+
+        assertThat(fired).hasSameSizeAs(dues).isSorted();
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void randomAddsAndStepsNeverFireEarlyOrLate() {
+        Random random = new Random(7);
+        long now = 12_345;
+        HierarchicalTimerWheel<Long> wheel = new HierarchicalTimerWheel<>(1, BITS, LEVELS, now);
+        for (int round = 0; round < 2_000; round++) {
+            for (int i = random.nextInt(3); i > 0; i--) {
+                long due = now + 1 + random.nextInt(150);
+                wheel.add(due, due);
+            }
+            long previous = now;
+            now += 1 + random.nextInt(5);
+            long target = now;
+            wheel.advance(now, due -> assertThat(due).isGreaterThan(previous).isLessThanOrEqualTo(target));
+        }
+        wheel.advance(now + 200, due -> {});
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void refusesTicksThatHavePassed() {
+        HierarchicalTimerWheel<String> wheel = new HierarchicalTimerWheel<>(100, BITS, LEVELS, 1_050);
+
+        assertThat(wheel.add("past", 900)).isFalse();
+        assertThat(wheel.add("current tick", 1_099)).isFalse();
+        assertThat(wheel.add("next tick", 1_100)).isTrue();
+        assertThat(wheel.size()).isEqualTo(1);
+    }
+}
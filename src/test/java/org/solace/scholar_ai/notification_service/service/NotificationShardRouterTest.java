@@ -0,0 +1,84 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.config.CborMessageConverter;
+import org.solace.scholar_ai.notification_service.config.RabbitMQConfig;
+import org.solace.scholar_ai.notification_service.config.ShardedQueueConfig;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.MessageConverter;
+
+class NotificationShardRouterTest {
+
+    private static final int SHARDS = 16;
+    private final MessageConverter converter = new RabbitMQConfig().messageConverter();
+
+    @Test
+    void streamedShardKeyMatchesTheDecodedRequest() {
+        for (int i = 0; i < 200; i++) {
+            NotificationRequest request = request(UUID.randomUUID(), "user" + i + "@example.com");
+            int expected = NotificationShardRouter.shardFor(request, SHARDS);
+
+            assertThat(NotificationShardRouter.shardFor(encode(request, MessageProperties.CONTENT_TYPE_JSON), SHARDS))
+                    .isEqualTo(expected);
+            assertThat(NotificationShardRouter.shardFor(encode(request, CborMessageConverter.CONTENT_TYPE), SHARDS))
+                    .isEqualTo(expected);
+        }
+    }
+
+    @Test
+    void fallsBackToTheRecipientEmailWithoutAUserId() {
+        NotificationRequest request = request(null, "Ada@Example.com");
+
+        assertThat(NotificationShardRouter.shardFor(encode(request, MessageProperties.CONTENT_TYPE_JSON), SHARDS))
+                .isEqualTo(NotificationShardRouter.shardFor(null, "ada@example.com", SHARDS));
+    }
+
+    @Test
+    void userIdHeaderWinsOverTheBody() {
+        UUID headerUser = UUID.randomUUID();
+        Message message = encode(request(UUID.randomUUID(), "x@example.com"), MessageProperties.CONTENT_TYPE_JSON);
+        message.getMessageProperties().setHeader(ShardedQueueConfig.USER_ID_HEADER, headerUser.toString());
+
+        assertThat(NotificationShardRouter.shardFor(message, SHARDS))
+                .isEqualTo(NotificationShardRouter.shardFor(headerUser, null, SHARDS));
+    }
+
+    @Test
+    void unreadableBodyGoesToShardZero() {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+        Message message = new Message("{\"userId\": ".getBytes(StandardCharsets.UTF_8), properties);
+
+        assertThat(NotificationShardRouter.shardFor(message, SHARDS)).isZero();
+    }
+
+    private Message encode(NotificationRequest request, String contentType) {
+        MessageProperties properties = new MessageProperties();
+        properties.setContentType(contentType);
+        return converter.toMessage(request, properties);
+    }
+
+    /** Nested template data holds decoy keys that must not be taken for the top-level ones. */
+    private static NotificationRequest request(UUID userId, String email) {
+        return NotificationRequest.builder()
+                .notificationType("WEB_SEARCH_COMPLETED")
+                .recipientEmail(email)
+                .recipientName("Ada")
+                .timestamp(Instant.now())
+                .templateData(Map.of(
+                        "userId", UUID.randomUUID().toString(),
+                        "nested", Map.of("recipientEmail", "decoy@example.com"),
+                        "searchTerms", List.of("a", "b")))
+                .userId(userId)
+                .build();
+    }
+}
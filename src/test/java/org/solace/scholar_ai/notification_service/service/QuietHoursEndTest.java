@@ -0,0 +1,109 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.util.UUID;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.dto.NotificationRequest.NotificationType;
+import org.solace.scholar_ai.notification_service.model.QuietHours;
+import org.solace.scholar_ai.notification_service.repository.EmailSuppressionRepository;
+import org.solace.scholar_ai.notification_service.repository.NotificationPreferenceRepository;
+import org.solace.scholar_ai.notification_service.repository.QuietHoursRepository;
+
+class QuietHoursEndTest {
+
+    private static final NotificationType TYPE = NotificationType.WELCOME_EMAIL;
+
+    private final QuietHoursRepository quietHoursRepository = mock(QuietHoursRepository.class);
+    private final DeliveryFilterService filter = new DeliveryFilterService(
+            mock(EmailSuppressionRepository.class),
+            mock(NotificationPreferenceRepository.class),
+            quietHoursRepository,
+            new SimpleMeterRegistry(),
+            1_000,
+            0.01,
+            30_000,
+            600_000);
+    private final UUID user = UUID.randomUUID();
+
+    {
+        when(quietHoursRepository.save(any(QuietHours.class))).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void sameDayWindow() {
+        filter.setQuietHours(user, LocalTime.of(13, 0), LocalTime.of(15, 0), "UTC");
+
+        assertThat(end("2026-06-10T12:59:59Z")).isNull();
+        assertThat(end("2026-06-10T13:00:00Z")).isEqualTo("2026-06-10T15:00:00Z");
+        assertThat(end("2026-06-10T14:59:59Z")).isEqualTo("2026-06-10T15:00:00Z");
+        assertThat(end("2026-06-10T15:00:00Z")).isNull();
+    }
+
+    @Test
+    void windowAcrossMidnightEndsTheNextMorning() {
+        filter.setQuietHours(user, LocalTime.of(22, 0), LocalTime.of(7, 0), "Europe/Berlin");
+
+        // Berlin is UTC+2 in June
+        assertThat(end("2026-06-10T19:59:59Z")).isNull();
+        assertThat(end("2026-06-10T20:00:00Z")).isEqualTo("2026-06-11T05:00:00Z");
+        assertThat(end("2026-06-10T21:59:00Z")).as("23:59 local").isEqualTo("2026-06-11T05:00:00Z");
+        assertThat(end("2026-06-10T22:00:00Z")).as("00:00 local").isEqualTo("2026-06-11T05:00:00Z");
+        assertThat(end("2026-06-11T04:59:59Z")).isEqualTo("2026-06-11T05:00:00Z");
+        assertThat(end("2026-06-11T05:00:00Z")).isNull();
+    }
+
+    @Test
+    void windowAcrossTheSpringForwardNightEndsAtLocalTime() {
+        filter.setQuietHours(user, LocalTime.of(22, 0), LocalTime.of(7, 0), "Europe/Berlin");
+
+        // Clocks go from 02:00 CET to 03:00 CEST on 2026-03-29: 07:00 local is 05:00Z, not 06:00Z
+        assertThat(end("2026-03-28T22:00:00Z")).as("23:00 CET").isEqualTo("2026-03-29T05:00:00Z");
+        assertThat(end("2026-03-29T01:30:00Z")).as("03:30 CEST").isEqualTo("2026-03-29T05:00:00Z");
+    }
+
+    @Test
+    void windowAcrossTheFallBackNightEndsAtLocalTime() {
+        filter.setQuietHours(user, LocalTime.of(22, 0), LocalTime.of(7, 0), "Europe/Berlin");
+
+        // Clocks go from 03:00 CEST back to 02:00 CET on 2026-10-25: 07:00 local is 06:00Z
+        assertThat(end("2026-10-24T21:00:00Z")).as("23:00 CEST").isEqualTo("2026-10-25T06:00:00Z");
+        assertThat(end("2026-10-25T00:30:00Z")).as("02:30 CEST").isEqualTo("2026-10-25T06:00:00Z");
+        assertThat(end("2026-10-25T01:30:00Z")).as("02:30 CET").isEqualTo("2026-10-25T06:00:00Z");
+    }
+
+    @Test
+    void endInsideTheSpringForwardGapMovesToTheFirstValidInstant() {
+        filter.setQuietHours(user, LocalTime.of(22, 0), LocalTime.of(2, 30), "Europe/Berlin");
+
+        // 02:30 does not exist on 2026-03-29; the window ends at 03:30 CEST
+        assertThat(end("2026-03-28T22:00:00Z")).isEqualTo("2026-03-29T01:30:00Z");
+    }
+
+    @Test
+    void transactionalTypesEmptyWindowsAndUnknownUsersAreNeverHeld() {
+        filter.setQuietHours(user, LocalTime.of(0, 0), LocalTime.of(23, 59), "UTC");
+        Instant now = Instant.parse("2026-06-10T12:00:00Z");
+
+        assertThat(filter.quietHoursEnd(user, NotificationType.PASSWORD_RESET, now))
+                .isNull();
+        assertThat(filter.quietHoursEnd(user, NotificationType.EMAIL_VERIFICATION, now))
+                .isNull();
+        assertThat(filter.quietHoursEnd(UUID.randomUUID(), TYPE, now)).isNull();
+        assertThat(filter.quietHoursEnd(null, TYPE, now)).isNull();
+
+        filter.setQuietHours(user, LocalTime.of(9, 0), LocalTime.of(9, 0), "UTC");
+        assertThat(filter.quietHoursEnd(user, TYPE, now)).isNull();
+    }
+
+    private String end(String now) {
+        Instant end = filter.quietHoursEnd(user, TYPE, Instant.parse(now));
+        return end != null ? end.toString() : null;
+    }
+}
@@ -0,0 +1,70 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Objects;
+import org.junit.jupiter.api.Test;
+
+class SmtpTraceWireFilterTest {
+
+    @Test
+    void keepsDialogueAndDropsMessageContent() {
+        List<String> transcript = List.of(
+                "DEBUG: getProvider() returning jakarta.mail.Provider[TRANSPORT,smtp,org.eclipse.angus.mail.smtp]",
+                "220 mail.example.com ESMTP",
+                "EHLO app-1",
+                "250-mail.example.com",
+                "250 AUTH PLAIN LOGIN",
+                "AUTH PLAIN AHVzZXIAc2VjcmV0",
+                "235 2.7.0 Authentication successful",
+                "MAIL FROM:<noreply@scholarai.com>",
+                "250 OK",
+                "RCPT TO:<ada@example.com>",
+                "250 OK",
+                "DEBUG SMTP: Verified Addresses",
+                "DATA",
+                "354 End data with <CR><LF>.<CR><LF>",
+                "Subject: Reset your password",
+                "",
+                "Your reset code is 731904",
+                "250 looks like a reply but is body text",
+                ".",
+                "250 OK queued",
+                "QUIT",
+                "221 Bye");
+
+        SmtpTraceService.WireFilter filter = new SmtpTraceService.WireFilter();
+        List<String> logged =
+                transcript.stream().map(filter::accept).filter(Objects::nonNull).toList();
+
+        assertThat(logged)
+                .containsExactly(
+                        "220 mail.example.com ESMTP",
+                        "EHLO app-1",
+                        "250-mail.example.com",
+                        "250 AUTH PLAIN LOGIN",
+                        "AUTH PLAIN",
+                        "235 2.7.0 Authentication successful",
+                        "MAIL FROM:<noreply@scholarai.com>",
+                        "250 OK",
+                        "RCPT TO:<ada@example.com>",
+                        "250 OK",
+                        "DATA",
+                        "354 End data with <CR><LF>.<CR><LF>",
+                        "[message content omitted: 4 lines]",
+                        "250 OK queued",
+                        "QUIT",
+                        "221 Bye");
+    }
+
+    @Test
+    void rejectedDataDoesNotSwallowTheRestOfTheDialogue() {
+        SmtpTraceService.WireFilter filter = new SmtpTraceService.WireFilter();
+
+        assertThat(filter.accept("DATA")).isEqualTo("DATA");
+        assertThat(filter.accept("554 Transaction failed")).isEqualTo("554 Transaction failed");
+        assertThat(filter.accept("RSET")).isEqualTo("RSET");
+        assertThat(filter.accept("250 OK")).isEqualTo("250 OK");
+    }
+}
@@ -0,0 +1,100 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Document;
+import org.junit.jupiter.api.Test;
+
+class TemplateOptimizerTest {
+
+    private final TemplateOptimizer optimizer = new TemplateOptimizer(false, null, null);
+
+    @Test
+    void moreSpecificSelectorsWinRegardlessOfSourceOrder() {
+        Document doc = optimize(
+                """
+                <style>
+                  td.cell { color: green; }
+                  .cell { color: red; padding: 4px; }
+                  td { color: blue; margin: 0; }
+                  .late { padding: 8px; }
+                </style>
+                <table><tr><td class="cell late">x</td></tr></table>
+                """);
+
+        assertThat(style(doc, "td")).contains("color:green", "padding:8px", "margin:0");
+        assertThat(doc.select("style")).isEmpty();
+    }
+
+    @Test
+    void importantBeatsTheInlineStyleAndPlainRulesDoNot() {
+        Document doc = optimize(
+                """
+                <style>
+                  p { color: red !important; font-size: 12px; }
+                </style>
+                <p style="color: blue; font-size: 16px">x</p>
+                """);
+
+        assertThat(style(doc, "p")).contains("color:red!important", "font-size:16px");
+    }
+
+    @Test
+    void usedMediaQueriesAndOutlookHooksAreKept() {
+        Document doc = optimize(
+                """
+                <style>
+                  @media only screen and (max-width: 600px) { .wide { width: 100% !important; } .gone { color: red; } }
+                  @media print { .gone { display: none; } }
+                  span.MsoHyperlink { mso-style-priority: 99; color: inherit; }
+                  a:hover { color: red; }
+                  .unused { color: red; }
+                </style>
+                <!--[if mso]><table><tr><td width="600"><![endif]-->
+                <!-- authoring note -->
+                <div class="wide"><a href="#">x</a></div>
+                <!--[if mso]></td></tr></table><![endif]-->
+                """);
+
+        String css = doc.select("style").html();
+        assertThat(css)
+                .contains("@media only screen and (max-width: 600px){.wide{width:100%!important}}")
+                .contains("span.MsoHyperlink{mso-style-priority:99;color:inherit}")
+                .contains("a:hover{color:red}")
+                .doesNotContain(".gone", "@media print", ".unused");
+        String html = doc.outerHtml();
+        assertThat(html)
+                .contains("<!--[if mso]><table><tr><td width=\"600\"><![endif]-->")
+                .contains("<!--[if mso]></td></tr></table><![endif]-->")
+                .doesNotContain("authoring note");
+    }
+
+    @Test
+    void thymeleafAttributesSurviveTheRewrite() {
+        Document doc = optimize(
+                """
+                <style>.title { font-weight: bold; } li { margin: 0; }</style>
+                <h1 class="title" th:text="${paperTitle}">Title</h1>
+                <ul><li th:each="gap: ${gapNames}" th:text="${gap}">gap</li></ul>
+                <a class="title" th:href="${appUrl}" href="#">Open</a>
+                <img th:src="${logoSrc}" src="logo.png">
+                """);
+
+        assertThat(doc.selectFirst("h1").attr("th:text")).isEqualTo("${paperTitle}");
+        assertThat(style(doc, "h1")).isEqualTo("font-weight:bold");
+        assertThat(doc.selectFirst("li").attr("th:each")).isEqualTo("gap: ${gapNames}");
+        assertThat(doc.selectFirst("li").attr("th:text")).isEqualTo("${gap}");
+        assertThat(doc.selectFirst("a").attr("th:href")).isEqualTo("${appUrl}");
+        assertThat(style(doc, "a")).isEqualTo("font-weight:bold");
+        assertThat(doc.selectFirst("img").attr("th:src")).isEqualTo("${logoSrc}");
+    }
+
+    private Document optimize(String html) {
+        return Jsoup.parse(optimizer.optimize(html));
+    }
+
+    private static String style(Document doc, String selector) {
+        return doc.selectFirst(selector).attr("style");
+    }
+}
@@ -0,0 +1,141 @@
+package org.solace.scholar_ai.notification_service.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.ByteBuffer;
+import java.sql.ResultSet;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.solace.scholar_ai.notification_service.model.PayloadDictionary;
+import org.solace.scholar_ai.notification_service.repository.PayloadDictionaryRepository;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+
+class TemplatePayloadCodecTest {
+
+    private static final String TYPE = "WEB_SEARCH_COMPLETED";
+
+    private final PayloadDictionaryRepository repository = mock(PayloadDictionaryRepository.class);
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final List<PayloadDictionary> saved = new ArrayList<>();
+    private final List<String> stored = new ArrayList<>();
+    private final TemplatePayloadCodec codec = codec();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        AtomicInteger ids = new AtomicInteger(6);
+        when(repository.save(any(PayloadDictionary.class))).thenAnswer(call -> {
+            PayloadDictionary dictionary = call.getArgument(0);
+            dictionary.setId(ids.incrementAndGet());
+            saved.add(dictionary);
+            return dictionary;
+        });
+        when(repository.findAll()).thenReturn(saved);
+        doAnswer(call -> {
+                    RowCallbackHandler handler = call.getArgument(1);
+                    for (String json : stored) {
+                        ResultSet row = mock(ResultSet.class);
+                        when(row.getString("template_data")).thenReturn(json);
+                        handler.processRow(row);
+                    }
+                    return null;
+                })
+                .when(jdbcTemplate)
+                .query(anyString(), any(RowCallbackHandler.class), any(), any());
+        for (int i = 0; i < 50; i++) {
+            stored.add(payload(i));
+        }
+    }
+
+    @Test
+    void roundTripsWithATrainedDictionaryAndBeatsPlainDeflate() {
+        String json = payload(1_000);
+        byte[] plain = codec.encode(TYPE, json);
+
+        TemplatePayloadCodec.DictionarySummary summary = codec.train(TYPE, 50);
+        byte[] compressed = codec.encode(TYPE, json);
+
+        assertThat(header(plain)).containsExactly(1, 0);
+        assertThat(header(compressed)).containsExactly(2, summary.id());
+        assertThat(codec.decode(compressed)).isEqualTo(json);
+        assertThat(codec.decode(plain)).isEqualTo(json);
+        assertThat(compressed.length).isLessThan(plain.length);
+    }
+
+    @Test
+    void anotherInstanceLoadsTheDictionaryToDecode() {
+        codec.train(TYPE, 50);
+        String json = payload(1_001);
+        byte[] compressed = codec.encode(TYPE, json);
+
+        assertThat(codec().decode(compressed)).isEqualTo(json);
+    }
+
+    @Test
+    void payloadsStayReadableAfterRetraining() {
+        int first = codec.train(TYPE, 50).id();
+        String json = payload(1_002);
+        byte[] before = codec.encode(TYPE, json);
+
+        stored.replaceAll(payload -> payload.replace("arxiv", "semantic-scholar"));
+        int second = codec.train(TYPE, 50).id();
+        byte[] after = codec.encode(TYPE, json);
+
+        assertThat(second).isGreaterThan(first);
+        assertThat(header(before)[1]).isEqualTo(first);
+        assertThat(header(after)[1]).isEqualTo(second);
+        assertThat(codec.decode(before)).isEqualTo(json);
+        assertThat(codec.decode(after)).isEqualTo(json);
+    }
+
+    @Test
+    void keepsNonAsciiAndEscapedText() {
+        codec.train(TYPE, 50);
+        String json = "{\"query\":\"Gödel \\\"incompleteness\\\" → 証明\",\"emoji\":\"🔬\",\"n\":1}";
+
+        assertThat(codec.decode(codec.encode(TYPE, json))).isEqualTo(json);
+    }
+
+    @Test
+    void unknownDictionaryIsAnError() {
+        byte[] compressed = codec().encode(TYPE, payload(1));
+        ByteBuffer.wrap(compressed).put((byte) 2).putInt(99);
+
+        assertThatThrownBy(() -> codec.decode(compressed))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("99");
+    }
+
+    @Test
+    void trainingNeedsEnoughSamples() {
+        stored.subList(5, stored.size()).clear();
+
+        assertThatThrownBy(() -> codec.train(TYPE, 50)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private TemplatePayloadCodec codec() {
+        return new TemplatePayloadCodec(repository, jdbcTemplate, true, 32768, 500);
+    }
+
+    private static int[] header(byte[] stored) {
+        ByteBuffer buffer = ByteBuffer.wrap(stored);
+        return new int[] {buffer.get(), buffer.getInt()};
+    }
+
+    private static String payload(int i) {
+        return "{\"userName\":\"User " + i + "\",\"projectId\":\"" + UUID.nameUUIDFromBytes(("p" + i).getBytes())
+                + "\",\"searchTerms\":[\"graph neural networks\",\"term " + i % 7 + "\"],"
+                + "\"source\":\"arxiv\",\"papersFound\":" + (i * 37 % 200) + ",\"status\":\"COMPLETED\","
+                + "\"dashboardUrl\":\"https://scholarai.example.com/interface/projects\"}";
+    }
+}